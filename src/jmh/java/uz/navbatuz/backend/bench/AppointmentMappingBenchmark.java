@@ -0,0 +1,89 @@
+package uz.navbatuz.backend.bench;
+
+import org.openjdk.jmh.annotations.*;
+import uz.navbatuz.backend.appointment.dto.AppointmentResponse;
+import uz.navbatuz.backend.appointment.dto.AppointmentResponseStaff;
+import uz.navbatuz.backend.appointment.dto.AppointmentRow;
+import uz.navbatuz.backend.appointment.repository.AppointmentRepository;
+import uz.navbatuz.backend.appointment.service.AppointmentService;
+import uz.navbatuz.backend.common.AppointmentStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row to response mapping of the worker day screens. The repository is a stub returning
+ * prepared {@link AppointmentRow}s, so only the service-side mapping (name fallback,
+ * phone masking, DTO construction) is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppointmentMappingBenchmark {
+
+    private static final UUID WORKER_ID = new UUID(0, 7);
+    private static final LocalDate DATE = LocalDate.of(2025, 1, 15);
+
+    @Param({"10", "50", "200"})
+    public int rows;
+
+    private AppointmentService service;
+
+    @Setup
+    public void setup() {
+        List<AppointmentRow> data = rows(rows, new Random(42L));
+        AppointmentRepository repository = (AppointmentRepository) Proxy.newProxyInstance(
+                AppointmentRepository.class.getClassLoader(),
+                new Class<?>[]{AppointmentRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findRowsByWorkerIdAndDate")) return data;
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        service = new AppointmentService(repository, null, null, null, null, null, null, null,
+                null, null, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public List<AppointmentResponse> workerDay() {
+        return service.getWorkerAppointmentsDay(WORKER_ID, DATE);
+    }
+
+    @Benchmark
+    public List<AppointmentResponseStaff> workerDayStaff() {
+        return service.getWorkerAppointmentsDayStaff(WORKER_ID, DATE);
+    }
+
+    /** Mix of registered customers, named guests, unnamed guests and walk-ins. */
+    private static List<AppointmentRow> rows(int count, Random rnd) {
+        UUID providerId = new UUID(0, 1);
+        UUID serviceId = new UUID(0, 2);
+        List<AppointmentRow> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalTime start = LocalTime.of(8, 0).plusMinutes(5L * (i % 144));
+            boolean customer = rnd.nextInt(3) == 0;
+            int guestKind = rnd.nextInt(3);
+            String guestPhone = guestKind == 2 ? "+888" + (1000000 + i) : "+99890" + (1000000 + i);
+            result.add(new AppointmentRow(
+                    new UUID(1, i), WORKER_ID, providerId, serviceId, DATE,
+                    start, start.plusMinutes(30), AppointmentStatus.BOOKED,
+                    "Worker", "Provider", "Haircut",
+                    customer ? new UUID(2, i) : null,
+                    customer ? "Customer " + i : null,
+                    customer ? "+99891" + (1000000 + i) : null,
+                    null,
+                    customer ? null : new UUID(3, i),
+                    customer || guestKind != 0 ? null : "Guest " + i,
+                    customer ? null : guestPhone));
+        }
+        return result;
+    }
+}
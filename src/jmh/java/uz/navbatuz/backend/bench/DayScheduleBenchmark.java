@@ -0,0 +1,82 @@
+package uz.navbatuz.backend.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uz.navbatuz.backend.availability.schedule.DaySchedule;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slot generation for one worker-day: the {@link DaySchedule} engine (build, sweep, single-slot
+ * check, appointment patch) next to the legacy interval-list generator on the same synthetic day.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DayScheduleBenchmark {
+
+    private static final int STEP = 5;
+    private static final Duration BUFFER = Duration.ofMinutes(5);
+    private static final UUID PROVIDER_ID = new UUID(0, 1);
+
+    @Param({"0", "3", "8"})
+    public int breaks;
+
+    @Param({"0", "10", "30"})
+    public int appointments;
+
+    @Param({"15", "45", "90"})
+    public int durationMinutes;
+
+    private SyntheticDay day;
+    private DaySchedule schedule;
+    private LocalTime probe;
+    private UUID newAppointmentId;
+
+    @Setup
+    public void setup() {
+        day = SyntheticDay.generate(breaks, appointments, 42L);
+        schedule = build();
+        List<LocalTime> free = schedule.freeSlots(durationMinutes, 0, STEP);
+        probe = free.isEmpty() ? SyntheticDay.WINDOW.start() : free.get(free.size() / 2);
+        newAppointmentId = UUID.randomUUID();
+    }
+
+    @Benchmark
+    public DaySchedule build() {
+        return DaySchedule.of(PROVIDER_ID, true, 30, SyntheticDay.WINDOW, BUFFER, day.breaks, day.appointments);
+    }
+
+    @Benchmark
+    public List<LocalTime> freeSlots() {
+        return schedule.freeSlots(durationMinutes, 0, STEP);
+    }
+
+    @Benchmark
+    public void buildAndFreeSlots(Blackhole bh) {
+        bh.consume(build().freeSlots(durationMinutes, 0, STEP));
+    }
+
+    @Benchmark
+    public boolean isFree() {
+        return schedule.isFree(probe, durationMinutes, 0, STEP);
+    }
+
+    @Benchmark
+    public DaySchedule withAppointment() {
+        return schedule.withAppointment(newAppointmentId, probe, probe.plusMinutes(durationMinutes));
+    }
+
+    @Benchmark
+    public List<LocalTime> legacyFreeSlots() {
+        return LegacySlotGenerator.freeSlots(SyntheticDay.WINDOW, day.breaks, day.appointments.values(),
+                BUFFER, Duration.ofMinutes(durationMinutes), Duration.ofMinutes(STEP));
+    }
+}
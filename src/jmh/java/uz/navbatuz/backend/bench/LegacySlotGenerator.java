@@ -0,0 +1,69 @@
+package uz.navbatuz.backend.bench;
+
+import uz.navbatuz.backend.availability.dto.TimeRange;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The interval-list slot generator that {@code WorkerService.getFreeSlots} used before the
+ * {@code DaySchedule} bitset engine: subtract breaks from the window with {@link TimeRange#subtract},
+ * then walk the grid and test every candidate against every appointment.
+ * Kept here only as the baseline the current engine is measured against.
+ */
+final class LegacySlotGenerator {
+
+    private LegacySlotGenerator() {}
+
+    static List<LocalTime> freeSlots(TimeRange window, Collection<TimeRange> breaks,
+                                     Collection<TimeRange> booked, Duration buffer,
+                                     Duration serviceDuration, Duration step) {
+        List<TimeRange> available = new ArrayList<>();
+        available.add(window);
+        for (TimeRange b : breaks) {
+            List<TimeRange> updated = new ArrayList<>();
+            for (TimeRange r : available) {
+                updated.addAll(r.subtract(b.start(), b.end()));
+            }
+            available = updated;
+        }
+
+        List<LocalTime> result = new ArrayList<>();
+        for (TimeRange r : available) {
+            LocalTime current = roundUp(r.start(), step);
+            while (!current.plus(serviceDuration).isAfter(r.end())) {
+                LocalTime slotEnd = current.plus(serviceDuration);
+                LocalTime candidate = current;
+                boolean clashes = booked.stream().anyMatch(app ->
+                        overlapsWithBuffer(candidate, slotEnd, app.start(), app.end(), buffer));
+                if (!clashes) {
+                    result.add(current);
+                }
+                current = current.plus(step);
+            }
+        }
+        return result;
+    }
+
+    private static LocalTime roundUp(LocalTime t, Duration step) {
+        long stepSec = step.getSeconds();
+        long sec = t.toSecondOfDay();
+        long rem = sec % stepSec;
+        if (rem == 0) return t;
+        long up = sec + (stepSec - rem);
+        if (up >= 24 * 3600) up = 24 * 3600 - 1;
+        return LocalTime.ofSecondOfDay(up);
+    }
+
+    private static boolean overlapsWithBuffer(LocalTime candStart, LocalTime candEnd,
+                                              LocalTime existStart, LocalTime existEnd,
+                                              Duration buffer) {
+        LocalTime paddedStart = existStart.minus(buffer);
+        if (paddedStart.isAfter(existStart)) paddedStart = LocalTime.MIDNIGHT;
+        LocalTime paddedEnd = existEnd.plus(buffer);
+        return candStart.isBefore(paddedEnd) && paddedStart.isBefore(candEnd);
+    }
+}
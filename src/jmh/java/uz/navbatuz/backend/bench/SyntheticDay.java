@@ -0,0 +1,63 @@
+package uz.navbatuz.backend.bench;
+
+import uz.navbatuz.backend.availability.dto.TimeRange;
+
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Deterministic 08:00-20:00 working day with the requested number of breaks and appointments.
+ * Breaks and appointments are placed on a 5-minute grid and never overlap each other, so both
+ * slot engines see the same day.
+ */
+final class SyntheticDay {
+
+    static final TimeRange WINDOW = new TimeRange(LocalTime.of(8, 0), LocalTime.of(20, 0));
+
+    final List<TimeRange> breaks;
+    final Map<UUID, TimeRange> appointments;
+
+    private SyntheticDay(List<TimeRange> breaks, Map<UUID, TimeRange> appointments) {
+        this.breaks = breaks;
+        this.appointments = appointments;
+    }
+
+    static SyntheticDay generate(int breakCount, int appointmentCount, long seed) {
+        Random rnd = new Random(seed);
+        int from = WINDOW.start().toSecondOfDay() / 60;
+        int to = WINDOW.end().toSecondOfDay() / 60;
+        BitSet taken = new BitSet(to);
+
+        List<TimeRange> breaks = new ArrayList<>();
+        for (int i = 0; i < breakCount; i++) {
+            int[] r = place(rnd, taken, from, to, 10 + 5 * rnd.nextInt(6));
+            if (r != null) breaks.add(range(r));
+        }
+        Map<UUID, TimeRange> appointments = new LinkedHashMap<>();
+        for (int i = 0; i < appointmentCount; i++) {
+            int[] r = place(rnd, taken, from, to, 15 + 15 * rnd.nextInt(4));
+            if (r != null) appointments.put(new UUID(seed, i), range(r));
+        }
+        return new SyntheticDay(breaks, appointments);
+    }
+
+    /** First free run of {@code length} minutes at a random 5-minute offset; null when the day is full. */
+    private static int[] place(Random rnd, BitSet taken, int from, int to, int length) {
+        int slots = (to - from) / 5;
+        int offset = rnd.nextInt(slots);
+        for (int i = 0; i < slots; i++) {
+            int s = from + ((offset + i) % slots) * 5;
+            int e = s + length;
+            int next = taken.nextSetBit(s);
+            if (e <= to && (next < 0 || next >= e)) {
+                taken.set(s, e);
+                return new int[]{s, e};
+            }
+        }
+        return null;
+    }
+
+    private static TimeRange range(int[] r) {
+        return new TimeRange(LocalTime.of(r[0] / 60, r[0] % 60), LocalTime.of(r[1] / 60, r[1] % 60));
+    }
+}
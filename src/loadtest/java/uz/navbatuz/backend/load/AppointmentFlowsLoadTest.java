@@ -0,0 +1,299 @@
+package uz.navbatuz.backend.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import uz.navbatuz.backend.auth.service.JwtService;
+import uz.navbatuz.backend.common.Category;
+import uz.navbatuz.backend.common.Role;
+import uz.navbatuz.backend.user.model.User;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the app against PostGIS in Docker, seeds {@link LoadProfile} volumes and drives the
+ * public search, free-slot, booking, cancel and review flows from concurrent virtual users.
+ * Prints p50/p90/p99 latency and throughput per endpoint.
+ * <p>
+ * Only runs with {@code mvn -P loadtest test}; tune volumes with {@code -Dload.*}.
+ */
+@Slf4j
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AppointmentFlowsLoadTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGIS = new PostgreSQLContainer<>(
+            DockerImageName.parse("postgis/postgis:16-3.4").asCompatibleSubstituteFor("postgres"))
+            .withCommand("postgres", "-c", "max_connections=300", "-c", "shared_buffers=512MB",
+                    "-c", "fsync=off", "-c", "synchronous_commit=off");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "40");
+        registry.add("app.mail.from", () -> "load@load.test");
+        registry.add("spring.mail.host", () -> "127.0.0.1");
+        registry.add("spring.mail.port", () -> "1");
+        registry.add("app.sql.hibernate-statistics", () -> "true");
+    }
+
+    private static final LoadProfile PROFILE = LoadProfile.fromSystemProperties();
+
+    // Tashkent bounding box, same as the seeded locations
+    private static final double LAT_MIN = 41.20, LAT_SPAN = 0.18, LON_MIN = 69.15, LON_SPAN = 0.25;
+    private static final int SERVICE_MINUTES = 30;
+    private static final LocalTime AFTERNOON = LocalTime.of(15, 0); // seeded appointments end by 14:10
+
+    private enum Flow { NEARBY, CATEGORY, FREE_SLOTS, BOOK, CANCEL, REVIEW }
+
+    // relative weights, in Flow order
+    private static final int[] WEIGHTS = {25, 10, 35, 15, 10, 5};
+
+    private record WorkerRef(UUID id, UUID serviceId) {}
+
+    private record Account(UUID id, String email) {}
+
+    private record Booked(UUID appointmentId, Account customer) {}
+
+    private record Completed(UUID appointmentId, Account customer) {}
+
+    @LocalServerPort
+    int port;
+
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PasswordEncoder passwordEncoder;
+    @Autowired JwtService jwtService;
+    @Autowired ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(8))
+            .build();
+    private final LatencyReport report = new LatencyReport();
+    private final Map<UUID, String> tokens = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Booked> booked = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Completed> reviewable = new ConcurrentLinkedQueue<>();
+
+    private List<WorkerRef> workers;
+    private List<Account> customers;
+
+    @Test
+    void appointmentFlowsUnderLoad() throws Exception {
+        new LoadDataSeeder(jdbc, PROFILE, passwordEncoder.encode("LoadTest#1")).seed();
+        loadPools();
+
+        ExecutorService users = Executors.newFixedThreadPool(PROFILE.virtualUsers());
+        long deadline = System.nanoTime() + PROFILE.warmup().plus(PROFILE.duration()).toNanos();
+        for (int i = 0; i < PROFILE.virtualUsers(); i++) {
+            users.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    runOnce(pickFlow());
+                }
+            });
+        }
+
+        Thread.sleep(PROFILE.warmup().toMillis());
+        report.startRecording();
+        long started = System.nanoTime();
+        Thread.sleep(PROFILE.duration().toMillis());
+        report.stopRecording();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        users.shutdown();
+        users.awaitTermination(1, TimeUnit.MINUTES);
+
+        log.info("Load run: {} virtual users for {}{}", PROFILE.virtualUsers(), elapsed, report.render(elapsed));
+
+        for (Flow flow : List.of(Flow.NEARBY, Flow.CATEGORY, Flow.FREE_SLOTS, Flow.BOOK)) {
+            assertThat(report.ok(endpoint(flow))).as(flow + " succeeded at least once").isPositive();
+        }
+    }
+
+    private void loadPools() {
+        workers = jdbc.query("SELECT worker_id, service_id FROM worker_services",
+                (rs, i) -> new WorkerRef(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class)));
+        customers = jdbc.query("SELECT u.id, u.email FROM users u JOIN customers c ON c.id = u.id",
+                (rs, i) -> new Account(rs.getObject(1, UUID.class), rs.getString(2)));
+        reviewable.addAll(jdbc.query("""
+                SELECT a.id, u.id, u.email
+                FROM appointments a JOIN users u ON u.id = a.customer_id
+                WHERE a.status = 'COMPLETED' AND a.date >= current_date - 7
+                  AND NOT EXISTS (SELECT 1 FROM reviews r WHERE r.appointment_id = a.id)
+                ORDER BY random() LIMIT 100000
+                """, (rs, i) -> new Completed(rs.getObject(1, UUID.class),
+                new Account(rs.getObject(2, UUID.class), rs.getString(3)))));
+    }
+
+    private Flow pickFlow() {
+        int total = 0;
+        for (int w : WEIGHTS) total += w;
+        int r = ThreadLocalRandom.current().nextInt(total);
+        for (Flow f : Flow.values()) {
+            r -= WEIGHTS[f.ordinal()];
+            if (r < 0) return f;
+        }
+        return Flow.FREE_SLOTS;
+    }
+
+    private void runOnce(Flow flow) {
+        try {
+            switch (flow) {
+                case NEARBY -> nearby();
+                case CATEGORY -> category();
+                case FREE_SLOTS -> freeSlots(randomWorker(), randomFutureDate());
+                case BOOK -> book();
+                case CANCEL -> cancel();
+                case REVIEW -> review();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            report.failure(endpoint(flow));
+        }
+    }
+
+    /* ---------------- flows ---------------- */
+
+    private void nearby() throws Exception {
+        var rnd = ThreadLocalRandom.current();
+        double lat = LAT_MIN + rnd.nextDouble() * LAT_SPAN;
+        double lon = LON_MIN + rnd.nextDouble() * LON_SPAN;
+        send(Flow.NEARBY, get(String.format(Locale.ROOT,
+                "/api/providers/public/nearby?lat=%.5f&lon=%.5f&radius=3000&size=20", lat, lon), null));
+    }
+
+    private void category() throws Exception {
+        Category[] seeded = {Category.BARBERSHOP, Category.BEAUTY_SALON, Category.NAIL_SALON,
+                Category.SPA, Category.MASSAGE_CENTER};
+        var rnd = ThreadLocalRandom.current();
+        send(Flow.CATEGORY, get("/api/providers/public/search?category=%s&page=%d&size=10"
+                .formatted(seeded[rnd.nextInt(seeded.length)], rnd.nextInt(20)), null));
+    }
+
+    private JsonNode freeSlots(WorkerRef worker, LocalDate date) throws Exception {
+        var res = send(Flow.FREE_SLOTS, get("/api/workers/free-slots/%s?date=%s&serviceDurationMinutes=%d"
+                .formatted(worker.id(), date, SERVICE_MINUTES), null));
+        return res.statusCode() == 200 ? objectMapper.readTree(res.body()) : null;
+    }
+
+    /** Free-slot lookup then booking of a random afternoon slot, like the app does. */
+    private void book() throws Exception {
+        WorkerRef worker = randomWorker();
+        LocalDate date = randomFutureDate();
+        JsonNode slots = freeSlots(worker, date);
+        if (slots == null || slots.isEmpty()) return;
+        List<LocalTime> afternoon = new ArrayList<>();
+        for (JsonNode s : slots) {
+            LocalTime t = LocalTime.parse(s.asText());
+            if (!t.isBefore(AFTERNOON)) afternoon.add(t);
+        }
+        if (afternoon.isEmpty()) return;
+        LocalTime start = afternoon.get(ThreadLocalRandom.current().nextInt(afternoon.size()));
+
+        Account customer = randomCustomer();
+        String body = objectMapper.writeValueAsString(Map.of(
+                "workerId", worker.id(), "serviceId", worker.serviceId(),
+                "date", date.toString(), "startTime", start.toString()));
+        var res = send(Flow.BOOK, post("/api/appointments", body, customer));
+        if (res.statusCode() == 201) {
+            booked.add(new Booked(UUID.fromString(objectMapper.readTree(res.body()).get("id").asText()), customer));
+        }
+    }
+
+    private void cancel() throws Exception {
+        Booked b = booked.poll();
+        if (b == null) {
+            book();
+            return;
+        }
+        send(Flow.CANCEL, HttpRequest.newBuilder(uri("/api/appointments/" + b.appointmentId() + "/cancel"))
+                .header("Authorization", "Bearer " + token(b.customer()))
+                .PUT(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    private void review() throws Exception {
+        Completed c = reviewable.poll();
+        if (c == null) return;
+        String body = objectMapper.writeValueAsString(Map.of(
+                "appointmentId", c.appointmentId(),
+                "rating", 1 + ThreadLocalRandom.current().nextInt(5),
+                "comment", "Load test review"));
+        send(Flow.REVIEW, post("/api/reviews", body, c.customer()));
+    }
+
+    /* ---------------- http ---------------- */
+
+    private HttpResponse<String> send(Flow flow, HttpRequest.Builder request) throws Exception {
+        long started = System.nanoTime();
+        var res = http.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+        report.record(endpoint(flow), started, res.statusCode());
+        return res;
+    }
+
+    private HttpRequest.Builder get(String path, Account account) {
+        var b = HttpRequest.newBuilder(uri(path)).GET();
+        if (account != null) b.header("Authorization", "Bearer " + token(account));
+        return b;
+    }
+
+    private HttpRequest.Builder post(String path, String json, Account account) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token(account))
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private String token(Account account) {
+        return tokens.computeIfAbsent(account.id(), id -> jwtService.generateToken(
+                User.builder().id(id).email(account.email()).role(Role.CUSTOMER).build()));
+    }
+
+    private static String endpoint(Flow flow) {
+        return flow.name().toLowerCase().replace('_', '-');
+    }
+
+    private WorkerRef randomWorker() {
+        return workers.get(ThreadLocalRandom.current().nextInt(workers.size()));
+    }
+
+    private Account randomCustomer() {
+        return customers.get(ThreadLocalRandom.current().nextInt(customers.size()));
+    }
+
+    private static LocalDate randomFutureDate() {
+        return LocalDate.now().plusDays(1 + ThreadLocalRandom.current().nextInt(Math.max(1, PROFILE.futureDays())));
+    }
+}
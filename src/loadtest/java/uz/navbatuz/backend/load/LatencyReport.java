@@ -0,0 +1,77 @@
+package uz.navbatuz.backend.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms and outcome counters, shared by all virtual users.
+ * Latencies are recorded in microseconds (1 µs .. 60 s, 3 significant digits).
+ */
+class LatencyReport {
+
+    private static final long MAX_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    static final class Endpoint {
+        final Histogram latency = new ConcurrentHistogram(MAX_MICROS, 3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder clientErrors = new LongAdder();
+        final LongAdder serverErrors = new LongAdder();
+        final LongAdder failures = new LongAdder(); // transport errors, timeouts
+    }
+
+    /** Samples taken before this call (warm-up) are dropped. */
+    void startRecording() {
+        endpoints.clear();
+        recording = true;
+    }
+
+    void stopRecording() {
+        recording = false;
+    }
+
+    void record(String endpoint, long startedNanos, int status) {
+        if (!recording) return;
+        Endpoint e = endpoints.computeIfAbsent(endpoint, k -> new Endpoint());
+        long micros = Math.min(MAX_MICROS, Math.max(1, (System.nanoTime() - startedNanos) / 1_000));
+        e.latency.recordValue(micros);
+        if (status < 400) e.ok.increment();
+        else if (status < 500) e.clientErrors.increment();
+        else e.serverErrors.increment();
+    }
+
+    void failure(String endpoint) {
+        if (!recording) return;
+        endpoints.computeIfAbsent(endpoint, k -> new Endpoint()).failures.increment();
+    }
+
+    long ok(String endpoint) {
+        Endpoint e = endpoints.get(endpoint);
+        return e == null ? 0 : e.ok.sum();
+    }
+
+    String render(Duration elapsed) {
+        double seconds = Math.max(1, elapsed.toMillis()) / 1000.0;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%n%-14s %9s %9s %9s %9s %9s %9s %7s %7s %7s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "4xx", "5xx", "fail"));
+        endpoints.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(en -> {
+            Endpoint e = en.getValue();
+            Histogram h = e.latency;
+            sb.append(String.format("%-14s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7d %7d %7d%n",
+                    en.getKey(), h.getTotalCount(), h.getTotalCount() / seconds,
+                    h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+                    h.getValueAtPercentile(99) / 1000.0, h.getMaxValue() / 1000.0,
+                    e.clientErrors.sum(), e.serverErrors.sum(), e.failures.sum()));
+        });
+        return sb.toString();
+    }
+}
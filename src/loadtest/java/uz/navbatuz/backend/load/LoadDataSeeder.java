@@ -0,0 +1,208 @@
+package uz.navbatuz.backend.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Bulk-loads a realistic data set with set-based SQL (generate_series), which is orders of
+ * magnitude faster than going through JPA. Runs after Hibernate created the schema, so column
+ * names follow the entity mappings; enum columns mapped by ordinal get ordinals here too.
+ * <p>
+ * Every worker gets {@code appointmentsPerDay} appointments from 09:00 on each seeded day,
+ * leaving afternoons free for the booking flow. Past appointments are mostly COMPLETED and
+ * about a third of those older than a week carry a review.
+ */
+@Slf4j
+class LoadDataSeeder {
+
+    private static final int CHUNK = 1_000; // workers per appointment insert
+
+    private static final String CATEGORIES =
+            "ARRAY['BARBERSHOP','BEAUTY_SALON','NAIL_SALON','SPA','MASSAGE_CENTER']";
+    private static final String DAYS =
+            "ARRAY['MONDAY','TUESDAY','WEDNESDAY','THURSDAY','FRIDAY','SATURDAY','SUNDAY']";
+
+    private final JdbcTemplate jdbc;
+    private final LoadProfile profile;
+    private final String passwordHash;
+
+    LoadDataSeeder(JdbcTemplate jdbc, LoadProfile profile, String passwordHash) {
+        this.jdbc = jdbc;
+        this.profile = profile;
+        this.passwordHash = passwordHash;
+    }
+
+    void seed() {
+        long started = System.currentTimeMillis();
+        seedProviders();
+        seedWorkers();
+        seedCustomers();
+        seedAppointments();
+        seedReviews();
+        bumpSequence("business_hour");
+        bumpSequence("planned_availability");
+        jdbc.execute("DROP TABLE lt_providers, lt_workers, lt_customers");
+        jdbc.execute("ANALYZE");
+        log.info("Seeded {} providers, {} workers, {} customers, {} appointments in {} s",
+                profile.providers(), profile.workers(), profile.customers(),
+                count("appointments"), (System.currentTimeMillis() - started) / 1000);
+    }
+
+    private void seedProviders() {
+        jdbc.update("""
+                CREATE UNLOGGED TABLE lt_providers AS
+                SELECT g AS n, gen_random_uuid() AS id, gen_random_uuid() AS owner_id,
+                       gen_random_uuid() AS location_id, gen_random_uuid() AS service_id
+                FROM generate_series(1, ?) g
+                """, profile.providers());
+        jdbc.update("""
+                INSERT INTO users (id, name, surname, email, phone_number, password_hash, created_at,
+                                   is_active, language, role, country)
+                SELECT owner_id, 'Owner', 'P' || n, 'owner' || n || '@load.test',
+                       '+99890' || lpad(n::text, 7, '0'), ?, now(), true, 0, 3, 'UZ'
+                FROM lt_providers
+                """, passwordHash);
+        // Tashkent bounding box
+        jdbc.update("""
+                INSERT INTO locations (id, address_line1, city, country_iso2, point, active, created_at, updated_at)
+                SELECT location_id, 'Street ' || n, 'Tashkent', 'UZ',
+                       ST_SetSRID(ST_MakePoint(69.15 + random() * 0.25, 41.20 + random() * 0.18), 4326)::geography,
+                       true, now(), now()
+                FROM lt_providers
+                """);
+        jdbc.update("""
+                INSERT INTO providers (id, version, name, description, category, team_size, email, phone_number,
+                                       data_created, data_updated, avg_rating, reviews_count, is_active,
+                                       owner_id, location_id, min_advance_booking_minutes)
+                SELECT id, 0, 'Provider ' || n, 'Load test provider', (%s)[1 + n %% 5], ?,
+                       'provider' || n || '@load.test', '+99871' || lpad(n::text, 7, '0'),
+                       now(), now(), 0, 0, true, owner_id, location_id, 30
+                FROM lt_providers
+                """.formatted(CATEGORIES), profile.workersPerProvider());
+        jdbc.update("""
+                INSERT INTO business_hour (id, day, start_time, end_time, provider_id)
+                SELECT (p.n - 1) * 7 + d.ord, d.day, time '08:00', time '21:00', p.id
+                FROM lt_providers p
+                CROSS JOIN unnest(%s) WITH ORDINALITY AS d(day, ord)
+                """.formatted(DAYS));
+        jdbc.update("""
+                INSERT INTO services (id, name, description, category, price, duration, is_active, deleted, provider_id)
+                SELECT l.service_id, 'Service ' || l.n, 'Load test service', p.category, 100000, 30, true, false, p.id
+                FROM lt_providers l JOIN providers p ON p.id = l.id
+                """);
+    }
+
+    private void seedWorkers() {
+        jdbc.update("""
+                CREATE UNLOGGED TABLE lt_workers AS
+                SELECT (p.n - 1) * ? + k AS n, gen_random_uuid() AS id, p.id AS provider_id, p.service_id
+                FROM lt_providers p CROSS JOIN generate_series(1, ?) k
+                """, profile.workersPerProvider(), profile.workersPerProvider());
+        jdbc.execute("CREATE UNIQUE INDEX ON lt_workers (n)");
+        jdbc.update("""
+                INSERT INTO users (id, name, surname, email, phone_number, password_hash, created_at,
+                                   is_active, language, role, country)
+                SELECT id, 'Worker', 'W' || n, 'worker' || n || '@load.test',
+                       '+99893' || lpad(n::text, 7, '0'), ?, now(), true, 0, 2, 'UZ'
+                FROM lt_workers
+                """, passwordHash);
+        jdbc.update("""
+                INSERT INTO workers (id, version, provider_id, worker_type, status, hire_date,
+                                     avg_rating, reviews_count, is_active)
+                SELECT id, 0, provider_id, 'BARBER', 0, current_date - 365, 0, 0, true
+                FROM lt_workers
+                """);
+        jdbc.update("INSERT INTO worker_services (service_id, worker_id) SELECT service_id, id FROM lt_workers");
+        jdbc.update("""
+                INSERT INTO planned_availability (id, worker_id, day, start_time, end_time, buffer_between_appointments)
+                SELECT (w.n - 1) * 7 + d.ord, w.id, d.day, time '09:00', time '20:00', 0
+                FROM lt_workers w
+                CROSS JOIN unnest(%s) WITH ORDINALITY AS d(day, ord)
+                """.formatted(DAYS));
+    }
+
+    private void seedCustomers() {
+        jdbc.update("""
+                CREATE UNLOGGED TABLE lt_customers AS
+                SELECT g AS n, gen_random_uuid() AS id FROM generate_series(1, ?) g
+                """, profile.customers());
+        jdbc.execute("CREATE UNIQUE INDEX ON lt_customers (n)");
+        jdbc.update("""
+                INSERT INTO users (id, name, surname, email, phone_number, password_hash, created_at,
+                                   is_active, language, role, country)
+                SELECT id, 'Customer', 'C' || n, 'customer' || n || '@load.test',
+                       '+99897' || lpad(n::text, 7, '0'), ?, now(), true, 0, 1, 'UZ'
+                FROM lt_customers
+                """, passwordHash);
+        jdbc.update("INSERT INTO customers (id, country_iso2, city) SELECT id, 'UZ', 'Tashkent' FROM lt_customers");
+    }
+
+    private void seedAppointments() {
+        int perDay = profile.appointmentsPerDay();
+        int perWorker = profile.days() * perDay;
+        int pastDays = profile.pastDays();
+        for (int from = 1; from <= profile.workers(); from += CHUNK) {
+            int to = Math.min(profile.workers(), from + CHUNK - 1);
+            // day k: past days first, then skip today so "now" never collides with lead-time rules
+            jdbc.update("""
+                    INSERT INTO appointments (id, version, worker_id, service_id, customer_id, date,
+                                              start_time, end_time, status, booked_date)
+                    SELECT gen_random_uuid(), 0, w.id, w.service_id, c.id, d.date,
+                           time '09:00' + (g.i % ?) * interval '40 minutes',
+                           time '09:30' + (g.i % ?) * interval '40 minutes',
+                           CASE WHEN d.date > current_date THEN 'BOOKED'
+                                WHEN (w.n + g.i) % 20 < 17 THEN 'COMPLETED'
+                                WHEN (w.n + g.i) % 20 < 19 THEN 'CANCELLED'
+                                ELSE 'NO_SHOW' END,
+                           d.date - 3
+                    FROM lt_workers w
+                    CROSS JOIN generate_series(0, ? - 1) g(i)
+                    CROSS JOIN LATERAL (
+                        SELECT current_date + (g.i / ? - ?) + CASE WHEN g.i / ? >= ? THEN 1 ELSE 0 END AS date
+                    ) d
+                    JOIN lt_customers c ON c.n = (w.n::bigint * 7919 + g.i * 104729) % ? + 1
+                    WHERE w.n BETWEEN ? AND ?
+                    """, perDay, perDay, perWorker, perDay, pastDays, perDay, pastDays,
+                    profile.customers(), from, to);
+            if ((to / CHUNK) % 5 == 0 || to == profile.workers()) {
+                log.info("Appointments seeded for {}/{} workers", to, profile.workers());
+            }
+        }
+    }
+
+    private void seedReviews() {
+        jdbc.update("""
+                INSERT INTO reviews (id, appointment_id, provider_id, worker_id, author_id, rating, comment,
+                                     created_at, deleted, public_visible)
+                SELECT gen_random_uuid(), a.id, w.provider_id, a.worker_id, a.customer_id,
+                       3 + (hashtext(a.id::text) & 2147483647) % 3, 'Load test review',
+                       (a.date + a.end_time)::timestamptz, false, true
+                FROM appointments a JOIN workers w ON w.id = a.worker_id
+                WHERE a.status = 'COMPLETED' AND a.date < current_date - 7
+                  AND (hashtext(a.id::text) & 2147483647) % 3 = 0
+                """);
+        jdbc.update("""
+                UPDATE providers p SET avg_rating = r.avg, reviews_count = r.cnt
+                FROM (SELECT provider_id, avg(rating)::real AS avg, count(*) AS cnt FROM reviews GROUP BY provider_id) r
+                WHERE r.provider_id = p.id
+                """);
+        jdbc.update("""
+                UPDATE workers w SET avg_rating = r.avg, reviews_count = r.cnt
+                FROM (SELECT worker_id, avg(rating)::real AS avg, count(*) AS cnt FROM reviews GROUP BY worker_id) r
+                WHERE r.worker_id = w.id
+                """);
+    }
+
+    /** Moves a Hibernate pooled sequence past ids inserted here, with room for one allocation block. */
+    private void bumpSequence(String table) {
+        jdbc.queryForList("""
+                SELECT setval(c.oid::regclass, (SELECT coalesce(max(id), 0) + 1000 FROM %s))
+                FROM pg_class c WHERE c.relkind = 'S' AND c.relname = '%s_seq'
+                """.formatted(table, table));
+    }
+
+    private long count(String table) {
+        Long n = jdbc.queryForObject("SELECT count(*) FROM " + table, Long.class);
+        return n == null ? 0 : n;
+    }
+}
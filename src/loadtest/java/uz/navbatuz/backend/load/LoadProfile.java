@@ -0,0 +1,53 @@
+package uz.navbatuz.backend.load;
+
+import java.time.Duration;
+
+/**
+ * Data volume and traffic shape of a load run, read from {@code -Dload.*} system properties.
+ * Defaults seed about 2k providers, 20k workers and 2M appointments.
+ */
+record LoadProfile(
+        int providers,
+        int workersPerProvider,
+        int customers,
+        int appointments,
+        int appointmentsPerDay,
+        int virtualUsers,
+        Duration warmup,
+        Duration duration
+) {
+
+    static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Integer.getInteger("load.providers", 2_000),
+                Integer.getInteger("load.workersPerProvider", 10),
+                Integer.getInteger("load.customers", 50_000),
+                Integer.getInteger("load.appointments", 2_000_000),
+                Integer.getInteger("load.appointmentsPerDay", 8),
+                Integer.getInteger("load.users", 64),
+                Duration.parse(System.getProperty("load.warmup", "PT15S")),
+                Duration.parse(System.getProperty("load.duration", "PT60S"))
+        );
+    }
+
+    int workers() {
+        return providers * workersPerProvider;
+    }
+
+    int appointmentsPerWorker() {
+        return Math.max(appointmentsPerDay, appointments / workers());
+    }
+
+    /** Number of seeded days per worker; three quarters lie in the past. */
+    int days() {
+        return (appointmentsPerWorker() + appointmentsPerDay - 1) / appointmentsPerDay;
+    }
+
+    int pastDays() {
+        return days() * 3 / 4;
+    }
+
+    int futureDays() {
+        return days() - pastDays();
+    }
+}
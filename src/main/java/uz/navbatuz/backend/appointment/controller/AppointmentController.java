@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import uz.navbatuz.backend.appointment.dto.*;
 import uz.navbatuz.backend.appointment.service.AppointmentService;
+import uz.navbatuz.backend.appointment.service.SlotHoldService;
 import uz.navbatuz.backend.customer.service.CustomerService;
 import uz.navbatuz.backend.guest.service.GuestService;
 import uz.navbatuz.backend.security.CurrentUserService;
@@ -17,6 +18,7 @@ import uz.navbatuz.backend.user.service.UserService;
 import uz.navbatuz.backend.worker.service.WorkerService;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.Currency;
 import java.util.List;
 import java.util.UUID;
@@ -32,6 +34,7 @@ public class AppointmentController {
     private final WorkerService workerService;
     private final GuestService guestService;
     private final CurrentUserService currentUserService;
+    private final SlotHoldService slotHoldService;
 
     /** Allow customers AND staff. Customers book for self; staff always book as guest. */
     @PreAuthorize("hasAnyRole('CUSTOMER','OWNER','RECEPTIONIST','WORKER','ADMIN')")
@@ -84,7 +87,8 @@ public class AppointmentController {
 
         var normalized = new AppointmentNormalized(
                 req.workerId(), req.serviceId(), req.date(), req.startTime(),
-                effectiveCustomerId, effectiveGuestId
+                effectiveCustomerId, effectiveGuestId,
+                req.holdToken()
         );
 
         UUID actorUserId = currentUserService.getCurrentUserId();
@@ -92,6 +96,21 @@ public class AppointmentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(resp);
     }
 
+    /** Reserve a slot for a few minutes; pass the returned holdToken to {@code POST /api/appointments}. */
+    @PreAuthorize("hasAnyRole('CUSTOMER','OWNER','RECEPTIONIST','WORKER','ADMIN')")
+    @PostMapping("/holds")
+    public ResponseEntity<SlotHoldResponse> holdSlot(@RequestBody SlotHoldRequest req) {
+        UUID actorUserId = currentUserService.getCurrentUserId();
+        return ResponseEntity.status(HttpStatus.CREATED).body(slotHoldService.hold(req, actorUserId));
+    }
+
+    @PreAuthorize("hasAnyRole('CUSTOMER','OWNER','RECEPTIONIST','WORKER','ADMIN')")
+    @DeleteMapping("/holds/{holdToken}")
+    public ResponseEntity<Void> releaseHold(@PathVariable UUID holdToken) {
+        slotHoldService.release(holdToken, currentUserService.getCurrentUserId());
+        return ResponseEntity.noContent().build();
+    }
+
 //    @PreAuthorize("hasAnyRole('OWNER', 'RECEPTIONIST', 'WORKER', 'ADMIN')")
 //    @GetMapping("/worker/{workerId}")
 //    public ResponseEntity<List<AppointmentResponse>> getWorkerAppointments(
@@ -141,6 +160,21 @@ public class AppointmentController {
         return ResponseEntity.ok(appointmentService.getCustomerAppointments1(customerId));
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN','CUSTOMER')")
+    @GetMapping("/me/feed")
+    public ResponseEntity<AppointmentFeedPage> myAppointmentFeed(
+            Authentication auth,
+            @RequestParam(defaultValue = "UPCOMING") AppointmentFeedDirection direction,
+            @RequestParam(required = false) LocalDate afterDate,
+            @RequestParam(required = false) LocalTime afterStartTime,
+            @RequestParam(required = false) UUID afterId,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        UUID customerId = userService.findIdByEmail(auth.getName());
+        return ResponseEntity.ok(appointmentService.getCustomerFeed(
+                customerId, direction, afterDate, afterStartTime, afterId, size));
+    }
+
     @PreAuthorize("hasAnyRole('OWNER','RECEPTIONIST','WORKER','ADMIN')")
     @GetMapping("/worker/{workerId}/day")
     public ResponseEntity<List<AppointmentResponse>> getWorkerDay(
@@ -0,0 +1,6 @@
+package uz.navbatuz.backend.appointment.dto;
+
+public enum AppointmentFeedDirection {
+    UPCOMING, // now onwards, soonest first
+    PAST      // before now, most recent first
+}
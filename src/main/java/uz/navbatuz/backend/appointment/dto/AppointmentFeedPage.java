@@ -0,0 +1,18 @@
+package uz.navbatuz.backend.appointment.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One page of a customer's appointment feed. Pass the {@code next*} values back as
+ * {@code afterDate} / {@code afterStartTime} / {@code afterId}; they are null on the last page.
+ */
+public record AppointmentFeedPage(
+        List<AppointmentSummaryResponse> items,
+        LocalDate nextAfterDate,
+        LocalTime nextAfterStartTime,
+        UUID nextAfterId
+) {
+}
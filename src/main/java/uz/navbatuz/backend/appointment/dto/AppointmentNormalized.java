@@ -6,5 +6,6 @@ import java.util.UUID;
 
 public record AppointmentNormalized(
         UUID workerId, UUID serviceId, LocalDate date, LocalTime startTime,
-        UUID customerId, UUID guestId
+        UUID customerId, UUID guestId,
+        UUID holdToken
 ) {}
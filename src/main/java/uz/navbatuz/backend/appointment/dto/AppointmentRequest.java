@@ -13,6 +13,8 @@ public record AppointmentRequest (
         UUID customerId, //nullable
         UUID guestId,      // staff: reuse existing guest
         String guestPhone, // staff: create/reuse by phone (provider-scoped)
-        String guestName
+        String guestName,
+
+        UUID holdToken     // nullable: confirm a slot hold instead of re-validating the slot
 ){
 }
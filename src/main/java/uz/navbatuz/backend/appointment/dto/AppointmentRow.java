@@ -0,0 +1,36 @@
+package uz.navbatuz.backend.appointment.dto;
+
+import uz.navbatuz.backend.common.AppointmentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Flat read model of an appointment with every name the list and staff screens show,
+ * filled by one joined JPQL constructor expression (no entity graph, no lazy loads).
+ */
+public record AppointmentRow(
+        UUID id,
+        UUID workerId,
+        UUID providerId,
+        UUID serviceId,
+        LocalDate date,
+        LocalTime startTime,
+        LocalTime endTime,
+        AppointmentStatus status,
+
+        String workerName,
+        String providerName,
+        String serviceName,
+
+        UUID customerId,
+        String customerName,
+        String customerPhone,
+        String customerAvatarUrl,
+
+        UUID guestId,
+        String guestName,
+        String guestPhone
+) {
+}
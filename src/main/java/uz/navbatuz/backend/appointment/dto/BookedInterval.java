@@ -0,0 +1,13 @@
+package uz.navbatuz.backend.appointment.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+public record BookedInterval(
+        UUID appointmentId,
+        UUID workerId,
+        LocalDate date,
+        LocalTime startTime,
+        LocalTime endTime
+) {}
@@ -0,0 +1,22 @@
+package uz.navbatuz.backend.appointment.dto;
+
+import uz.navbatuz.backend.common.AppointmentStatus;
+import uz.navbatuz.backend.common.Language;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/** What a reminder says, plus status and start to tell whether it still applies. */
+public record ReminderDetails(
+        UUID appointmentId,
+        LocalDate date,
+        LocalTime startTime,
+        AppointmentStatus status,
+        String providerName,
+        String serviceName,
+        String workerName,
+        String customerName,
+        String customerEmail,
+        Language customerLanguage
+) {}
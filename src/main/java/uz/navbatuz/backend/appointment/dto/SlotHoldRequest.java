@@ -0,0 +1,12 @@
+package uz.navbatuz.backend.appointment.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+public record SlotHoldRequest(
+        UUID workerId,
+        UUID serviceId,
+        LocalDate date,
+        LocalTime startTime
+) {}
@@ -0,0 +1,16 @@
+package uz.navbatuz.backend.appointment.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+public record SlotHoldResponse(
+        UUID holdToken,
+        UUID workerId,
+        UUID serviceId,
+        LocalDate date,
+        LocalTime startTime,
+        LocalTime endTime,
+        LocalDateTime expiresAt
+) {}
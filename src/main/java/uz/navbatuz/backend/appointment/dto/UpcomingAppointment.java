@@ -0,0 +1,18 @@
+package uz.navbatuz.backend.appointment.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/** Start time of an active appointment, as loaded by the reminder scheduler. */
+public record UpcomingAppointment(
+        UUID id,
+        LocalDate date,
+        LocalTime startTime,
+        LocalDateTime bookedDate
+) {
+    public LocalDateTime startsAt() {
+        return date.atTime(startTime);
+    }
+}
@@ -0,0 +1,38 @@
+package uz.navbatuz.backend.appointment.event;
+
+import uz.navbatuz.backend.appointment.model.AppointmentOutboxEvent;
+import uz.navbatuz.backend.common.AppointmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** Immutable view of an outbox row handed to {@link AppointmentEventConsumer}s. */
+public record AppointmentEvent(
+        UUID eventId,
+        AppointmentEventType type,
+        UUID appointmentId,
+        UUID providerId,
+        UUID workerId,
+        UUID customerId,
+        UUID guestId,
+        AppointmentStatus oldStatus,
+        AppointmentStatus newStatus,
+        UUID actorUserId,
+        LocalDateTime occurredAt
+) {
+    public static AppointmentEvent from(AppointmentOutboxEvent e) {
+        return new AppointmentEvent(
+                e.getId(),
+                e.getType(),
+                e.getAppointmentId(),
+                e.getProviderId(),
+                e.getWorkerId(),
+                e.getCustomerId(),
+                e.getGuestId(),
+                e.getOldStatus(),
+                e.getNewStatus(),
+                e.getActorUserId(),
+                e.getOccurredAt()
+        );
+    }
+}
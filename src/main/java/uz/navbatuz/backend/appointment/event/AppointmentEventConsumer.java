@@ -0,0 +1,14 @@
+package uz.navbatuz.backend.appointment.event;
+
+import java.util.List;
+
+/**
+ * Side effect of appointment lifecycle changes. Called by the outbox processor with a batch
+ * of events in occurrence order, inside the transaction that marks them processed; a thrown
+ * exception rolls the batch back and the events are retried one by one.
+ * Implementations ignore event types they do not care about.
+ */
+public interface AppointmentEventConsumer {
+
+    void onEvents(List<AppointmentEvent> events);
+}
@@ -0,0 +1,10 @@
+package uz.navbatuz.backend.appointment.event;
+
+public enum AppointmentEventType {
+    BOOKED,
+    RESCHEDULED,
+    CANCELLED,
+    COMPLETED,
+    NO_SHOW,
+    NO_SHOW_UNDONE
+}
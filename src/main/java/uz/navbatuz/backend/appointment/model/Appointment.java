@@ -22,7 +22,8 @@ import java.util.UUID;
 @Builder
 @Table(
         name = "appointments",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"worker_id", "date", "start_time"})
+        uniqueConstraints = @UniqueConstraint(columnNames = {"worker_id", "date", "start_time"}),
+        indexes = @Index(name = "idx_appointments_customer_date_start", columnList = "customer_id, date, start_time")
 )
 public class Appointment {
 
@@ -0,0 +1,72 @@
+package uz.navbatuz.backend.appointment.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import uz.navbatuz.backend.appointment.event.AppointmentEventType;
+import uz.navbatuz.backend.common.AppointmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Transactional outbox row for appointment lifecycle events. Written in the same
+ * transaction as the status change and drained by {@code AppointmentOutboxProcessor}.
+ */
+@Entity
+@Table(name = "appointment_outbox",
+        indexes = @Index(name = "ix_appointment_outbox_pending", columnList = "processed_at, occurred_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentOutboxEvent {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private AppointmentEventType type;
+
+    @Column(name = "appointment_id", nullable = false)
+    private UUID appointmentId;
+
+    @Column(name = "provider_id")
+    private UUID providerId;
+
+    @Column(name = "worker_id")
+    private UUID workerId;
+
+    @Column(name = "customer_id")
+    private UUID customerId;
+
+    @Column(name = "guest_id")
+    private UUID guestId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "old_status", length = 32)
+    private AppointmentStatus oldStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_status", length = 32)
+    private AppointmentStatus newStatus;
+
+    // null for system changes (auto-complete job)
+    @Column(name = "actor_user_id")
+    private UUID actorUserId;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
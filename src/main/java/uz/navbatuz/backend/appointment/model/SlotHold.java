@@ -0,0 +1,49 @@
+package uz.navbatuz.backend.appointment.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Short-lived reservation of a worker interval; its id is the hold token handed to the client.
+ * Blocks the interval for everyone else until it is confirmed into an appointment or expires.
+ */
+@Entity
+@Table(name = "slot_holds",
+        indexes = {
+                @Index(name = "idx_slot_hold_worker_date", columnList = "worker_id,date"),
+                @Index(name = "idx_slot_hold_expires", columnList = "expires_at"),
+                @Index(name = "idx_slot_hold_user", columnList = "created_by_user")
+        })
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class SlotHold {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(name = "worker_id", nullable = false)
+    private UUID workerId;
+
+    @Column(name = "service_id", nullable = false)
+    private UUID serviceId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_by_user")
+    private UUID createdByUser;
+}
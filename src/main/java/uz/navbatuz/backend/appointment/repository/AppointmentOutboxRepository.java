@@ -0,0 +1,60 @@
+package uz.navbatuz.backend.appointment.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import uz.navbatuz.backend.appointment.model.AppointmentOutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface AppointmentOutboxRepository extends JpaRepository<AppointmentOutboxEvent, UUID> {
+
+    /**
+     * Locks up to {@code limit} pending events in occurrence order. Rows already claimed by
+     * another node are skipped, so several instances can drain the outbox concurrently.
+     */
+    @Query(
+            value = """
+      SELECT *
+      FROM appointment_outbox
+      WHERE processed_at IS NULL
+        AND attempts < :maxAttempts
+      ORDER BY occurred_at
+      LIMIT :limit
+      FOR UPDATE SKIP LOCKED
+    """,
+            nativeQuery = true
+    )
+    List<AppointmentOutboxEvent> claimPending(@Param("maxAttempts") int maxAttempts,
+                                              @Param("limit") int limit);
+
+    /** Single-row variant of {@link #claimPending} used when a batch has to be retried event by event. */
+    @Query(
+            value = """
+      SELECT *
+      FROM appointment_outbox
+      WHERE id = :id
+        AND processed_at IS NULL
+      FOR UPDATE SKIP LOCKED
+    """,
+            nativeQuery = true
+    )
+    Optional<AppointmentOutboxEvent> claimById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("update AppointmentOutboxEvent e set e.processedAt = :now where e.id in :ids")
+    int markProcessed(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update AppointmentOutboxEvent e set e.attempts = e.attempts + 1, e.lastError = :error where e.id = :id")
+    int markFailed(@Param("id") UUID id, @Param("error") String error);
+
+    @Modifying
+    @Query("delete from AppointmentOutboxEvent e where e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,13 +1,20 @@
 package uz.navbatuz.backend.appointment.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import uz.navbatuz.backend.appointment.dto.AppointmentDetails;
 import uz.navbatuz.backend.appointment.dto.AppointmentResponse;
+import uz.navbatuz.backend.appointment.dto.AppointmentRow;
+import uz.navbatuz.backend.appointment.dto.BookedInterval;
+import uz.navbatuz.backend.appointment.dto.ReminderDetails;
+import uz.navbatuz.backend.appointment.dto.UpcomingAppointment;
 import uz.navbatuz.backend.appointment.model.Appointment;
 import uz.navbatuz.backend.common.AppointmentStatus;
 
-import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
@@ -16,6 +23,20 @@ public interface AppointmentRepository extends JpaRepository<Appointment, UUID>
     boolean existsByWorkerIdAndDateAndStartTimeAndStatusIn(
             UUID workerId, LocalDate date, LocalTime startTime, Collection<AppointmentStatus> statuses);
 
+    @Query("""
+        select case when count(a) > 0 then true else false end
+        from Appointment a
+        where a.worker.id = :workerId
+          and a.date = :date
+          and a.status in :statuses
+          and (a.startTime < :end and a.endTime > :start)
+    """)
+    boolean existsOverlap(@Param("workerId") UUID workerId,
+                          @Param("date") LocalDate date,
+                          @Param("start") LocalTime start,
+                          @Param("end") LocalTime end,
+                          @Param("statuses") Collection<AppointmentStatus> statuses);
+
     List<Appointment> findByWorkerIdAndDateAndStatusIn(
             UUID workerId, LocalDate date, Collection<AppointmentStatus> statuses);
 
@@ -27,19 +48,242 @@ public interface AppointmentRepository extends JpaRepository<Appointment, UUID>
 
     List<Appointment> findByWorkerIdAndDateAndStatusInOrderByStartTime(UUID workerId, LocalDate date, Set<AppointmentStatus> statuses);
 
+    @Query("""
+       select new uz.navbatuz.backend.appointment.dto.AppointmentRow(
+           a.id, w.id, p.id, s.id, a.date, a.startTime, a.endTime, a.status,
+           wu.name, p.name, s.name,
+           c.id, cu.name, cu.phoneNumber, cu.avatarUrl,
+           g.id, g.name, g.phoneNumber
+       )
+       from Appointment a
+       join a.worker w
+       left join w.user wu
+       join w.provider p
+       join a.service s
+       left join a.customer c
+       left join c.user cu
+       left join a.guest g
+       where a.customer.id = :customerId
+       order by a.date, a.startTime
+    """)
+    List<AppointmentRow> findRowsByCustomerId(@Param("customerId") UUID customerId);
+
+    /**
+     * Customer history after the keyset cursor (date, startTime, id), oldest first.
+     * The leading {@code a.date >= :date} bound lets PostgreSQL range-scan
+     * idx_appointments_customer_date_start instead of filtering the whole history.
+     */
+    @Query("""
+       select new uz.navbatuz.backend.appointment.dto.AppointmentRow(
+           a.id, w.id, p.id, s.id, a.date, a.startTime, a.endTime, a.status,
+           wu.name, p.name, s.name,
+           c.id, cu.name, cu.phoneNumber, cu.avatarUrl,
+           g.id, g.name, g.phoneNumber
+       )
+       from Appointment a
+       join a.worker w
+       left join w.user wu
+       join w.provider p
+       join a.service s
+       left join a.customer c
+       left join c.user cu
+       left join a.guest g
+       where a.customer.id = :customerId
+         and a.date >= :date
+         and (a.date > :date
+              or (a.startTime > :startTime
+                  or (a.startTime = :startTime and a.id > :id)))
+       order by a.date, a.startTime, a.id
+    """)
+    List<AppointmentRow> findCustomerRowsAfter(@Param("customerId") UUID customerId,
+                                               @Param("date") LocalDate date,
+                                               @Param("startTime") LocalTime startTime,
+                                               @Param("id") UUID id,
+                                               Pageable page);
+
+    /** Customer history before the keyset cursor (date, startTime, id), newest first. */
+    @Query("""
+       select new uz.navbatuz.backend.appointment.dto.AppointmentRow(
+           a.id, w.id, p.id, s.id, a.date, a.startTime, a.endTime, a.status,
+           wu.name, p.name, s.name,
+           c.id, cu.name, cu.phoneNumber, cu.avatarUrl,
+           g.id, g.name, g.phoneNumber
+       )
+       from Appointment a
+       join a.worker w
+       left join w.user wu
+       join w.provider p
+       join a.service s
+       left join a.customer c
+       left join c.user cu
+       left join a.guest g
+       where a.customer.id = :customerId
+         and a.date <= :date
+         and (a.date < :date
+              or (a.startTime < :startTime
+                  or (a.startTime = :startTime and a.id < :id)))
+       order by a.date desc, a.startTime desc, a.id desc
+    """)
+    List<AppointmentRow> findCustomerRowsBefore(@Param("customerId") UUID customerId,
+                                                @Param("date") LocalDate date,
+                                                @Param("startTime") LocalTime startTime,
+                                                @Param("id") UUID id,
+                                                Pageable page);
+
+    @Query("""
+       select new uz.navbatuz.backend.appointment.dto.AppointmentRow(
+           a.id, w.id, p.id, s.id, a.date, a.startTime, a.endTime, a.status,
+           wu.name, p.name, s.name,
+           c.id, cu.name, cu.phoneNumber, cu.avatarUrl,
+           g.id, g.name, g.phoneNumber
+       )
+       from Appointment a
+       join a.worker w
+       left join w.user wu
+       join w.provider p
+       join a.service s
+       left join a.customer c
+       left join c.user cu
+       left join a.guest g
+       where w.id = :workerId
+         and a.date = :date
+       order by a.startTime
+    """)
+    List<AppointmentRow> findRowsByWorkerIdAndDate(@Param("workerId") UUID workerId, @Param("date") LocalDate date);
+
+    @Query("""
+       select new uz.navbatuz.backend.appointment.dto.AppointmentRow(
+           a.id, w.id, p.id, s.id, a.date, a.startTime, a.endTime, a.status,
+           wu.name, p.name, s.name,
+           c.id, cu.name, cu.phoneNumber, cu.avatarUrl,
+           g.id, g.name, g.phoneNumber
+       )
+       from Appointment a
+       join a.worker w
+       left join w.user wu
+       join w.provider p
+       join a.service s
+       left join a.customer c
+       left join c.user cu
+       left join a.guest g
+       where a.id = :id
+    """)
+    Optional<AppointmentRow> findRowById(@Param("id") UUID id);
+
+    @Query("""
+       select new uz.navbatuz.backend.appointment.dto.AppointmentDetails(
+           a.id, a.date, a.startTime, a.endTime, a.status,
+           p.name, l.addressLine1, l.city, l.countryIso2,
+           s.name, s.price, wu.name
+       )
+       from Appointment a
+       join a.worker w
+       left join w.user wu
+       join w.provider p
+       left join p.location l
+       join a.service s
+       where a.id = :id
+    """)
+    Optional<AppointmentDetails> findDetailsById(@Param("id") UUID id);
+
+    /** Appointments in the given statuses on {@code from..to}; callers trim to the exact time window. */
+    @Query("""
+       select new uz.navbatuz.backend.appointment.dto.UpcomingAppointment(
+           a.id, a.date, a.startTime, a.bookedDate
+       )
+       from Appointment a
+       where a.date between :from and :to
+         and a.status in :statuses
+       order by a.date, a.startTime
+    """)
+    List<UpcomingAppointment> findUpcoming(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("statuses") Collection<AppointmentStatus> statuses
+    );
+
+    @Query("""
+       select new uz.navbatuz.backend.appointment.dto.UpcomingAppointment(
+           a.id, a.date, a.startTime, a.bookedDate
+       )
+       from Appointment a
+       where a.id in :ids
+         and a.status in :statuses
+    """)
+    List<UpcomingAppointment> findUpcomingByIdIn(
+            @Param("ids") Collection<UUID> ids,
+            @Param("statuses") Collection<AppointmentStatus> statuses
+    );
+
+    @Query("""
+       select new uz.navbatuz.backend.appointment.dto.ReminderDetails(
+           a.id, a.date, a.startTime, a.status,
+           p.name, s.name, wu.name,
+           cu.name, cu.email, cu.language
+       )
+       from Appointment a
+       join a.worker w
+       left join w.user wu
+       join w.provider p
+       join a.service s
+       left join a.customer c
+       left join c.user cu
+       where a.id in :ids
+    """)
+    List<ReminderDetails> findReminderDetails(@Param("ids") Collection<UUID> ids);
+
+    @Query("""
+       select new uz.navbatuz.backend.appointment.dto.BookedInterval(
+           a.id, a.worker.id, a.date, a.startTime, a.endTime
+       )
+       from Appointment a
+       where a.worker.id in :workerIds
+         and a.date between :from and :to
+         and a.status in :statuses
+    """)
+    List<BookedInterval> findBookedIntervals(
+            @Param("workerIds") Collection<UUID> workerIds,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("statuses") Collection<AppointmentStatus> statuses
+    );
+
+    /**
+     * Completes up to {@code limit} overdue appointments in one statement and enqueues a
+     * COMPLETED outbox event for each. Rows locked by another node are skipped. Returns completed ids.
+     */
+    @Transactional
     @Query(
             value = """
-      SELECT * FROM appointment
-      WHERE status = ANY(:statuses)
-        AND end_at <= :now
-      FOR UPDATE SKIP LOCKED
-      LIMIT :limit
+      WITH picked AS (
+          SELECT id, status
+          FROM appointments
+          WHERE status IN (:statuses)
+            AND (date + end_time) <= :now
+          ORDER BY date, end_time
+          LIMIT :limit
+          FOR UPDATE SKIP LOCKED
+      ), updated AS (
+          UPDATE appointments a
+          SET status = 'COMPLETED', version = a.version + 1
+          FROM picked p
+          WHERE a.id = p.id
+          RETURNING a.id, a.worker_id, a.customer_id, a.guest_id, p.status AS old_status
+      ), outbox AS (
+          INSERT INTO appointment_outbox (id, type, appointment_id, provider_id, worker_id, customer_id, guest_id,
+                                          old_status, new_status, actor_user_id, occurred_at, attempts)
+          SELECT gen_random_uuid(), 'COMPLETED', u.id, w.provider_id, u.worker_id, u.customer_id, u.guest_id,
+                 u.old_status, 'COMPLETED', NULL, :now, 0
+          FROM updated u
+          JOIN workers w ON w.id = u.worker_id
+      )
+      SELECT id FROM updated
     """,
             nativeQuery = true
     )
-    List<Appointment> pickOverdueForUpdate(
-            @Param("statuses") String[] statuses,
-            @Param("now") Instant now,
+    List<UUID> completeOverdue(
+            @Param("statuses") Collection<String> statuses,
+            @Param("now") LocalDateTime now,
             @Param("limit") int limit
     );
 }
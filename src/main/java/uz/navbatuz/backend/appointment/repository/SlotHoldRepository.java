@@ -0,0 +1,49 @@
+package uz.navbatuz.backend.appointment.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import uz.navbatuz.backend.appointment.dto.BookedInterval;
+import uz.navbatuz.backend.appointment.model.SlotHold;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface SlotHoldRepository extends JpaRepository<SlotHold, UUID> {
+
+    @Query("""
+        select case when count(h) > 0 then true else false end
+        from SlotHold h
+        where h.workerId = :workerId
+          and h.date = :date
+          and h.expiresAt > :now
+          and (h.startTime < :end and h.endTime > :start)
+    """)
+    boolean existsActiveOverlap(@Param("workerId") UUID workerId,
+                                @Param("date") LocalDate date,
+                                @Param("start") LocalTime start,
+                                @Param("end") LocalTime end,
+                                @Param("now") LocalDateTime now);
+
+    @Query("""
+       select new uz.navbatuz.backend.appointment.dto.BookedInterval(
+           h.id, h.workerId, h.date, h.startTime, h.endTime
+       )
+       from SlotHold h
+       where h.workerId in :workerIds
+         and h.date between :from and :to
+         and h.expiresAt > :now
+    """)
+    List<BookedInterval> findActiveIntervals(@Param("workerIds") Collection<UUID> workerIds,
+                                             @Param("from") LocalDate from,
+                                             @Param("to") LocalDate to,
+                                             @Param("now") LocalDateTime now);
+
+    List<SlotHold> findByExpiresAtBefore(LocalDateTime now);
+
+    List<SlotHold> findByCreatedByUserAndExpiresAtAfterOrderByExpiresAtAsc(UUID createdByUser, LocalDateTime now);
+}
@@ -1,57 +1,80 @@
 package uz.navbatuz.backend.appointment.service;
 
-import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import uz.navbatuz.backend.appointment.model.Appointment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import uz.navbatuz.backend.appointment.repository.AppointmentRepository;
-import uz.navbatuz.backend.common.AppointmentStatus;
+import uz.navbatuz.backend.common.DomainMetrics;
 
-import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
+/**
+ * Moves overdue BOOKED/RESCHEDULED appointments to COMPLETED.
+ * Each chunk is one set-based statement (pick + update + outbox insert) in its own
+ * transaction; history and review prompts are handled by the outbox consumers.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AppointmentAutoCompleteJob {
 
     private final AppointmentRepository repo;
+    private final TransactionTemplate tx;
+    private final DomainMetrics metrics;
+    private final Timer batchTimer;
+    private final Counter completedCounter;
 
     // which statuses are eligible for auto-complete
-    private static final String[] ELIGIBLE = {"BOOKED", "CONFIRMED", "RESCHEDULED"};
+    private static final List<String> ELIGIBLE = List.of("BOOKED", "RESCHEDULED");
+
+    private static final int BATCH_SIZE = 500; // tune to your traffic
+
+    public AppointmentAutoCompleteJob(AppointmentRepository repo,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry,
+                                      DomainMetrics metrics) {
+        this.repo = repo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.metrics = metrics;
+        // time the chunk transaction holds row locks
+        this.batchTimer = Timer.builder("appointments.autocomplete.batch")
+                .description("Duration of one auto-complete chunk transaction")
+                .register(meterRegistry);
+        this.completedCounter = Counter.builder("appointments.autocomplete.completed")
+                .description("Appointments moved to COMPLETED by the auto-complete job")
+                .register(meterRegistry);
+    }
 
     // run every 5 minutes (tweak in properties)
     @Scheduled(cron = "${appointments.autocomplete.cron:0 */5 * * * *}")
     public void run() {
-        final int batchSize = 200; // tune to your traffic
-        int total = 0;
-
-        while (true) {
-            int processed = processBatch(batchSize);
-            total += processed;
-            if (processed < batchSize) break; // nothing left to claim
-        }
+        int total = metrics.timed("appointments.autocomplete.run", call -> {
+            int sum = 0;
+            while (true) {
+                int processed = processBatch(BATCH_SIZE);
+                sum += processed;
+                if (processed < BATCH_SIZE) return sum; // nothing left to claim
+            }
+        });
 
         if (total > 0) {
             log.info("Auto-completed {} overdue appointments", total);
         }
     }
 
-    @Transactional
     int processBatch(int batchSize) {
-        List<Appointment> batch = repo.pickOverdueForUpdate(ELIGIBLE, Instant.now(), batchSize);
-        if (batch.isEmpty()) return 0;
-
-        Instant now = Instant.now();
-        for (Appointment a : batch) {
-            a.setStatus(AppointmentStatus.valueOf("COMPLETED"));
-            // publish event to trigger review email/push, if you have such flow
-            // domainEvents.publish(new AppointmentCompletedEvent(a.getId()));
-        }
-        repo.saveAll(batch);
-        return batch.size();
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> completed = batchTimer.record(() ->
+                tx.execute(status -> repo.completeOverdue(ELIGIBLE, now, batchSize)));
+        if (completed == null || completed.isEmpty()) return 0;
+
+        completedCounter.increment(completed.size());
+        return completed.size();
     }
 }
-
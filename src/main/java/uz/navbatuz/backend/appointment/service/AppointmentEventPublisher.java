@@ -0,0 +1,43 @@
+package uz.navbatuz.backend.appointment.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import uz.navbatuz.backend.appointment.event.AppointmentEventType;
+import uz.navbatuz.backend.appointment.model.Appointment;
+import uz.navbatuz.backend.appointment.model.AppointmentOutboxEvent;
+import uz.navbatuz.backend.appointment.repository.AppointmentOutboxRepository;
+import uz.navbatuz.backend.common.AppointmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Records appointment lifecycle events in the outbox. Must be called inside the transaction
+ * that changes the appointment, so the event exists if and only if the change commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class AppointmentEventPublisher {
+
+    private final AppointmentOutboxRepository outboxRepository;
+
+    public void publish(AppointmentEventType type,
+                        Appointment a,
+                        AppointmentStatus oldStatus,
+                        AppointmentStatus newStatus,
+                        UUID actorUserId) {
+        var event = AppointmentOutboxEvent.builder()
+                .type(type)
+                .appointmentId(a.getId())
+                .providerId(a.getWorker().getProvider().getId())
+                .workerId(a.getWorker().getId())
+                .customerId(a.getCustomer() != null ? a.getCustomer().getId() : null)
+                .guestId(a.getGuest() != null ? a.getGuest().getId() : null)
+                .oldStatus(oldStatus)
+                .newStatus(newStatus)
+                .actorUserId(actorUserId)
+                .occurredAt(LocalDateTime.now())
+                .build();
+        outboxRepository.save(event);
+    }
+}
@@ -0,0 +1,101 @@
+package uz.navbatuz.backend.appointment.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.navbatuz.backend.appointment.event.AppointmentEvent;
+import uz.navbatuz.backend.appointment.event.AppointmentEventConsumer;
+import uz.navbatuz.backend.appointment.model.AppointmentOutboxEvent;
+import uz.navbatuz.backend.appointment.repository.AppointmentOutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Drains the appointment outbox off the request path.
+ * <p>
+ * A batch is claimed with {@code SKIP LOCKED}, handed to every {@link AppointmentEventConsumer}
+ * and marked processed in one transaction, so consumer writes and the processed flag commit
+ * together. If any consumer fails the batch rolls back and its events are retried one per
+ * transaction; an event that keeps failing is parked after {@link #MAX_ATTEMPTS}.
+ */
+@Component
+@Slf4j
+public class AppointmentOutboxProcessor {
+
+    private static final int BATCH_SIZE = 200;
+    private static final int MAX_ATTEMPTS = 10;
+    private static final int RETENTION_DAYS = 7;
+
+    private final AppointmentOutboxRepository outboxRepository;
+    private final List<AppointmentEventConsumer> consumers;
+    private final TransactionTemplate tx;
+
+    public AppointmentOutboxProcessor(AppointmentOutboxRepository outboxRepository,
+                                      List<AppointmentEventConsumer> consumers,
+                                      PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.consumers = consumers;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${appointments.outbox.poll-ms:2000}")
+    public void drain() {
+        while (processBatch() == BATCH_SIZE) {
+            // keep going while there is a backlog
+        }
+    }
+
+    int processBatch() {
+        List<UUID> claimed = new ArrayList<>();
+        try {
+            Integer n = tx.execute(status -> {
+                List<AppointmentOutboxEvent> rows = outboxRepository.claimPending(MAX_ATTEMPTS, BATCH_SIZE);
+                if (rows.isEmpty()) return 0;
+                rows.forEach(r -> claimed.add(r.getId()));
+                dispatch(rows.stream().map(AppointmentEvent::from).toList());
+                outboxRepository.markProcessed(claimed, LocalDateTime.now());
+                return rows.size();
+            });
+            return n == null ? 0 : n;
+        } catch (RuntimeException e) {
+            log.warn("Outbox batch of {} events failed, retrying one by one: {}", claimed.size(), e.getMessage());
+            claimed.forEach(this::processOne);
+            // stop draining this round; failed events are picked up again on the next poll
+            return 0;
+        }
+    }
+
+    private void processOne(UUID id) {
+        try {
+            tx.executeWithoutResult(status -> outboxRepository.claimById(id).ifPresent(row -> {
+                dispatch(List.of(AppointmentEvent.from(row)));
+                outboxRepository.markProcessed(List.of(id), LocalDateTime.now());
+            }));
+        } catch (RuntimeException e) {
+            log.error("Outbox event {} failed: {}", id, e.getMessage(), e);
+            String msg = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            tx.executeWithoutResult(status ->
+                    outboxRepository.markFailed(id, msg.length() > 500 ? msg.substring(0, 500) : msg));
+        }
+    }
+
+    private void dispatch(List<AppointmentEvent> events) {
+        for (AppointmentEventConsumer consumer : consumers) {
+            consumer.onEvents(events);
+        }
+    }
+
+    @Scheduled(cron = "${appointments.outbox.purge-cron:0 30 3 * * *}")
+    public void purgeProcessed() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(RETENTION_DAYS);
+        Integer removed = tx.execute(status -> outboxRepository.deleteProcessedBefore(cutoff));
+        if (removed != null && removed > 0) {
+            log.info("Purged {} processed appointment outbox events", removed);
+        }
+    }
+}
@@ -3,17 +3,20 @@ package uz.navbatuz.backend.appointment.service;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import uz.navbatuz.backend.appointment.dto.*;
+import uz.navbatuz.backend.appointment.event.AppointmentEventType;
 import uz.navbatuz.backend.appointment.model.Appointment;
-import uz.navbatuz.backend.appointment.model.AppointmentStatusHistory;
 import uz.navbatuz.backend.appointment.repository.AppointmentRepository;
-import uz.navbatuz.backend.appointment.repository.AppointmentStatusHistoryRepository;
 import uz.navbatuz.backend.auth.service.AuthService;
+import uz.navbatuz.backend.availability.schedule.WorkerLocks;
+import uz.navbatuz.backend.availability.schedule.WorkerScheduleCache;
 import uz.navbatuz.backend.common.AppointmentStatus;
+import uz.navbatuz.backend.common.DomainMetrics;
 import uz.navbatuz.backend.customer.model.Customer;
 import uz.navbatuz.backend.customer.repository.CustomerRepository;
 import uz.navbatuz.backend.guest.model.Guest;
@@ -21,7 +24,6 @@ import uz.navbatuz.backend.guest.repository.GuestRepository;
 import uz.navbatuz.backend.provider.model.Provider;
 import uz.navbatuz.backend.provider.repository.ProviderRepository;
 import uz.navbatuz.backend.providerclient.model.ProviderClient;
-import uz.navbatuz.backend.providerclient.service.ProviderClientService;
 import uz.navbatuz.backend.security.AuthorizationService;
 import uz.navbatuz.backend.security.CurrentUserService;
 import uz.navbatuz.backend.service.model.ServiceEntity;
@@ -50,16 +52,23 @@ public class AppointmentService {
     private final WorkerService workerService;
     private final AuthorizationService authorizationService;
     private final UserRepository userRepository;
-    private final AppointmentStatusHistoryRepository historyRepository;
     private final AuthService authService;
     private final GuestRepository guestRepository;
     private final ProviderRepository providerRepository;
-    private final ProviderClientService providerClientService;
+    private final AppointmentEventPublisher eventPublisher;
     private final CurrentUserService currentUserService;
+    private final WorkerScheduleCache scheduleCache;
+    private final WorkerLocks workerLocks;
+    private final SlotHoldService slotHoldService;
+    private final DomainMetrics metrics;
 
     private static final int RESCHEDULE_MIN_LEAD_MINUTES = 120;
     private static final int CANCEL_MIN_LEAD_MINUTES     = 120;
     private static final int NO_SHOW_GRACE_MINUTES = 5;
+    private static final int MAX_FEED_PAGE_SIZE = 50;
+    // PostgreSQL orders uuid bytewise, so these bound every id
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+    private static final UUID MAX_UUID = new UUID(-1L, -1L);
 
     private static final java.util.Set<AppointmentStatus> BLOCKING_STATUSES =
             java.util.EnumSet.of(AppointmentStatus.BOOKED, AppointmentStatus.RESCHEDULED);
@@ -103,6 +112,11 @@ public class AppointmentService {
 
     @Transactional
     public AppointmentResponse reschedule(UUID appointmentId, RescheduleRequest request) {
+        return metrics.timed("appointments.reschedule", DomainMetrics.BY_CATEGORY,
+                call -> reschedule(appointmentId, request, call.countConflicts()));
+    }
+
+    private AppointmentResponse reschedule(UUID appointmentId, RescheduleRequest request, DomainMetrics.Call call) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Appointment not found"));
 
@@ -121,12 +135,15 @@ public class AppointmentService {
 
         Worker worker = appointment.getWorker();
         ServiceEntity service = appointment.getService();
+        call.category(worker.getProvider().getCategory());
 
-        // validate new slot
-        var freeSlots = workerService.getFreeSlots(worker.getId(), request.newDate(), service.getDuration());
-        if (!new java.util.HashSet<>(freeSlots).contains(request.newStartTime())) {
+        // validate new slot; both days change, lock them together
+        workerLocks.lockUntilCompletion(worker.getId(), appointment.getDate(), request.newDate());
+        if (!workerService.isSlotFree(worker.getId(), request.newDate(), request.newStartTime(), service.getDuration())) {
+            call.outcome(DomainMetrics.CONFLICT);
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Requested time slot is not available");
         }
+        LocalDate oldDate = appointment.getDate();
 
         // move and keep status BOOKED; log RESCHEDULED in history
         appointment.setDate(request.newDate());
@@ -134,28 +151,45 @@ public class AppointmentService {
         appointment.setEndTime(request.newStartTime().plus(service.getDuration()));
         appointment.setStatus(AppointmentStatus.BOOKED);
         appointmentRepository.save(appointment);
-        logStatusChange(appointment, oldStatus, AppointmentStatus.RESCHEDULED);
+        eventPublisher.publish(AppointmentEventType.RESCHEDULED, appointment, oldStatus,
+                AppointmentStatus.RESCHEDULED, currentUser.getId());
+
+        scheduleCache.appointmentRemoved(worker.getId(), oldDate, appointment.getId());
+        scheduleCache.appointmentAdded(worker.getId(), appointment.getDate(), appointment.getId(),
+                appointment.getStartTime(), appointment.getEndTime());
 
         return toResponse(appointment);
     }
 
     @Transactional
     public AppointmentResponse book(AppointmentNormalized cmd, UUID createdByUser) {
+        return metrics.timed("appointments.book", DomainMetrics.BY_CATEGORY,
+                call -> book(cmd, createdByUser, call.countConflicts()));
+    }
+
+    private AppointmentResponse book(AppointmentNormalized cmd, UUID createdByUser, DomainMetrics.Call call) {
         var worker  = workerRepository.findById(cmd.workerId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Worker not found"));
+        call.category(worker.getProvider().getCategory());
         var service = serviceRepository.findById(cmd.serviceId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Service not found"));
 
-        // block if already taken (only blocking statuses)
-        if (appointmentRepository.existsByWorkerIdAndDateAndStartTimeAndStatusIn(
-                cmd.workerId(), cmd.date(), cmd.startTime(), BLOCKING_STATUSES)) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Slot already booked");
-        }
+        // serialize schedule changes of this worker-day until commit
+        workerLocks.lockUntilCompletion(cmd.workerId(), cmd.date());
 
-        // sanity: ensure requested time is part of free slots
-        var free = workerService.getFreeSlots(cmd.workerId(), cmd.date(), service.getDuration());
-        if (!new java.util.HashSet<>(free).contains(cmd.startTime())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Requested time slot is not available");
+        if (cmd.holdToken() != null) {
+            // interval was validated when the hold was taken
+            slotHoldService.consume(cmd.holdToken(), cmd.workerId(), cmd.serviceId(), cmd.date(), cmd.startTime(), createdByUser);
+        } else {
+            // cheap interval-overlap check first, so a losing request fails before rebuilding the day
+            slotHoldService.assertNoConflict(cmd.workerId(), cmd.date(), cmd.startTime(),
+                    cmd.startTime().plus(service.getDuration()));
+
+            // sanity: ensure requested time is part of free slots
+            if (!workerService.isSlotFree(cmd.workerId(), cmd.date(), cmd.startTime(), service.getDuration())) {
+                call.outcome(DomainMetrics.CONFLICT);
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Requested time slot is not available");
+            }
         }
 
         // resolve party
@@ -186,11 +220,10 @@ public class AppointmentService {
                 .build();
 
         appointmentRepository.save(appt);
+        scheduleCache.appointmentAdded(worker.getId(), appt.getDate(), appt.getId(), appt.getStartTime(), appt.getEndTime());
 
-        // update provider_client index
-        providerClientService.upsertFromAppointment(
-                worker.getProvider(), customer, guest, null, null, createdByUser
-        );
+        // provider_client index is updated asynchronously from the outbox
+        eventPublisher.publish(AppointmentEventType.BOOKED, appt, null, AppointmentStatus.BOOKED, createdByUser);
 
         return toResponse(appt);
     }
@@ -203,42 +236,27 @@ public class AppointmentService {
     }
 
     public AppointmentDetails getAppointmentDetails(UUID appointmentId) {
-        Appointment a = appointmentRepository.findById(appointmentId)
+        return appointmentRepository.findDetailsById(appointmentId)
                 .orElseThrow(() -> new RuntimeException("Appointment not found"));
-
-        return new AppointmentDetails(
-                a.getId(),
-                a.getDate(),
-                a.getStartTime(),
-                a.getEndTime(),
-                a.getStatus(),
-                a.getWorker().getProvider().getName(),
-                a.getWorker().getProvider().getLocation().getAddressLine1(),
-                a.getWorker().getProvider().getLocation().getCity(),
-                a.getWorker().getProvider().getLocation().getCountryIso2(),
-                a.getService().getName(),
-                a.getService().getPrice(),
-                a.getWorker().getUser().getName()
-        );
     }
 
     public List<AppointmentResponse> getCustomerAppointments(UUID customerId) {
-        return appointmentRepository.findByCustomerId(customerId)
+        return appointmentRepository.findRowsByCustomerId(customerId)
                 .stream().map(this::toResponse).toList();
     }
 
     public List<AppointmentSummaryResponse> getCustomerAppointments1(UUID customerId) {
-        return appointmentRepository.findByCustomerId(customerId)
+        return appointmentRepository.findRowsByCustomerId(customerId)
                 .stream()
-                .map(a -> new AppointmentSummaryResponse(
-                        a.getId(),
-                        a.getDate(),
-                        a.getStartTime(),
-                        a.getEndTime(),
-                        a.getStatus(),
-                        a.getWorker().getUser().getName(),
-                        a.getWorker().getProvider().getName(),
-                        a.getService().getName()
+                .map(r -> new AppointmentSummaryResponse(
+                        r.id(),
+                        r.date(),
+                        r.startTime(),
+                        r.endTime(),
+                        r.status(),
+                        r.workerName(),
+                        r.providerName(),
+                        r.serviceName()
                 ))
                 .toList();
     }
@@ -252,13 +270,19 @@ public class AppointmentService {
 
     @Transactional
     public void cancelAppointment(UUID appointmentId) {
+        metrics.run("appointments.cancel", DomainMetrics.BY_CATEGORY, call -> cancelAppointment(appointmentId, call));
+    }
+
+    private void cancelAppointment(UUID appointmentId, DomainMetrics.Call call) {
         Appointment a = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Appointment not found"));
+        call.category(a.getWorker().getProvider().getCategory());
 
         User currentUser = getCurrentUser();
         if (!hasPermissionToModify(a, currentUser)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to cancel");
         }
+        workerLocks.lockUntilCompletion(a.getWorker().getId(), a.getDate());
 
         // Block last-minute cancels for customers (MVP rule).
         // If you want to block staff too, remove this role check.
@@ -273,7 +297,8 @@ public class AppointmentService {
         var oldStatus = a.getStatus();
         a.setStatus(AppointmentStatus.CANCELLED);
         appointmentRepository.save(a);
-        logStatusChange(a, oldStatus, AppointmentStatus.CANCELLED);
+        eventPublisher.publish(AppointmentEventType.CANCELLED, a, oldStatus, AppointmentStatus.CANCELLED, currentUser.getId());
+        scheduleCache.appointmentRemoved(a.getWorker().getId(), a.getDate(), a.getId());
     }
 
 
@@ -295,7 +320,8 @@ public class AppointmentService {
 
         appointment.setStatus(AppointmentStatus.COMPLETED);
         appointmentRepository.save(appointment);
-        logStatusChange(appointment, oldStatus, AppointmentStatus.COMPLETED);
+        eventPublisher.publish(AppointmentEventType.COMPLETED, appointment, oldStatus,
+                AppointmentStatus.COMPLETED, currentUser.getId());
     }
 
     private AppointmentResponse toResponse(Appointment a) {
@@ -323,23 +349,71 @@ public class AppointmentService {
         );
     }
 
-    public void logStatusChange(Appointment appointment, AppointmentStatus oldStatus, AppointmentStatus newStatus) {
-        var user = getCurrentUser(); // from SecurityContext
-        var history = AppointmentStatusHistory.builder()
-                .appointment(appointment)
-                .oldStatus(oldStatus)
-                .newStatus(newStatus)
-                .changedAt(LocalDateTime.now())
-                .changedBy(user)
-                .build();
-        historyRepository.save(history);
+    /**
+     * One keyset page of a customer's history. Without a cursor, UPCOMING starts at now and
+     * PAST starts just before now; each page is a bounded index range scan.
+     */
+    public AppointmentFeedPage getCustomerFeed(UUID customerId, AppointmentFeedDirection direction,
+                                               LocalDate afterDate, LocalTime afterStartTime, UUID afterId,
+                                               int size) {
+        if ((afterDate == null) != (afterStartTime == null) || (afterDate == null) != (afterId == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "afterDate, afterStartTime and afterId go together");
+        }
+        int limit = Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+        var page = PageRequest.of(0, limit);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<AppointmentRow> rows = switch (direction) {
+            case UPCOMING -> afterDate == null
+                    ? appointmentRepository.findCustomerRowsAfter(customerId, now.toLocalDate(),
+                            now.toLocalTime(), MIN_UUID, page)
+                    : appointmentRepository.findCustomerRowsAfter(customerId, afterDate, afterStartTime, afterId, page);
+            case PAST -> afterDate == null
+                    ? appointmentRepository.findCustomerRowsBefore(customerId, now.toLocalDate(),
+                            now.toLocalTime(), MAX_UUID, page)
+                    : appointmentRepository.findCustomerRowsBefore(customerId, afterDate, afterStartTime, afterId, page);
+        };
+
+        List<AppointmentSummaryResponse> items = rows.stream()
+                .map(r -> new AppointmentSummaryResponse(
+                        r.id(),
+                        r.date(),
+                        r.startTime(),
+                        r.endTime(),
+                        r.status(),
+                        r.workerName(),
+                        r.providerName(),
+                        r.serviceName()
+                ))
+                .toList();
+
+        if (rows.size() < limit) {
+            return new AppointmentFeedPage(items, null, null, null);
+        }
+        var last = rows.get(rows.size() - 1);
+        return new AppointmentFeedPage(items, last.date(), last.startTime(), last.id());
+    }
+
+    private AppointmentResponse toResponse(AppointmentRow r) {
+        return new AppointmentResponse(
+                r.id(),
+                r.workerId(),
+                r.serviceId(),
+                r.providerId(),
+                r.date(),
+                r.startTime(),
+                r.endTime(),
+                r.status(),
+                r.customerId(),
+                r.guestId(),
+                r.guestId() != null ? maskPhone(r.guestPhone()) : null
+        );
     }
 
     public List<AppointmentResponse> getWorkerAppointmentsDay(UUID workerId, LocalDate date) {
-        // Include every status so the day view can show cancelled/completed past events too.
-        var statuses = EnumSet.allOf(AppointmentStatus.class);
-        return appointmentRepository
-                .findByWorkerIdAndDateAndStatusInOrderByStartTime(workerId, date, statuses)
+        // Every status, so the day view can show cancelled/completed past events too.
+        return appointmentRepository.findRowsByWorkerIdAndDate(workerId, date)
                 .stream()
                 .map(this::toResponse)
                 .toList();
@@ -350,17 +424,17 @@ public class AppointmentService {
         return (p.length() < 4) ? "***" : "********" + p.substring(p.length() - 4);
     }
 
-    private String extractCustomerName(Appointment a) {
-        if (a.getCustomer() != null && a.getCustomer().getUser() != null) {
-            var n = a.getCustomer().getUser().getName();
+    private String extractCustomerName(AppointmentRow r) {
+        if (r.customerId() != null) {
+            var n = r.customerName();
             if (n != null && !n.isBlank()) return n;
         }
-        if (a.getGuest() != null) {
-            var p = a.getGuest().getPhoneNumber();
+        if (r.guestId() != null) {
+            var p = r.guestPhone();
             if (p != null && (p.equals("+000000000000") || p.startsWith("+888"))) {
                 return "Walk-in"; // backend default; UI will localize
             }
-            var gn = a.getGuest().getName();
+            var gn = r.guestName();
             if (gn != null && !gn.isBlank()) return gn;
             var m = maskPhone(p);
             if (m != null) return "Guest " + m;
@@ -369,60 +443,57 @@ public class AppointmentService {
     }
 
 
-    private AppointmentResponseStaff toStaffResponse(Appointment a) {
-        String guestMask = (a.getGuest() != null) ? maskPhone(a.getGuest().getPhoneNumber()) : null;
+    private AppointmentResponseStaff toStaffResponse(AppointmentRow r) {
+        String guestMask = (r.guestId() != null) ? maskPhone(r.guestPhone()) : null;
         return new AppointmentResponseStaff(
-                a.getId(),
-                a.getWorker().getId(),
-                a.getWorker().getProvider().getId(),
-                a.getService().getId(),
-                a.getDate(),
-                a.getStartTime(),
-                a.getEndTime(),
-                a.getStatus(),
-                a.getWorker().getUser() != null ? a.getWorker().getUser().getName() : null,
-                a.getWorker().getProvider().getName(),
-                a.getService().getName(),
-                extractCustomerName(a),
+                r.id(),
+                r.workerId(),
+                r.providerId(),
+                r.serviceId(),
+                r.date(),
+                r.startTime(),
+                r.endTime(),
+                r.status(),
+                r.workerName(),
+                r.providerName(),
+                r.serviceName(),
+                extractCustomerName(r),
                 guestMask
         );
     }
 
     public java.util.List<AppointmentResponseStaff> getWorkerAppointmentsDayStaff(UUID workerId, LocalDate date) {
-        var statuses = java.util.EnumSet.allOf(uz.navbatuz.backend.common.AppointmentStatus.class);
-        return appointmentRepository
-                .findByWorkerIdAndDateAndStatusInOrderByStartTime(workerId, date, statuses)
+        return appointmentRepository.findRowsByWorkerIdAndDate(workerId, date)
                 .stream()
                 .map(this::toStaffResponse)
                 .toList();
     }
 
     public AppointmentDetailsStaff getAppointmentDetailsStaff(UUID appointmentId) {
-        var a = appointmentRepository.findById(appointmentId)
+        var r = appointmentRepository.findRowById(appointmentId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Appointment not found"));
 
-        String customerName = extractCustomerName(a);
+        String customerName = extractCustomerName(r);
         String phone = null;
         String avatar = null;
 
-        if (a.getCustomer() != null && a.getCustomer().getUser() != null) {
-            var u = a.getCustomer().getUser();
-            phone = (u.getPhoneNumber() != null && !u.getPhoneNumber().isBlank()) ? u.getPhoneNumber() : null;
-            avatar = (u.getAvatarUrl() != null && !u.getAvatarUrl().isBlank()) ? u.getAvatarUrl() : null;
-        } else if (a.getGuest() != null) {
-            phone = a.getGuest().getPhoneNumber();
+        if (r.customerId() != null) {
+            phone = (r.customerPhone() != null && !r.customerPhone().isBlank()) ? r.customerPhone() : null;
+            avatar = (r.customerAvatarUrl() != null && !r.customerAvatarUrl().isBlank()) ? r.customerAvatarUrl() : null;
+        } else if (r.guestId() != null) {
+            phone = r.guestPhone();
             // if Guest has avatar, use it; otherwise null
         }
 
         return new AppointmentDetailsStaff(
-                a.getId(),
-                a.getDate(),
-                a.getStartTime(),
-                a.getEndTime(),
-                a.getStatus(),
-                a.getWorker().getUser() != null ? a.getWorker().getUser().getName() : null,
-                a.getWorker().getProvider().getName(),
-                a.getService().getName(),
+                r.id(),
+                r.date(),
+                r.startTime(),
+                r.endTime(),
+                r.status(),
+                r.workerName(),
+                r.providerName(),
+                r.serviceName(),
                 customerName,
                 phone,
                 avatar
@@ -452,10 +523,12 @@ public class AppointmentService {
                     "Too early to mark no-show (" + NO_SHOW_GRACE_MINUTES + " min grace)");
         }
 
+        workerLocks.lockUntilCompletion(a.getWorker().getId(), a.getDate());
         AppointmentStatus old = a.getStatus();
         a.setStatus(AppointmentStatus.NO_SHOW);
         appointmentRepository.save(a);
-        logStatusChange(a, old, AppointmentStatus.NO_SHOW);
+        eventPublisher.publish(AppointmentEventType.NO_SHOW, a, old, AppointmentStatus.NO_SHOW, currentUser.getId());
+        scheduleCache.appointmentRemoved(a.getWorker().getId(), a.getDate(), a.getId());
     }
 
     @Transactional
@@ -478,10 +551,17 @@ public class AppointmentService {
                 ? AppointmentStatus.COMPLETED
                 : AppointmentStatus.BOOKED;
 
+        // the freed time may have been booked meanwhile
+        workerLocks.lockUntilCompletion(a.getWorker().getId(), a.getDate());
+        if (newStatus == AppointmentStatus.BOOKED) {
+            slotHoldService.assertNoConflict(a.getWorker().getId(), a.getDate(), a.getStartTime(), a.getEndTime());
+        }
+
         AppointmentStatus old = a.getStatus();
         a.setStatus(newStatus);
         appointmentRepository.save(a);
-        logStatusChange(a, old, newStatus);
+        eventPublisher.publish(AppointmentEventType.NO_SHOW_UNDONE, a, old, newStatus, currentUser.getId());
+        scheduleCache.appointmentAdded(a.getWorker().getId(), a.getDate(), a.getId(), a.getStartTime(), a.getEndTime());
     }
 
 }
@@ -0,0 +1,154 @@
+package uz.navbatuz.backend.appointment.service;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import uz.navbatuz.backend.appointment.dto.SlotHoldRequest;
+import uz.navbatuz.backend.appointment.dto.SlotHoldResponse;
+import uz.navbatuz.backend.appointment.model.SlotHold;
+import uz.navbatuz.backend.appointment.repository.AppointmentRepository;
+import uz.navbatuz.backend.appointment.repository.SlotHoldRepository;
+import uz.navbatuz.backend.availability.schedule.WorkerLocks;
+import uz.navbatuz.backend.availability.schedule.WorkerScheduleCache;
+import uz.navbatuz.backend.common.AppointmentStatus;
+import uz.navbatuz.backend.service.repository.ServiceRepository;
+import uz.navbatuz.backend.worker.service.WorkerService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Reserve → confirm booking flow. A hold blocks an interval of one worker for
+ * {@link #HOLD_TTL_MINUTES}; confirming it in {@link AppointmentService#book} skips the
+ * slot computation because the interval was already validated under the worker lock.
+ * A user keeps at most {@link #MAX_HOLDS_PER_USER} live holds; a new one replaces the oldest.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SlotHoldService {
+    private final SlotHoldRepository holdRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final ServiceRepository serviceRepository;
+    private final WorkerService workerService;
+    private final WorkerLocks workerLocks;
+    private final WorkerScheduleCache scheduleCache;
+
+    private static final int HOLD_TTL_MINUTES = 5;
+    private static final int MAX_HOLDS_PER_USER = 2;
+
+    private static final Set<AppointmentStatus> BLOCKING_STATUSES =
+            EnumSet.of(AppointmentStatus.BOOKED, AppointmentStatus.RESCHEDULED);
+
+    @Transactional
+    public SlotHoldResponse hold(SlotHoldRequest req, UUID actorUserId) {
+        if (req.workerId() == null || req.serviceId() == null || req.date() == null || req.startTime() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "workerId, serviceId, date and startTime are required");
+        }
+        var service = serviceRepository.findByIdAndWorkers_IdAndDeletedFalseAndIsActiveTrue(req.serviceId(), req.workerId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Service is not offered by this worker"));
+        LocalTime end = req.startTime().plus(service.getDuration());
+
+        workerLocks.lockUntilCompletion(req.workerId(), req.date());
+        releaseOldest(actorUserId);
+
+        assertNoConflict(req.workerId(), req.date(), req.startTime(), end);
+        if (!workerService.isSlotFree(req.workerId(), req.date(), req.startTime(), service.getDuration())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Requested time slot is not available");
+        }
+
+        SlotHold hold = holdRepository.save(SlotHold.builder()
+                .workerId(req.workerId())
+                .serviceId(req.serviceId())
+                .date(req.date())
+                .startTime(req.startTime())
+                .endTime(end)
+                .expiresAt(LocalDateTime.now().plusMinutes(HOLD_TTL_MINUTES))
+                .createdByUser(actorUserId)
+                .build());
+        scheduleCache.appointmentAdded(hold.getWorkerId(), hold.getDate(), hold.getId(), hold.getStartTime(), hold.getEndTime());
+
+        return toResponse(hold);
+    }
+
+    /** Frees room for one more hold; the deletes roll back with the new hold if it fails. */
+    private void releaseOldest(UUID actorUserId) {
+        if (actorUserId == null) return;
+        List<SlotHold> live = holdRepository.findByCreatedByUserAndExpiresAtAfterOrderByExpiresAtAsc(actorUserId, LocalDateTime.now());
+        for (SlotHold h : live.subList(0, Math.max(0, live.size() - (MAX_HOLDS_PER_USER - 1)))) {
+            holdRepository.delete(h);
+            scheduleCache.appointmentRemoved(h.getWorkerId(), h.getDate(), h.getId());
+        }
+    }
+
+    @Transactional
+    public void release(UUID holdToken, UUID actorUserId) {
+        SlotHold hold = holdRepository.findById(holdToken)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Hold not found"));
+        if (hold.getCreatedByUser() != null && !hold.getCreatedByUser().equals(actorUserId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not your hold");
+        }
+        holdRepository.delete(hold);
+        scheduleCache.appointmentRemoved(hold.getWorkerId(), hold.getDate(), hold.getId());
+    }
+
+    /**
+     * Validates the hold against the booking command and deletes it. Must run inside the
+     * booking transaction after the worker lock is taken.
+     */
+    void consume(UUID holdToken, UUID workerId, UUID serviceId, LocalDate date, LocalTime start, UUID actorUserId) {
+        SlotHold hold = holdRepository.findById(holdToken)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "Hold expired or not found"));
+        if (!hold.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Hold expired or not found");
+        }
+        if (hold.getCreatedByUser() != null && !hold.getCreatedByUser().equals(actorUserId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not your hold");
+        }
+        if (!hold.getWorkerId().equals(workerId) || !hold.getServiceId().equals(serviceId)
+                || !hold.getDate().equals(date) || !hold.getStartTime().equals(start)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Hold does not match the booking");
+        }
+        holdRepository.delete(hold);
+        scheduleCache.appointmentRemoved(hold.getWorkerId(), hold.getDate(), hold.getId());
+    }
+
+    /** Cheap indexed interval check against appointments and live holds; 409 on overlap. */
+    void assertNoConflict(UUID workerId, LocalDate date, LocalTime start, LocalTime end) {
+        if (appointmentRepository.existsOverlap(workerId, date, start, end, BLOCKING_STATUSES)
+                || holdRepository.existsActiveOverlap(workerId, date, start, end, LocalDateTime.now())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Slot already booked");
+        }
+    }
+
+    @Transactional
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        List<SlotHold> expired = holdRepository.findByExpiresAtBefore(LocalDateTime.now());
+        if (expired.isEmpty()) return;
+        holdRepository.deleteAll(expired);
+        expired.forEach(h -> scheduleCache.appointmentRemoved(h.getWorkerId(), h.getDate(), h.getId()));
+        log.debug("Purged {} expired slot holds", expired.size());
+    }
+
+    private SlotHoldResponse toResponse(SlotHold h) {
+        return new SlotHoldResponse(
+                h.getId(),
+                h.getWorkerId(),
+                h.getServiceId(),
+                h.getDate(),
+                h.getStartTime(),
+                h.getEndTime(),
+                h.getExpiresAt()
+        );
+    }
+}
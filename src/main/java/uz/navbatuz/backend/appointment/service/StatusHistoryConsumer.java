@@ -0,0 +1,41 @@
+package uz.navbatuz.backend.appointment.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import uz.navbatuz.backend.appointment.event.AppointmentEvent;
+import uz.navbatuz.backend.appointment.event.AppointmentEventConsumer;
+import uz.navbatuz.backend.appointment.event.AppointmentEventType;
+import uz.navbatuz.backend.appointment.model.AppointmentStatusHistory;
+import uz.navbatuz.backend.appointment.repository.AppointmentRepository;
+import uz.navbatuz.backend.appointment.repository.AppointmentStatusHistoryRepository;
+import uz.navbatuz.backend.user.repository.UserRepository;
+
+import java.util.List;
+
+/** Writes {@code appointment_status_history} rows for every status change. */
+@Component
+@RequiredArgsConstructor
+public class StatusHistoryConsumer implements AppointmentEventConsumer {
+
+    private final AppointmentStatusHistoryRepository historyRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    public void onEvents(List<AppointmentEvent> events) {
+        List<AppointmentStatusHistory> rows = events.stream()
+                .filter(e -> e.type() != AppointmentEventType.BOOKED)
+                .map(e -> AppointmentStatusHistory.builder()
+                        // references only: no SELECT for the appointment or the actor
+                        .appointment(appointmentRepository.getReferenceById(e.appointmentId()))
+                        .oldStatus(e.oldStatus())
+                        .newStatus(e.newStatus())
+                        .changedAt(e.occurredAt())
+                        .changedBy(e.actorUserId() != null ? userRepository.getReferenceById(e.actorUserId()) : null)
+                        .build())
+                .toList();
+        if (!rows.isEmpty()) {
+            historyRepository.saveAll(rows);
+        }
+    }
+}
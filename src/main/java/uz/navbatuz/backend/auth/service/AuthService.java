@@ -15,6 +15,10 @@ import uz.navbatuz.backend.auth.repository.PasswordResetTokenRepository;
 import uz.navbatuz.backend.common.*;
 import uz.navbatuz.backend.customer.model.Customer;
 import uz.navbatuz.backend.customer.repository.CustomerRepository;
+import uz.navbatuz.backend.mail.template.MailTemplate;
+import uz.navbatuz.backend.mail.template.MailTemplateService;
+import uz.navbatuz.backend.mail.template.RenderedMail;
+import uz.navbatuz.backend.security.PrincipalCache;
 import uz.navbatuz.backend.user.model.User;
 import uz.navbatuz.backend.user.repository.UserRepository;
 
@@ -35,6 +39,8 @@ public class AuthService {
     private final CustomerRepository customerRepository;
     private final PasswordResetTokenRepository resetRepo;
     private final EmailService emailService;
+    private final MailTemplateService mailTemplates;
+    private final PrincipalCache principalCache;
 
     @Value("${app.public-url:${app.publicUrl:https://birzum.app}}")
     private String publicUrl;
@@ -116,45 +122,20 @@ public class AuthService {
         }
 
         // Localized success (optional)
-        Locale locale = switch (user.getLanguage()) {
-            case UZ -> new Locale("uz");
-            case RU -> new Locale("ru");
-            default -> Locale.ENGLISH;
-        };
-        String message = messageService.get("user.created.success", locale);
+        String message = messageService.get("user.created.success", user.getLanguage().locale());
         System.out.println("Localized message: " + message);
 
         // Send invite email when appropriate (WORKER / RECEPTIONIST)
         try {
             if (user.getRole() == Role.WORKER || user.getRole() == Role.RECEPTIONIST) {
-                // RU template
-                String subject = "Ваш аккаунт Birzum создан";
-                String loginUrl = publicUrl; // you can deep-link to app login
                 String roleLabel = (user.getRole() != null) ? user.getRole().name() : "USER";
-
-                String html = """
-                <div style="font-family:Arial,sans-serif;font-size:14px;line-height:1.55">
-                  <p>Здравствуйте, %s!</p>
-                  <p>Для вас создан учетный запись в <b>Birzum</b> (роль: <b>%s</b>).</p>
-                  <p><b>Логин (email):</b> %s<br/>
-                  <b>Временный пароль:</b> %s</p>
-                  <p>Пожалуйста, войдите и смените пароль при первом входе.</p>
-                  <p><a href="%s" style="color:#2563EB;text-decoration:none">Открыть Birzum</a></p>
-                  <p style="color:#6b7280">Если вы не ожидали это письмо, просто игнорируйте его.</p>
-                </div>
-                """.formatted(
-                        safe(user.getName()),
-                        roleLabel,
-                        user.getEmail(),
-                        clearPassword,
-                        loginUrl
-                );
-
-                emailService.sendHtml(user.getEmail(), subject, html);
-                log.info("Invite email sent to {}", user.getEmail());
+                RenderedMail mail = mailTemplates.render(MailTemplate.STAFF_INVITE, user.getLanguage(),
+                        safe(user.getName()), roleLabel, user.getEmail(), clearPassword, publicUrl);
+                emailService.sendHtml("user-invite:" + user.getId(), user.getEmail(), mail.subject(), mail.html());
+                log.info("Invite email queued for {}", user.getEmail());
             }
         } catch (Exception e) {
-            log.warn("Failed to send invite email to {}: {}", user.getEmail(), e.getMessage());
+            log.warn("Failed to queue invite email to {}: {}", user.getEmail(), e.getMessage());
         }
 
         // Return token (unchanged)
@@ -206,16 +187,9 @@ public class AuthService {
         resetRepo.save(token);
 
         String link = publicUrl + "/reset?email=" + url(user.getEmail()) + "&code=" + code;
-        String html = """
-        <div style="font-family:Arial,sans-serif;font-size:14px">
-          <p>Код для сброса пароля (действителен 15 минут):</p>
-          <p style="font-size:22px;font-weight:bold;letter-spacing:3px">%s</p>
-          <p>Или перейдите по ссылке: <a href="%s">%s</a></p>
-          <p>Если вы не запрашивали сброс — просто игнорируйте это письмо.</p>
-        </div>
-        """.formatted(code, link, link);
-
-        emailService.sendHtml(user.getEmail(), "Сброс пароля Birzum", html);
+        RenderedMail mail = mailTemplates.render(MailTemplate.PASSWORD_RESET, user.getLanguage(), code, link);
+
+        emailService.sendHtml("password-reset:" + token.getId(), user.getEmail(), mail.subject(), mail.html());
     }
 
     @Transactional
@@ -241,6 +215,7 @@ public class AuthService {
 
         user.setPasswordHash(passwordEncoder.encode(req.newPassword()));
         userRepository.save(user);
+        principalCache.evict(user.getId());
 
         log.info("Password reset OK for user {}", user.getId());
     }
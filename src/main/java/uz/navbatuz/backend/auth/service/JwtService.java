@@ -34,6 +34,12 @@ public class JwtService {
                 .compact();
     }
 
+    /** Verifies signature and expiry once and returns all claims. */
+    public Claims parseClaims(String token) {
+        return Jwts.parserBuilder().setSigningKey(getKey()).build()
+                .parseClaimsJws(token).getBody();
+    }
+
     public String extractSubject(String token) {
         return Jwts.parserBuilder().setSigningKey(getKey()).build()
                 .parseClaimsJws(token).getBody().getSubject();
@@ -5,6 +5,7 @@ import uz.navbatuz.backend.availability.dto.ActualAvailabilityResponse;
 import uz.navbatuz.backend.availability.model.ActualAvailability;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -20,4 +21,6 @@ public interface ActualAvailabilityRepository extends JpaRepository<ActualAvaila
     Optional<ActualAvailability> findByWorkerIdAndDate(UUID workerId, LocalDate date);
 
     int deleteByIdAndWorkerId(Long availabilityId, UUID workerId);
+
+    List<ActualAvailability> findByWorker_IdInAndDateBetween(Collection<UUID> workerIds, LocalDate from, LocalDate to);
 }
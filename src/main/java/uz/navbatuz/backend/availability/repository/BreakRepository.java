@@ -7,6 +7,7 @@ import uz.navbatuz.backend.availability.model.Break;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -36,4 +37,6 @@ public interface BreakRepository extends JpaRepository<Break, Integer> {
     boolean existsOverlap(UUID workerId, LocalDate date, LocalTime start, LocalTime end);
 
     int deleteByIdAndWorkerId(Long breakId, UUID workerId);
+
+    List<Break> findByWorker_IdInAndDateBetween(Collection<UUID> workerIds, LocalDate from, LocalDate to);
 }
@@ -6,6 +6,7 @@ import uz.navbatuz.backend.availability.dto.PlannedAvailabilityResponse;
 import uz.navbatuz.backend.availability.model.PlannedAvailability;
 
 import java.time.DayOfWeek;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,4 +21,6 @@ public interface PlannedAvailabilityRepository extends JpaRepository<PlannedAvai
     List<PlannedAvailability> findByWorkerId(UUID workerId);
 
     PlannedAvailability findByWorkerIdAndDay(UUID workerId, DayOfWeek day);
+
+    List<PlannedAvailability> findByWorker_IdIn(Collection<UUID> workerIds);
 }
@@ -0,0 +1,157 @@
+package uz.navbatuz.backend.availability.schedule;
+
+import uz.navbatuz.backend.availability.dto.TimeRange;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Occupancy of one worker on one date at minute resolution.
+ * <p>
+ * {@code open} holds the bookable minutes (availability ∩ business hours − breaks),
+ * {@code blocked} holds the minutes covered by blocking appointments with the buffer
+ * already applied on both sides. Instances are immutable; appointment changes produce
+ * a new copy via {@link #withAppointment} / {@link #withoutAppointment}.
+ */
+public final class DaySchedule {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final UUID providerId;
+    private final boolean bookable;      // worker status is AVAILABLE
+    private final boolean closed;        // provider has no business hours for this day
+    private final int leadMinutes;
+    private final int bufferMinutes;
+    private final BitSet open;
+    private final BitSet blocked;
+    private final Map<UUID, TimeRange> appointments;
+
+    private DaySchedule(UUID providerId, boolean bookable, boolean closed, int leadMinutes, int bufferMinutes,
+                        BitSet open, Map<UUID, TimeRange> appointments) {
+        this.providerId = providerId;
+        this.bookable = bookable;
+        this.closed = closed;
+        this.leadMinutes = leadMinutes;
+        this.bufferMinutes = bufferMinutes;
+        this.open = open;
+        this.appointments = Collections.unmodifiableMap(appointments);
+        this.blocked = new BitSet(MINUTES_PER_DAY);
+        for (TimeRange r : appointments.values()) {
+            block(r);
+        }
+    }
+
+    public static DaySchedule closed(UUID providerId, boolean bookable, int leadMinutes) {
+        return new DaySchedule(providerId, bookable, true, leadMinutes, 0,
+                new BitSet(MINUTES_PER_DAY), new HashMap<>());
+    }
+
+    /**
+     * @param window       working window already intersected with business hours, or null when not planned
+     * @param buffer       buffer kept around every appointment
+     * @param breaks       breaks of the day
+     * @param appointments blocking appointments keyed by id
+     */
+    public static DaySchedule of(UUID providerId, boolean bookable, int leadMinutes,
+                                 TimeRange window, Duration buffer,
+                                 Collection<TimeRange> breaks, Map<UUID, TimeRange> appointments) {
+        BitSet open = new BitSet(MINUTES_PER_DAY);
+        if (window != null) {
+            int from = ceilMinute(window.start());
+            int to = floorMinute(window.end());
+            if (from < to) open.set(from, to);
+            for (TimeRange b : breaks) {
+                int bs = floorMinute(b.start());
+                int be = ceilMinute(b.end());
+                if (bs < be) open.clear(bs, be);
+            }
+        }
+        int bufferMin = buffer == null ? 0 : (int) Math.max(0, buffer.toMinutes());
+        return new DaySchedule(providerId, bookable, false, leadMinutes, bufferMin,
+                open, new HashMap<>(appointments));
+    }
+
+    public UUID providerId() { return providerId; }
+
+    public boolean bookable() { return bookable; }
+
+    public boolean closed() { return closed; }
+
+    public int leadMinutes() { return leadMinutes; }
+
+    public DaySchedule withAppointment(UUID appointmentId, LocalTime start, LocalTime end) {
+        if (closed) return this;
+        Map<UUID, TimeRange> copy = new HashMap<>(appointments);
+        copy.put(appointmentId, new TimeRange(start, end));
+        return new DaySchedule(providerId, bookable, false, leadMinutes, bufferMinutes, open, copy);
+    }
+
+    public DaySchedule withoutAppointment(UUID appointmentId) {
+        if (!appointments.containsKey(appointmentId)) return this;
+        Map<UUID, TimeRange> copy = new HashMap<>(appointments);
+        copy.remove(appointmentId);
+        return new DaySchedule(providerId, bookable, closed, leadMinutes, bufferMinutes, open, copy);
+    }
+
+    /**
+     * Start times aligned to {@code stepMinutes} (from midnight) at or after {@code fromMinute}
+     * where [start, start + duration) is fully free. Single sweep over free runs.
+     */
+    public List<LocalTime> freeSlots(int durationMinutes, int fromMinute, int stepMinutes) {
+        BitSet free = freeMinutes();
+        List<LocalTime> result = new ArrayList<>();
+        int runStart = free.nextSetBit(Math.max(0, fromMinute));
+        while (runStart >= 0 && runStart < MINUTES_PER_DAY) {
+            int runEnd = free.nextClearBit(runStart);
+            for (int t = roundUp(runStart, stepMinutes); t + durationMinutes <= runEnd; t += stepMinutes) {
+                result.add(toTime(t));
+            }
+            runStart = free.nextSetBit(runEnd);
+        }
+        return result;
+    }
+
+    /** Same rules as {@link #freeSlots} but for a single candidate start. */
+    public boolean isFree(LocalTime start, int durationMinutes, int fromMinute, int stepMinutes) {
+        if (start.getSecond() != 0 || start.getNano() != 0) return false;
+        int s = start.getHour() * 60 + start.getMinute();
+        if (s < fromMinute || s % stepMinutes != 0 || s + durationMinutes > MINUTES_PER_DAY) return false;
+        return freeMinutes().nextClearBit(s) >= s + durationMinutes;
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private BitSet freeMinutes() {
+        BitSet free = (BitSet) open.clone();
+        free.andNot(blocked);
+        return free;
+    }
+
+    private void block(TimeRange r) {
+        int from = Math.max(0, floorMinute(r.start()) - bufferMinutes);
+        int to = Math.min(MINUTES_PER_DAY, ceilMinute(r.end()) + bufferMinutes);
+        if (from < to) blocked.set(from, to);
+    }
+
+    private static int floorMinute(LocalTime t) {
+        return t.toSecondOfDay() / 60;
+    }
+
+    private static int ceilMinute(LocalTime t) {
+        int sec = t.toSecondOfDay();
+        int min = sec / 60;
+        if (sec % 60 != 0 || t.getNano() != 0) min++;
+        // 23:59:59.999 and similar "end of day" markers map to 24:00
+        return Math.min(min, MINUTES_PER_DAY);
+    }
+
+    private static int roundUp(int minute, int step) {
+        int rem = minute % step;
+        return rem == 0 ? minute : minute + (step - rem);
+    }
+
+    private static LocalTime toTime(int minute) {
+        return LocalTime.of(minute / 60, minute % 60);
+    }
+}
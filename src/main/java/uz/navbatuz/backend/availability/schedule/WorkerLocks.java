@@ -0,0 +1,99 @@
+package uz.navbatuz.backend.availability.schedule;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-(worker, date) mutual exclusion for schedule changes, held until the surrounding
+ * transaction completes.
+ * <p>
+ * Two layers: a striped in-process lock, so same-node requests queue without touching the DB,
+ * then a transaction-scoped PostgreSQL advisory lock ({@code pg_advisory_xact_lock}) that
+ * serializes the same key across nodes and is released by commit/rollback. Keys of one call
+ * are taken in a fixed order, so callers that need several dates (reschedule, bulk breaks)
+ * cannot deadlock each other. Different workers almost always map to different stripes and
+ * advisory keys and stay parallel.
+ */
+@Component
+public class WorkerLocks {
+
+    private static final int STRIPES = 1024; // power of two
+    private static final long WAIT_SECONDS = 10;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final EntityManager entityManager;
+    private final boolean advisoryLocks;
+
+    public WorkerLocks(EntityManager entityManager,
+                       @Value("${app.schedule.advisory-locks:true}") boolean advisoryLocks) {
+        this.entityManager = entityManager;
+        this.advisoryLocks = advisoryLocks;
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
+
+    /**
+     * Locks the worker's schedule on every given date until the current transaction completes,
+     * so the conflict check and the write are seen as one step by other requests and nodes.
+     * Throws 409 when the local lock cannot be taken in time.
+     */
+    public void lockUntilCompletion(UUID workerId, LocalDate... dates) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Worker lock requires an active transaction");
+        }
+        long[] keys = Arrays.stream(dates).filter(Objects::nonNull).distinct()
+                .mapToLong(d -> key(workerId, d)).sorted().distinct().toArray();
+
+        // local stripes first (ascending index), then the cluster-wide advisory locks (ascending key)
+        int[] indexes = Arrays.stream(keys).mapToInt(WorkerLocks::stripeIndex).sorted().distinct().toArray();
+        for (int index : indexes) {
+            lockStripe(stripes[index]);
+        }
+        if (advisoryLocks) {
+            for (long key : keys) {
+                entityManager.createNativeQuery("SELECT 1 FROM (SELECT pg_advisory_xact_lock(?1, ?2)) l")
+                        .setParameter(1, (int) (key >> 32))
+                        .setParameter(2, (int) key)
+                        .getSingleResult();
+            }
+        }
+    }
+
+    private static void lockStripe(ReentrantLock lock) {
+        try {
+            if (!lock.tryLock(WAIT_SECONDS, TimeUnit.SECONDS)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Schedule is busy, try again");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for schedule lock");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    /** High 32 bits: worker hash, low 32 bits: epoch day. Collisions only over-serialize. */
+    private static long key(UUID workerId, LocalDate date) {
+        return ((long) workerId.hashCode() << 32) | (date.toEpochDay() & 0xFFFFFFFFL);
+    }
+
+    private static int stripeIndex(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 54) & (STRIPES - 1);
+    }
+}
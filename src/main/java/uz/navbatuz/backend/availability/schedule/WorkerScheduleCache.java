@@ -0,0 +1,152 @@
+package uz.navbatuz.backend.availability.schedule;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Per-worker, per-date {@link DaySchedule} cache.
+ * <p>
+ * Entries are built once from the DB and then patched in place when appointments change.
+ * Breaks, availability, business hours and worker status changes drop the affected entries.
+ * All mutations are applied after the surrounding transaction commits, so a rolled back
+ * booking never leaks into the cache. Entries expire after a short TTL so other nodes'
+ * writes become visible without a shared invalidation channel.
+ * <p>
+ * Every mutation bumps a version stripe for its key before it touches the map. A schedule loaded
+ * from the DB is only stored if its stripe did not move while it was loading; otherwise a load
+ * that started before a commit could overwrite the patch that commit applied.
+ */
+@Component
+public class WorkerScheduleCache {
+
+    private static final int MAX_ENTRIES = 20_000;
+    private static final long TTL_MS = 2 * 60_000; // 2 min
+    private static final int STRIPES = 1024;
+
+    private record Key(UUID workerId, LocalDate date) {}
+
+    private record Entry(DaySchedule schedule, long loadedAt) {}
+
+    private final ConcurrentHashMap<Key, Entry> days = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+    public DaySchedule get(UUID workerId, LocalDate date, Supplier<DaySchedule> loader) {
+        Key key = new Key(workerId, date);
+        long now = System.currentTimeMillis();
+        Entry e = days.get(key);
+        if (e != null && now - e.loadedAt() <= TTL_MS) {
+            return e.schedule();
+        }
+        long version = versions.get(stripe(key));
+        DaySchedule fresh = loader.get();
+        store(key, fresh, version);
+        return fresh;
+    }
+
+    /** Version to pass to {@link #put}; read it before loading the schedule. */
+    public long version(UUID workerId, LocalDate date) {
+        return versions.get(stripe(new Key(workerId, date)));
+    }
+
+    /**
+     * Stores a schedule loaded by the caller, unless the key was patched or invalidated since
+     * {@code version} was read.
+     */
+    public void put(UUID workerId, LocalDate date, DaySchedule schedule, long version) {
+        store(new Key(workerId, date), schedule, version);
+    }
+
+    public void appointmentAdded(UUID workerId, LocalDate date, UUID appointmentId, LocalTime start, LocalTime end) {
+        Key key = new Key(workerId, date);
+        afterCommit(() -> {
+            bump(key);
+            days.computeIfPresent(key, (k, e) ->
+                    new Entry(e.schedule().withAppointment(appointmentId, start, end), e.loadedAt()));
+        });
+    }
+
+    public void appointmentRemoved(UUID workerId, LocalDate date, UUID appointmentId) {
+        Key key = new Key(workerId, date);
+        afterCommit(() -> {
+            bump(key);
+            days.computeIfPresent(key, (k, e) ->
+                    new Entry(e.schedule().withoutAppointment(appointmentId), e.loadedAt()));
+        });
+    }
+
+    public void invalidate(UUID workerId, LocalDate date) {
+        Key key = new Key(workerId, date);
+        afterCommit(() -> {
+            bump(key);
+            days.remove(key);
+        });
+    }
+
+    public void invalidateWorker(UUID workerId) {
+        afterCommit(() -> {
+            bumpAll();
+            days.keySet().removeIf(k -> k.workerId().equals(workerId));
+        });
+    }
+
+    public void invalidateProvider(UUID providerId) {
+        afterCommit(() -> {
+            bumpAll();
+            days.values().removeIf(e -> providerId.equals(e.schedule().providerId()));
+        });
+    }
+
+    private void store(Key key, DaySchedule schedule, long version) {
+        if (days.size() >= MAX_ENTRIES) {
+            evictExpired();
+            if (days.size() >= MAX_ENTRIES) return;   // still full of live entries: skip, don't wipe them
+        }
+        int stripe = stripe(key);
+        long loadedAt = System.currentTimeMillis();
+        // the check runs under the bin lock that computeIfPresent patches take, so a patch either
+        // lands on the stored entry or has already bumped the version
+        days.compute(key, (k, cur) -> versions.get(stripe) == version ? new Entry(schedule, loadedAt) : cur);
+    }
+
+    private void bump(Key key) {
+        versions.incrementAndGet(stripe(key));
+    }
+
+    private void bumpAll() {
+        for (int i = 0; i < STRIPES; i++) versions.incrementAndGet(i);
+    }
+
+    private static int stripe(Key key) {
+        return (key.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        days.entrySet().removeIf(en -> now - en.getValue().loadedAt() > TTL_MS
+                || en.getKey().date().isBefore(today));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package uz.navbatuz.backend.common;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Timers and distributions for domain hot paths.
+ * <p>
+ * {@link #timed} records a timer tagged with {@code outcome} (success, conflict, forbidden,
+ * not_found, rejected, error) plus whatever tags the body adds through its {@link Call}.
+ * Every tag a meter can carry must be passed up front with a default value, so all
+ * series of one meter share the same tag keys.
+ */
+@Component
+@RequiredArgsConstructor
+public class DomainMetrics {
+
+    public static final String OUTCOME = "outcome";
+    public static final String CATEGORY = "category";
+    public static final String UNKNOWN = "unknown";
+
+    /** Defaults for meters tagged by provider category. */
+    public static final Tags BY_CATEGORY = Tags.of(CATEGORY, UNKNOWN);
+
+    public static final String SUCCESS = "success";
+    public static final String CONFLICT = "conflict";
+    public static final String FORBIDDEN = "forbidden";
+    public static final String NOT_FOUND = "not_found";
+    public static final String REJECTED = "rejected";
+    public static final String ERROR = "error";
+
+    private final MeterRegistry registry;
+
+    /** Per-invocation tag holder handed to the timed body. */
+    public static final class Call {
+        private final Map<String, String> tags = new LinkedHashMap<>();
+        private String outcome;
+        private boolean countConflicts;
+
+        private Call(Tags defaults) {
+            for (Tag t : defaults) tags.put(t.getKey(), t.getValue());
+        }
+
+        /** Overrides a tag declared in the defaults; unknown keys are ignored. */
+        public Call tag(String key, Object value) {
+            if (tags.containsKey(key)) tags.put(key, value == null ? UNKNOWN : value.toString());
+            return this;
+        }
+
+        public Call category(Category category) {
+            return tag(CATEGORY, category == null ? null : category.name().toLowerCase());
+        }
+
+        /** Forces the outcome of a failure that the exception alone does not describe (e.g. a 400 slot clash). */
+        public Call outcome(String outcome) {
+            this.outcome = outcome;
+            return this;
+        }
+
+        /** Also record {@code <name>.conflicts} as 0/1 per call, so its mean is the conflict rate. */
+        public Call countConflicts() {
+            this.countConflicts = true;
+            return this;
+        }
+
+        private Tags tags() {
+            Tags t = Tags.empty();
+            for (var e : tags.entrySet()) t = t.and(e.getKey(), e.getValue());
+            return t;
+        }
+    }
+
+    public <T> T timed(String name, Function<Call, T> body) {
+        return timed(name, Tags.empty(), body);
+    }
+
+    public <T> T timed(String name, Tags defaults, Function<Call, T> body) {
+        Call call = new Call(defaults);
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            T result = body.apply(call);
+            finish(name, call, sample, SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            finish(name, call, sample, call.outcome != null ? call.outcome : outcome(e));
+            throw e;
+        }
+    }
+
+    public void run(String name, Tags defaults, Consumer<Call> body) {
+        timed(name, defaults, call -> {
+            body.accept(call);
+            return null;
+        });
+    }
+
+    /** Records a value (slot count, payload size, ...) into a histogram-backed distribution. */
+    public void record(String name, String baseUnit, double amount, Tags tags) {
+        DistributionSummary.builder(name)
+                .baseUnit(baseUnit)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(amount);
+    }
+
+    public static String outcome(Throwable e) {
+        if (e instanceof ResponseStatusException rse) {
+            int status = rse.getStatusCode().value();
+            if (status == 409) return CONFLICT;
+            if (status == 401 || status == 403) return FORBIDDEN;
+            if (status == 404) return NOT_FOUND;
+            return status < 500 ? REJECTED : ERROR;
+        }
+        if (e instanceof AccessDeniedException) return FORBIDDEN;
+        if (e instanceof ConcurrencyFailureException || e instanceof DataIntegrityViolationException) return CONFLICT;
+        if (e instanceof IllegalArgumentException) return REJECTED;
+        return ERROR;
+    }
+
+    private void finish(String name, Call call, Timer.Sample sample, String outcome) {
+        Tags tags = call.tags();
+        sample.stop(Timer.builder(name)
+                .tags(tags.and(OUTCOME, outcome))
+                .publishPercentileHistogram()
+                .register(registry));
+        if (call.countConflicts) {
+            record(name + ".conflicts", null, CONFLICT.equals(outcome) ? 1 : 0, tags);
+        }
+    }
+}
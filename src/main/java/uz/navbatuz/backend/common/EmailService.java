@@ -2,32 +2,37 @@ package uz.navbatuz.backend.common;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.navbatuz.backend.mail.repository.MailOutboxRepository;
 
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Queues outgoing mail in the {@code mail_outbox} table; {@code MailOutboxProcessor} delivers it.
+ * The row joins the caller's transaction, so a rolled back request sends nothing and a committed
+ * one is delivered even if the relay is down at that moment.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
-    private final JavaMailSender mailSender;
-    @Value("${app.mail.from}") private String from;
+    private final MailOutboxRepository outboxRepository;
 
-    public void sendHtml(String to, String subject, String html) {
-        try {
-            log.info("SES send start to={} subj={}", to, subject);
-            var msg = mailSender.createMimeMessage();
-            var h = new MimeMessageHelper(msg, "UTF-8");
-            h.setFrom(from);
-            h.setTo(to);
-            h.setSubject(subject);
-            h.setText(html, true);
-            mailSender.send(msg);
-            log.info("SES send ok to={}", to);
-        } catch (Exception e) {
-            log.error("SES send FAILED to={} reason={}", to, e.getMessage(), e);
-            throw new RuntimeException("EMAIL_SEND_FAILED", e);
+    /**
+     * Queues a message once per {@code idempotencyKey}; later calls with the same key are ignored.
+     *
+     * @return false if the key was already queued
+     */
+    @Transactional
+    public boolean sendHtml(String idempotencyKey, String to, String subject, String html) {
+        int queued = outboxRepository.enqueue(UUID.randomUUID(), idempotencyKey, to, subject, html, LocalDateTime.now());
+        if (queued == 0) {
+            log.debug("Mail {} already queued, skipping", idempotencyKey);
+            return false;
         }
+        log.info("Mail queued key={} to={} subj={}", idempotencyKey, to, subject);
+        return true;
     }
 }
@@ -1,5 +1,17 @@
 package uz.navbatuz.backend.common;
 
+import java.util.Locale;
+
 public enum Language {
-    UZ, RU, EN
+    UZ(new Locale("uz")), RU(new Locale("ru")), EN(Locale.ENGLISH);
+
+    private final Locale locale;
+
+    Language(Locale locale) {
+        this.locale = locale;
+    }
+
+    public Locale locale() {
+        return locale;
+    }
 }
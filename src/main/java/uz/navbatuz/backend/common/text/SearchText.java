@@ -0,0 +1,25 @@
+package uz.navbatuz.backend.common.text;
+
+import java.util.Locale;
+
+/**
+ * Text folding shared by the search paths. Database-side copies of the same rule
+ * ({@code translate(lower(x), 'ёʻʼ‘’`''', 'е')}) must be kept in sync with {@link #normalize}.
+ */
+public final class SearchText {
+    private SearchText() {}
+
+    /** Lower case, "ё" folded to "е" and the Uzbek apostrophe variants (ʻ ʼ ‘ ’ ` ') dropped. */
+    public static String normalize(String text) {
+        if (text == null) return "";
+        StringBuilder sb = new StringBuilder(text.length());
+        for (char c : text.toLowerCase(Locale.ROOT).toCharArray()) {
+            switch (c) {
+                case 'ё' -> sb.append('е');
+                case 'ʻ', 'ʼ', '‘', '’', '`', '\'' -> { }
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,134 @@
+package uz.navbatuz.backend.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates PostgreSQL-specific indexes that JPA {@code @Index} cannot express (GiST, GIN, ...).
+ * <p>
+ * Runs once the singletons are created, before the web server accepts requests. Indexes are
+ * built {@code CONCURRENTLY} in autocommit mode, so existing tables stay writable, and no
+ * statement rewrites an existing table. One node at a time does the work (advisory lock); the
+ * others start without waiting. A failure is logged and does not stop the application. Code that
+ * cannot run without an index asks {@link #isReady} and takes a slower path until it is valid.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DatabaseIndexInitializer implements SmartInitializingSingleton {
+
+    /** Trigram GIN behind {@code ProviderClientRepository.searchIndexed}. */
+    public static final String CLIENT_NAME_INDEX = "idx_provider_clients_name_norm_trgm";
+
+    private static final long LOCK_KEY = 0x4e6176626174_4944L;   // any constant shared by all nodes
+    private static final long RECHECK_MS = 60_000;
+
+    private record Ddl(String index, String sql) {
+        static Ddl statement(String sql) {
+            return new Ddl(null, sql);
+        }
+    }
+
+    private static final List<Ddl> STATEMENTS = List.of(
+            // proximity search: ST_DWithin / distance ordering on provider locations
+            new Ddl("idx_location_point_gist", "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_location_point_gist ON locations USING GIST (point)"),
+            // provider text search: weighted tsvector plus trigram indexes for misspelled names.
+            // provider_search_documents is a derived table filled after startup, so the column add is cheap.
+            Ddl.statement("CREATE EXTENSION IF NOT EXISTS pg_trgm"),
+            Ddl.statement("ALTER TABLE provider_search_documents ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS ("
+                    + "setweight(to_tsvector('simple'::regconfig, COALESCE(name_norm, '')), 'A')"
+                    + " || setweight(to_tsvector('simple'::regconfig, COALESCE(terms, '')), 'B')"
+                    + " || setweight(to_tsvector('simple'::regconfig, COALESCE(description, '')), 'D')) STORED"),
+            new Ddl("idx_provider_search_vector", "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_provider_search_vector ON provider_search_documents USING GIN (search_vector)"),
+            new Ddl("idx_provider_search_name_trgm", "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_provider_search_name_trgm ON provider_search_documents USING GIN (name_norm gin_trgm_ops)"),
+            new Ddl("idx_provider_search_terms_trgm", "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_provider_search_terms_trgm ON provider_search_documents USING GIN (terms gin_trgm_ops)"),
+            // provider client typeahead: phone prefix range scans and fuzzy name lookups per provider.
+            // The name index is on the folding expression itself: a generated column would rewrite the table.
+            // Keep it in sync with ProviderClientService.nameToken and ProviderClientRepository.searchIndexed.
+            new Ddl("idx_provider_clients_phone_pattern", "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_provider_clients_phone_pattern ON provider_clients (provider_id, phone_e164 text_pattern_ops)"),
+            Ddl.statement("CREATE EXTENSION IF NOT EXISTS btree_gin"),
+            new Ddl(CLIENT_NAME_INDEX, "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + CLIENT_NAME_INDEX + " ON provider_clients USING GIN ("
+                    + "provider_id, (translate(lower(COALESCE(name, '')), 'ёʻʼ‘’`''', 'е')) gin_trgm_ops)"),
+            // reminder scheduler: active appointments in the next day or two
+            new Ddl("idx_appointments_upcoming", "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_appointments_upcoming ON appointments (date, start_time) WHERE status IN ('BOOKED', 'RESCHEDULED')")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Set<String> ready = ConcurrentHashMap.newKeySet();
+    private volatile long checkedAt;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        createIndexes();
+    }
+
+    public void createIndexes() {
+        try {
+            // one autocommit connection: CONCURRENTLY refuses to run inside a transaction block
+            Boolean locked = jdbcTemplate.execute((Connection c) -> {
+                try (var st = c.createStatement()) {
+                    var rs = st.executeQuery("SELECT pg_try_advisory_lock(" + LOCK_KEY + ")");
+                    if (!rs.next() || !rs.getBoolean(1)) return false;
+                    try {
+                        for (Ddl ddl : STATEMENTS) run(st, ddl);
+                    } finally {
+                        st.execute("SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+                    }
+                    return true;
+                }
+            });
+            if (!Boolean.TRUE.equals(locked)) log.info("Another node is creating indexes; skipping");
+        } catch (Exception e) {
+            log.error("Index creation failed: {}", e.getMessage());
+        }
+        refresh();
+    }
+
+    /** Whether {@code index} exists and is valid; re-checked at most once a minute while it is not. */
+    public boolean isReady(String index) {
+        if (ready.contains(index)) return true;
+        if (System.currentTimeMillis() - checkedAt > RECHECK_MS) refresh();
+        return ready.contains(index);
+    }
+
+    private void run(Statement st, Ddl ddl) {
+        try {
+            if (ddl.index() != null) {
+                // an interrupted concurrent build leaves an invalid index that IF NOT EXISTS would keep
+                var rs = st.executeQuery("SELECT NOT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid"
+                        + " WHERE c.relname = '" + ddl.index() + "'");
+                if (rs.next() && rs.getBoolean(1)) {
+                    log.warn("Rebuilding invalid index {}", ddl.index());
+                    st.execute("DROP INDEX CONCURRENTLY IF EXISTS " + ddl.index());
+                }
+            }
+            st.execute(ddl.sql());
+        } catch (Exception e) {
+            log.error("Index statement failed [{}]: {}", ddl.sql(), e.getMessage());
+        }
+    }
+
+    private void refresh() {
+        checkedAt = System.currentTimeMillis();
+        try {
+            ready.addAll(jdbcTemplate.queryForList(
+                    "SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE i.indisvalid"
+                            + " AND c.relname = ANY (?)",
+                    String.class,
+                    (Object) STATEMENTS.stream().map(Ddl::index).filter(Objects::nonNull).toArray(String[]::new)));
+        } catch (Exception e) {
+            log.warn("Could not check index state: {}", e.getMessage());
+        }
+    }
+}
@@ -12,4 +12,9 @@ public class FileStorageProperties {
     private String s3Bucket;
     private String s3Region;
     private String publicBaseUrl; // CDN or S3 URL
+    private int partSizeMb = 8;        // multipart part size; smaller files go in one PUT (S3 minimum is 5)
+    private int uploadThreads = 4;     // part uploads in flight across all requests
+    private int maxBufferedParts = 8;  // part buffers on heap across all requests
+    private int variantThreads = 2;    // thumbnail/medium generation, decoding is CPU- and heap-heavy
+    private int variantQueue = 100;    // pending originals; beyond this variants are copies of the original
 }
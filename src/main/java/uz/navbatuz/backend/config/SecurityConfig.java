@@ -45,6 +45,7 @@ public class SecurityConfig {
                                 "/api/workers/free-slots/**",
                                 "/uploads/**"
                         ).permitAll()
+                        .requestMatchers("/actuator/sqlstats", "/actuator/sqlstats/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
 
@@ -6,6 +6,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uz.navbatuz.backend.customer.model.Customer;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -28,4 +30,7 @@ public interface CustomerRepository extends JpaRepository<Customer, Integer> {
 
     boolean existsByUserEmail(String email);
 
+    @Query("select c from Customer c join fetch c.user where c.id in :ids")
+    List<Customer> findAllWithUserByIdIn(@Param("ids") Collection<UUID> ids);
+
 }
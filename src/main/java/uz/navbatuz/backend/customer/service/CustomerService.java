@@ -14,6 +14,7 @@ import uz.navbatuz.backend.provider.repository.ProviderRepository;
 import uz.navbatuz.backend.user.dto.UserDetailsDTO;
 import uz.navbatuz.backend.user.model.User;
 import uz.navbatuz.backend.user.repository.UserRepository;
+import uz.navbatuz.backend.media.service.ImageVariant;
 
 import java.util.*;
 import java.util.function.Function;
@@ -105,7 +106,7 @@ public class CustomerService {
                 p.getAvgRating(),
                 p.getCategory(),
                 toSummary(p.getLocation()),
-                p.getLogoUrl()
+                ImageVariant.thumbnail(p.getLogoUrl())
         );
     }
 
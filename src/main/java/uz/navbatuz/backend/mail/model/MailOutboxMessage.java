@@ -0,0 +1,64 @@
+package uz.navbatuz.backend.mail.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Queued outgoing email. Written in the caller's transaction by {@code EmailService} and
+ * delivered by {@code MailOutboxProcessor}; {@code idempotencyKey} makes a repeated enqueue
+ * of the same logical mail (retried request, replayed event) a no-op.
+ * <p>
+ * {@code html} can carry secrets (reset codes, temporary passwords), so it is blanked as soon as
+ * the message is sent or parked; only the envelope and the last error are kept until the purge.
+ */
+@Entity
+@Table(name = "mail_outbox",
+        uniqueConstraints = @UniqueConstraint(name = "ux_mail_outbox_key", columnNames = "idempotency_key"),
+        indexes = @Index(name = "ix_mail_outbox_due", columnList = "sent_at, next_attempt_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MailOutboxMessage {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "idempotency_key", nullable = false, length = 200)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 320)
+    private String recipient;
+
+    @Column(nullable = false, length = 500)
+    private String subject;
+
+    // blanked once the message is sent or parked
+    @Column(nullable = false, columnDefinition = "text")
+    private String html;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // due time; pushed forward while a worker holds the message and on every retry
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    // set when attempts ran out; the message is no longer picked up
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
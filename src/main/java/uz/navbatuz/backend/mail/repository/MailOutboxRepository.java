@@ -0,0 +1,73 @@
+package uz.navbatuz.backend.mail.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import uz.navbatuz.backend.mail.model.MailOutboxMessage;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutboxMessage, UUID> {
+
+    /** Queues a message unless one with the same idempotency key exists; returns 1 if queued. */
+    @Modifying
+    @Query(
+            value = """
+      INSERT INTO mail_outbox (id, idempotency_key, recipient, subject, html, created_at, next_attempt_at, attempts)
+      VALUES (:id, :key, :recipient, :subject, :html, :now, :now, 0)
+      ON CONFLICT (idempotency_key) DO NOTHING
+    """,
+            nativeQuery = true
+    )
+    int enqueue(@Param("id") UUID id,
+                @Param("key") String key,
+                @Param("recipient") String recipient,
+                @Param("subject") String subject,
+                @Param("html") String html,
+                @Param("now") LocalDateTime now);
+
+    /**
+     * Locks up to {@code limit} due messages, oldest first. Rows held by another node are
+     * skipped; the caller leases them with {@link #lease} in the same transaction.
+     */
+    @Query(
+            value = """
+      SELECT *
+      FROM mail_outbox
+      WHERE sent_at IS NULL
+        AND failed_at IS NULL
+        AND next_attempt_at <= :now
+      ORDER BY next_attempt_at
+      LIMIT :limit
+      FOR UPDATE SKIP LOCKED
+    """,
+            nativeQuery = true
+    )
+    List<MailOutboxMessage> claimDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /** Hides claimed messages from other pollers until {@code until}; a crashed worker's lease just runs out. */
+    @Modifying
+    @Query("update MailOutboxMessage m set m.nextAttemptAt = :until, m.attempts = m.attempts + 1 where m.id in :ids")
+    int lease(@Param("ids") Collection<UUID> ids, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("update MailOutboxMessage m set m.sentAt = :now, m.lastError = null, m.html = '' where m.id in :ids")
+    int markSent(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update MailOutboxMessage m set m.nextAttemptAt = :retryAt, m.lastError = :error where m.id = :id")
+    int markRetry(@Param("id") UUID id, @Param("retryAt") LocalDateTime retryAt, @Param("error") String error);
+
+    @Modifying
+    @Query("update MailOutboxMessage m set m.failedAt = :now, m.lastError = :error, m.html = '' where m.id = :id")
+    int markFailed(@Param("id") UUID id, @Param("now") LocalDateTime now, @Param("error") String error);
+
+    /** Removes sent and parked messages that reached that state before {@code cutoff}. */
+    @Modifying
+    @Query("delete from MailOutboxMessage m where m.sentAt < :cutoff or m.failedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
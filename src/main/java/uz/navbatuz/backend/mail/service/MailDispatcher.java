@@ -0,0 +1,88 @@
+package uz.navbatuz.backend.mail.service;
+
+import io.micrometer.core.instrument.Tags;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import uz.navbatuz.backend.common.DomainMetrics;
+
+import java.util.*;
+
+/**
+ * Sends a chunk of queued messages through {@link JavaMailSender#send(MimeMessage...)}, which
+ * opens one SMTP connection for the whole chunk instead of one per message. Per-message
+ * failures reported by the relay are returned by id so only those are retried.
+ */
+@Slf4j
+@Component
+public class MailDispatcher {
+
+    public record Outgoing(UUID id, String to, String subject, String html) {}
+
+    private static final Tags BY_BATCH = Tags.of("batch", "single");
+
+    private final JavaMailSender mailSender;
+    private final DomainMetrics metrics;
+    private final String from;
+
+    public MailDispatcher(JavaMailSender mailSender, DomainMetrics metrics, @Value("${app.mail.from}") String from) {
+        this.mailSender = mailSender;
+        this.metrics = metrics;
+        this.from = from;
+    }
+
+    /** @return the messages that were not accepted, with the reason; empty when all went out */
+    public Map<UUID, Exception> send(List<Outgoing> chunk) {
+        Map<UUID, Exception> failed = new HashMap<>();
+        // MimeMessage keeps identity equals; linked so the relay sees the queue order
+        Map<MimeMessage, UUID> ids = new LinkedHashMap<>();
+        for (Outgoing o : chunk) {
+            try {
+                ids.put(toMime(o), o.id());
+            } catch (MessagingException | RuntimeException e) {
+                failed.put(o.id(), e); // bad address or content: the relay will not take it either
+            }
+        }
+        if (ids.isEmpty()) return failed;
+
+        metrics.run("email.send", BY_BATCH, call -> {
+            call.tag("batch", ids.size() == 1 ? "single" : "multi");
+            try {
+                mailSender.send(ids.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                call.outcome(DomainMetrics.ERROR);
+                if (e.getFailedMessages().isEmpty()) {
+                    ids.values().forEach(id -> failed.put(id, e));
+                } else {
+                    e.getFailedMessages().forEach((msg, ex) -> {
+                        UUID id = ids.get(msg);
+                        if (id != null) failed.put(id, ex);
+                    });
+                }
+            } catch (MailException e) {
+                call.outcome(DomainMetrics.ERROR);
+                ids.values().forEach(id -> failed.put(id, e));
+            }
+        });
+        if (!failed.isEmpty()) {
+            log.warn("SMTP chunk of {} messages: {} failed", chunk.size(), failed.size());
+        }
+        return failed;
+    }
+
+    private MimeMessage toMime(Outgoing o) throws MessagingException {
+        MimeMessage msg = mailSender.createMimeMessage();
+        MimeMessageHelper h = new MimeMessageHelper(msg, "UTF-8");
+        h.setFrom(from);
+        h.setTo(o.to());
+        h.setSubject(o.subject());
+        h.setText(o.html(), true);
+        return msg;
+    }
+}
@@ -0,0 +1,185 @@
+package uz.navbatuz.backend.mail.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.navbatuz.backend.mail.model.MailOutboxMessage;
+import uz.navbatuz.backend.mail.repository.MailOutboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Delivers the mail outbox off the request path.
+ * <p>
+ * Each poll claims as many due messages as the worker pool has room for ({@code SKIP LOCKED},
+ * so several nodes can poll) and leases them by pushing {@code next_attempt_at} past the send
+ * timeout. Workers send chunks over one SMTP connection each and then mark the messages sent or
+ * schedule a retry with exponential backoff; a message that fails {@code max-attempts} times is
+ * parked with its last error. A worker that dies mid-send simply lets its lease expire.
+ * Sent and parked rows lose their body right away and are deleted after {@value #RETENTION_DAYS} days.
+ */
+@Slf4j
+@Component
+public class MailOutboxProcessor {
+
+    private static final Duration LEASE = Duration.ofMinutes(2);
+    private static final Duration FIRST_RETRY = Duration.ofSeconds(30);
+    private static final Duration MAX_RETRY = Duration.ofHours(1);
+    private static final int RETENTION_DAYS = 7;
+
+    private final MailOutboxRepository outboxRepository;
+    private final MailDispatcher dispatcher;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+    private final int maxAttempts;
+    private final ThreadPoolExecutor workers;
+
+    private final Timer deliveryLatency;
+    private final Counter retried;
+    private final Counter parked;
+
+    public MailOutboxProcessor(MailOutboxRepository outboxRepository,
+                               MailDispatcher dispatcher,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.mail.outbox.workers:4}") int workerCount,
+                               @Value("${app.mail.outbox.chunk-size:20}") int chunkSize,
+                               @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts) {
+        this.outboxRepository = outboxRepository;
+        this.dispatcher = dispatcher;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxAttempts = maxAttempts;
+        // no queue: a poll only claims what idle workers can take right now
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), r -> {
+                    Thread t = new Thread(r, "mail-outbox");
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.workers.prestartAllCoreThreads();
+
+        this.deliveryLatency = Timer.builder("email.delivery.latency")
+                .description("Time from enqueue to the relay accepting the message")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.retried = Counter.builder("email.delivery.failures")
+                .tag("final", "false")
+                .description("Failed delivery attempts")
+                .register(meterRegistry);
+        this.parked = Counter.builder("email.delivery.failures")
+                .tag("final", "true")
+                .description("Failed delivery attempts")
+                .register(meterRegistry);
+        Gauge.builder("email.outbox.busy.workers", workers, ThreadPoolExecutor::getActiveCount)
+                .description("Mail outbox workers currently sending")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-ms:1000}")
+    public void poll() {
+        int idle = workers.getMaximumPoolSize() - workers.getActiveCount();
+        if (idle <= 0) return;
+
+        List<MailOutboxMessage> claimed = claim(idle * chunkSize);
+        for (int from = 0; from < claimed.size(); from += chunkSize) {
+            List<MailOutboxMessage> chunk = claimed.subList(from, Math.min(from + chunkSize, claimed.size()));
+            try {
+                workers.execute(() -> deliver(chunk));
+            } catch (RejectedExecutionException e) {
+                // pool filled up between the check and now: the lease expires and the chunk is picked up again
+                log.debug("Mail worker pool busy, {} messages wait for their lease to expire", chunk.size());
+            }
+        }
+    }
+
+    List<MailOutboxMessage> claim(int limit) {
+        List<MailOutboxMessage> rows = tx.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<MailOutboxMessage> due = outboxRepository.claimDue(now, limit);
+            if (!due.isEmpty()) {
+                outboxRepository.lease(due.stream().map(MailOutboxMessage::getId).toList(), now.plus(LEASE));
+            }
+            return due;
+        });
+        return rows == null ? List.of() : rows;
+    }
+
+    void deliver(List<MailOutboxMessage> chunk) {
+        Map<UUID, Exception> failed;
+        try {
+            failed = dispatcher.send(chunk.stream()
+                    .map(m -> new MailDispatcher.Outgoing(m.getId(), m.getRecipient(), m.getSubject(), m.getHtml()))
+                    .toList());
+        } catch (RuntimeException e) {
+            failed = new HashMap<>();
+            for (MailOutboxMessage m : chunk) failed.put(m.getId(), e);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> sent = new ArrayList<>();
+        for (MailOutboxMessage m : chunk) {
+            if (!failed.containsKey(m.getId())) {
+                sent.add(m.getId());
+                deliveryLatency.record(Duration.between(m.getCreatedAt(), now));
+            }
+        }
+        Map<UUID, Exception> failures = failed;
+        tx.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) outboxRepository.markSent(sent, now);
+            for (MailOutboxMessage m : chunk) {
+                Exception e = failures.get(m.getId());
+                if (e == null) continue;
+                // attempts was bumped by the lease, so it counts this try
+                int attempts = m.getAttempts() + 1;
+                String error = truncate(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+                if (attempts >= maxAttempts) {
+                    parked.increment();
+                    log.error("Mail {} to {} parked after {} attempts: {}", m.getId(), m.getRecipient(), attempts, error);
+                    outboxRepository.markFailed(m.getId(), now, error);
+                } else {
+                    retried.increment();
+                    outboxRepository.markRetry(m.getId(), now.plus(backoff(attempts)), error);
+                }
+            }
+        });
+    }
+
+    /** 30s, 1m, 2m, ... capped at an hour, with up to 20% jitter so a relay outage does not retry in lockstep. */
+    static Duration backoff(int attempts) {
+        long base = FIRST_RETRY.toMillis() << Math.min(attempts - 1, 16);
+        long capped = Math.min(base, MAX_RETRY.toMillis());
+        long jitter = (long) (capped * 0.2 * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(capped + jitter);
+    }
+
+    @Scheduled(cron = "${app.mail.outbox.purge-cron:0 40 3 * * *}")
+    public void purgeFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(RETENTION_DAYS);
+        Integer removed = tx.execute(status -> outboxRepository.deleteFinishedBefore(cutoff));
+        if (removed != null && removed > 0) {
+            log.info("Purged {} sent or parked mail outbox messages", removed);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static String truncate(String s) {
+        return s.length() > 500 ? s.substring(0, 500) : s;
+    }
+}
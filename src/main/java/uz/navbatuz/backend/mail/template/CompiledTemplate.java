@@ -0,0 +1,154 @@
+package uz.navbatuz.backend.mail.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A mail template with its messages already resolved for one language: fixed text chunks
+ * alternating with slot references. Rendering only appends into the caller's buffer.
+ * <p>
+ * Source syntax: {@code {{name}}} is a slot, {@code {{msg:key}}} inlines a bundle message and
+ * {@code {{msg:key|a,b}}} inlines a message whose {@code {0}}, {@code {1}} are slots a and b.
+ * Messages with arguments follow {@link java.text.MessageFormat} quoting ({@code ''} for an
+ * apostrophe), messages without are taken verbatim, the same as {@code MessageSource} does.
+ */
+final class CompiledTemplate {
+
+    private final String[] text;   // text[i] comes before slot[i]; one more text than slots
+    private final int[] slot;
+    private final boolean html;
+
+    private CompiledTemplate(String[] text, int[] slot, boolean html) {
+        this.text = text;
+        this.slot = slot;
+        this.html = html;
+    }
+
+    /**
+     * @param slots    slot names, in the order values are passed to {@link #renderTo}
+     * @param messages resolves a bundle key to its raw pattern
+     * @param html     whether slot values are HTML-escaped on render
+     */
+    static CompiledTemplate compile(String source, List<String> slots, Function<String, String> messages, boolean html) {
+        Builder b = new Builder();
+        int at = 0;
+        while (true) {
+            int open = source.indexOf("{{", at);
+            if (open < 0) break;
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) throw new IllegalArgumentException("Unclosed {{ at " + open);
+            b.literal(source, at, open);
+            String tag = source.substring(open + 2, close).trim();
+            if (tag.startsWith("msg:")) {
+                inlineMessage(b, tag.substring(4), slots, messages);
+            } else {
+                b.slot(indexOf(slots, tag));
+            }
+            at = close + 2;
+        }
+        b.literal(source, at, source.length());
+        return b.build(html);
+    }
+
+    void renderTo(StringBuilder out, String[] values) {
+        for (int i = 0; i < slot.length; i++) {
+            out.append(text[i]);
+            String v = values[slot[i]];
+            if (v == null) continue;
+            if (html) escapeTo(out, v);
+            else out.append(v);
+        }
+        out.append(text[slot.length]);
+    }
+
+    /* ---------------- compile helpers ---------------- */
+
+    private static void inlineMessage(Builder b, String spec, List<String> slots, Function<String, String> messages) {
+        int bar = spec.indexOf('|');
+        String key = (bar < 0 ? spec : spec.substring(0, bar)).trim();
+        String pattern = messages.apply(key);
+        if (bar < 0) {
+            b.literal(pattern, 0, pattern.length());
+            return;
+        }
+        String[] argNames = spec.substring(bar + 1).split(",");
+        int[] args = new int[argNames.length];
+        for (int i = 0; i < argNames.length; i++) args[i] = indexOf(slots, argNames[i].trim());
+
+        // MessageFormat subset: '' is a quote, '...' is literal, {n} or {n,...} is argument n
+        StringBuilder lit = new StringBuilder();
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                    lit.append('\'');
+                    i += 2;
+                } else {
+                    int end = pattern.indexOf('\'', i + 1);
+                    if (end < 0) end = pattern.length();
+                    lit.append(pattern, i + 1, end);
+                    i = end + 1;
+                }
+            } else if (c == '{') {
+                int end = pattern.indexOf('}', i);
+                if (end < 0) throw new IllegalArgumentException("Unclosed argument in message " + key);
+                String ref = pattern.substring(i + 1, end);
+                int comma = ref.indexOf(',');
+                int n = Integer.parseInt((comma < 0 ? ref : ref.substring(0, comma)).trim());
+                if (n >= args.length) throw new IllegalArgumentException("Message " + key + " uses {" + n + "} but has " + args.length + " arguments");
+                b.literal(lit, 0, lit.length());
+                lit.setLength(0);
+                b.slot(args[n]);
+                i = end + 1;
+            } else {
+                lit.append(c);
+                i++;
+            }
+        }
+        b.literal(lit, 0, lit.length());
+    }
+
+    private static int indexOf(List<String> slots, String name) {
+        int i = slots.indexOf(name);
+        if (i < 0) throw new IllegalArgumentException("Unknown slot " + name);
+        return i;
+    }
+
+    static void escapeTo(StringBuilder out, String s) {
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static final class Builder {
+        private final List<String> text = new ArrayList<>();
+        private final List<Integer> slots = new ArrayList<>();
+        private final StringBuilder pending = new StringBuilder();
+
+        void literal(CharSequence s, int from, int to) {
+            pending.append(s, from, to);
+        }
+
+        void slot(int index) {
+            text.add(pending.toString());
+            pending.setLength(0);
+            slots.add(index);
+        }
+
+        CompiledTemplate build(boolean html) {
+            text.add(pending.toString());
+            return new CompiledTemplate(text.toArray(new String[0]),
+                    slots.stream().mapToInt(Integer::intValue).toArray(), html);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package uz.navbatuz.backend.mail.template;
+
+import java.util.List;
+
+/**
+ * Email templates. Bodies live in {@code classpath:mail/<file>}; values are passed to
+ * {@link MailTemplateService#render} in {@link #slots} order.
+ */
+public enum MailTemplate {
+
+    STAFF_INVITE("{{msg:mail.invite.subject}}", "staff-invite.html",
+            "name", "role", "email", "password", "loginUrl"),
+
+    PASSWORD_RESET("{{msg:mail.reset.subject}}", "password-reset.html",
+            "code", "link"),
+
+    REVIEW_PROMPT("{{msg:review.prompt.subject|provider}}", "review-prompt.html",
+            "name", "provider", "link"),
+
+    APPOINTMENT_REMINDER("{{msg:mail.reminder.subject|provider,when}}", "appointment-reminder.html",
+            "name", "provider", "service", "worker", "when", "link");
+
+    private final String subject;
+    private final String bodyFile;
+    private final List<String> slots;
+
+    MailTemplate(String subject, String bodyFile, String... slots) {
+        this.subject = subject;
+        this.bodyFile = bodyFile;
+        this.slots = List.of(slots);
+    }
+
+    String subject() {
+        return subject;
+    }
+
+    String bodyFile() {
+        return bodyFile;
+    }
+
+    public List<String> slots() {
+        return slots;
+    }
+}
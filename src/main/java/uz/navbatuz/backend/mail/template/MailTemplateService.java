@@ -0,0 +1,75 @@
+package uz.navbatuz.backend.mail.template;
+
+import org.springframework.context.MessageSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import uz.navbatuz.backend.common.Language;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Renders {@link MailTemplate}s. Every template is compiled once per {@link Language} at
+ * startup, with its bundle messages inlined, so a render is a few appends into a per-thread
+ * buffer and no {@code MessageSource} lookups. A missing message key fails startup instead of
+ * the first send.
+ */
+@Service
+public class MailTemplateService {
+
+    private static final int MAX_KEPT_BUFFER = 64 * 1024;
+
+    private record Compiled(CompiledTemplate subject, CompiledTemplate body) {}
+
+    private final Map<MailTemplate, Map<Language, Compiled>> compiled = new EnumMap<>(MailTemplate.class);
+    private final ThreadLocal<StringBuilder> buffer = ThreadLocal.withInitial(() -> new StringBuilder(2048));
+
+    public MailTemplateService(MessageSource messageSource) {
+        for (MailTemplate t : MailTemplate.values()) {
+            String body = read("mail/" + t.bodyFile());
+            Map<Language, Compiled> byLanguage = new EnumMap<>(Language.class);
+            for (Language lang : Language.values()) {
+                // null args: the raw pattern, MessageFormat quoting is handled by the compiler
+                Function<String, String> messages = key -> messageSource.getMessage(key, null, lang.locale());
+                byLanguage.put(lang, new Compiled(
+                        CompiledTemplate.compile(t.subject(), t.slots(), messages, false),
+                        CompiledTemplate.compile(body, t.slots(), messages, true)));
+            }
+            compiled.put(t, byLanguage);
+        }
+    }
+
+    /**
+     * @param language recipient language; null falls back to Russian like the rest of the app
+     * @param values   one per {@link MailTemplate#slots()}, in order; nulls render as empty
+     */
+    public RenderedMail render(MailTemplate template, Language language, String... values) {
+        if (values.length != template.slots().size()) {
+            throw new IllegalArgumentException(template + " expects " + template.slots() + " but got " + values.length + " values");
+        }
+        Compiled c = compiled.get(template).get(language == null ? Language.RU : language);
+        StringBuilder out = buffer.get();
+        try {
+            out.setLength(0);
+            c.subject().renderTo(out, values);
+            String subject = out.toString();
+            out.setLength(0);
+            c.body().renderTo(out, values);
+            return new RenderedMail(subject, out.toString());
+        } finally {
+            if (out.capacity() > MAX_KEPT_BUFFER) buffer.remove();
+        }
+    }
+
+    private static String read(String path) {
+        try (var in = new ClassPathResource(path).getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Mail template " + path + " not found", e);
+        }
+    }
+}
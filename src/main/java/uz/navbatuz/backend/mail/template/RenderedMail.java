@@ -0,0 +1,3 @@
+package uz.navbatuz.backend.mail.template;
+
+public record RenderedMail(String subject, String html) {}
@@ -1,8 +1,12 @@
 package uz.navbatuz.backend.media.dto;
 
+import java.util.Map;
+
 public record UploadedFile(
         String url,           // full public URL (e.g. http://localhost:8080/uploads/... )
         String path,          // relative web path (e.g. /uploads/... )
         String contentType,
-        long size
+        long size,
+        String sha256,        // content hash, also the file name
+        Map<String, String> variants  // "thumb"/"md" -> URL of the downscaled copy
 ) {}
@@ -0,0 +1,216 @@
+package uz.navbatuz.backend.media.service;
+
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+import uz.navbatuz.backend.common.DomainMetrics;
+import uz.navbatuz.backend.config.FileStorageProperties;
+
+import javax.imageio.*;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates {@link ImageVariant}s for stored images on a small background pool.
+ * <p>
+ * The original is read back from S3 and decoded with source subsampling, so a 12 MP photo is
+ * decoded at roughly twice the largest variant instead of full size. Each variant is a JPEG
+ * (quality {@value #JPEG_QUALITY}) or, for PNGs that may carry transparency, a PNG.
+ * <p>
+ * Before an upload returns, {@link #prepare} copies the original to the variant keys server-side
+ * with a short cache lifetime, so list URLs resolve right away. The resized files replace those
+ * placeholders with immutable caching. A job lost to a full queue, a restart or an S3 error
+ * leaves the placeholder in place, and {@link #ensureReady} resubmits it when the same image is
+ * uploaded again. Images that cannot be decoded (too large, corrupt) get a permanent copy of the
+ * original instead.
+ */
+@Slf4j
+@Service
+public class ImageDerivativeService {
+
+    private static final float JPEG_QUALITY = 0.82f;
+    private static final long MAX_PIXELS = 50_000_000L;
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+    private static final String PLACEHOLDER_CACHE_CONTROL = "public, max-age=300";
+
+    private final S3Client s3;
+    private final DomainMetrics metrics;
+    private final String bucket;
+    private final ThreadPoolExecutor pool;
+
+    public ImageDerivativeService(S3Client s3, DomainMetrics metrics, FileStorageProperties props) {
+        this.s3 = s3;
+        this.metrics = metrics;
+        this.bucket = props.getS3Bucket();
+        int threads = Math.max(1, props.getVariantThreads());
+        AtomicInteger n = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(props.getVariantQueue()), r -> {
+                    Thread t = new Thread(r, "image-variants-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * For a newly stored original: writes placeholder variants, then queues the resize.
+     *
+     * @throws software.amazon.awssdk.core.exception.SdkException if the placeholders cannot be written
+     */
+    public void prepare(String key, String contentType) {
+        copyOriginal(key, contentType, PLACEHOLDER_CACHE_CONTROL);
+        submit(key, contentType);
+    }
+
+    /** For an original stored earlier: repairs variants that are missing or still placeholders. */
+    public void ensureReady(String key, String contentType) {
+        String cacheControl;
+        try {
+            cacheControl = s3.headObject(HeadObjectRequest.builder()
+                    .bucket(bucket).key(ImageVariant.THUMB.of(key)).build()).cacheControl();
+        } catch (NoSuchKeyException e) {
+            prepare(key, contentType);
+            return;
+        }
+        if (!CACHE_CONTROL.equals(cacheControl)) submit(key, contentType);
+    }
+
+    private void submit(String key, String contentType) {
+        try {
+            pool.execute(() -> generate(key, contentType));
+        } catch (RejectedExecutionException e) {
+            log.warn("Image variant queue full, serving placeholders for {}", key);
+        }
+    }
+
+    void generate(String key, String contentType) {
+        Tags tags = Tags.of("result", "resized");
+        try {
+            metrics.run("storage.variants", tags, call -> {
+                if (!resize(key, contentType)) {
+                    call.tag("result", "original");
+                    copyOriginal(key, contentType, CACHE_CONTROL);
+                }
+            });
+        } catch (RuntimeException e) {
+            // placeholders stay; the next upload of the same image retries
+            log.warn("Image variants for {} failed: {}", key, e.getMessage());
+        }
+    }
+
+    /** @return false if the image is not worth decoding; the caller falls back to the original */
+    private boolean resize(String key, String contentType) {
+        boolean png = "image/png".equals(contentType);
+        BufferedImage source;
+        try (ResponseInputStream<GetObjectResponse> in = s3.getObject(GetObjectRequest.builder().bucket(bucket).key(key).build());
+             ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            source = decode(iis, ImageVariant.MEDIUM.maxSide() * 2);
+        } catch (IOException e) {
+            log.info("Cannot decode {}: {}", key, e.getMessage());
+            return false;
+        }
+        if (source == null) return false;
+
+        for (ImageVariant v : ImageVariant.values()) {
+            BufferedImage scaled = scale(source, v.maxSide(), png);
+            byte[] bytes = encode(scaled, png);
+            s3.putObject(PutObjectRequest.builder()
+                            .bucket(bucket).key(v.of(key))
+                            .contentType(contentType)
+                            .cacheControl(CACHE_CONTROL)
+                            .build(),
+                    RequestBody.fromBytes(bytes));
+        }
+        return true;
+    }
+
+    /** Decodes at the smallest integer subsampling that keeps the long side at least {@code minSide}. */
+    static BufferedImage decode(ImageInputStream iis, int minSide) throws IOException {
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+        if (!readers.hasNext()) return null;
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(iis, true, true);
+            int w = reader.getWidth(0);
+            int h = reader.getHeight(0);
+            if ((long) w * h > MAX_PIXELS) return null;
+            int step = Math.max(1, Math.max(w, h) / minSide);
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceSubsampling(step, step, 0, 0);
+            return reader.read(0, param);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    static BufferedImage scale(BufferedImage src, int maxSide, boolean keepAlpha) {
+        int w = src.getWidth();
+        int h = src.getHeight();
+        double f = Math.min(1.0, (double) maxSide / Math.max(w, h));
+        int tw = Math.max(1, (int) Math.round(w * f));
+        int th = Math.max(1, (int) Math.round(h * f));
+        BufferedImage out = new BufferedImage(tw, th, keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            if (!keepAlpha) {
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, tw, th);
+            }
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(src, 0, 0, tw, th, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    static byte[] encode(BufferedImage img, boolean png) {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(16 * 1024);
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(png ? "png" : "jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(buf)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (!png) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            }
+            writer.write(null, new IIOImage(img, null, null), param);
+        } catch (IOException e) {
+            throw new IllegalStateException("Encode failed", e);
+        } finally {
+            writer.dispose();
+        }
+        return buf.toByteArray();
+    }
+
+    private void copyOriginal(String key, String contentType, String cacheControl) {
+        for (ImageVariant v : ImageVariant.values()) {
+            s3.copyObject(CopyObjectRequest.builder()
+                    .sourceBucket(bucket).sourceKey(key)
+                    .destinationBucket(bucket).destinationKey(v.of(key))
+                    .metadataDirective(MetadataDirective.REPLACE)
+                    .contentType(contentType)
+                    .cacheControl(cacheControl)
+                    .build());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+}
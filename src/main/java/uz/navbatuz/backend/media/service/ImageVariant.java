@@ -0,0 +1,56 @@
+package uz.navbatuz.backend.media.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Downscaled copies generated for every stored image, next to the original:
+ * {@code <sha256>.jpg} gets {@code <sha256>_thumb.jpg} and {@code <sha256>_md.jpg}.
+ * Keys are derived from the original, so any original URL maps to its variant URLs without a
+ * lookup. URLs that are not content-addressed uploads (older files, external links) map to
+ * themselves.
+ */
+public enum ImageVariant {
+    THUMB("thumb", 128),
+    MEDIUM("md", 640);
+
+    private static final Pattern STORED = Pattern.compile("^(.*/[0-9a-f]{64})(\\.(?:png|jpg))$");
+
+    private final String suffix;
+    private final int maxSide;
+
+    ImageVariant(String suffix, int maxSide) {
+        this.suffix = suffix;
+        this.maxSide = maxSide;
+    }
+
+    public String suffix() {
+        return suffix;
+    }
+
+    /** Longest side in pixels; smaller images are not upscaled. */
+    public int maxSide() {
+        return maxSide;
+    }
+
+    /** The variant's key or URL for an original key or URL. */
+    public String of(String original) {
+        if (original == null) return null;
+        Matcher m = STORED.matcher(original);
+        return m.matches() ? m.group(1) + "_" + suffix + m.group(2) : original;
+    }
+
+    /** What list endpoints show instead of the original. */
+    public static String thumbnail(String original) {
+        return THUMB.of(original);
+    }
+
+    /** Variant name to URL, for upload responses. */
+    public static Map<String, String> urls(String original) {
+        Map<String, String> out = new LinkedHashMap<>();
+        for (ImageVariant v : values()) out.put(v.suffix, v.of(original));
+        return out;
+    }
+}
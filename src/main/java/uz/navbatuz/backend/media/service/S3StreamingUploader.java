@@ -0,0 +1,219 @@
+package uz.navbatuz.backend.media.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+import uz.navbatuz.backend.config.FileStorageProperties;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams request bodies to S3 and hashes them (SHA-256) on the way.
+ * <p>
+ * Bodies up to one part go in a single PUT read straight from the source stream. Larger ones
+ * are read into part buffers and uploaded as multipart on a fixed transfer pool. Buffers come
+ * from a shared pool of {@code max-buffered-parts}, so heap use is bounded no matter how many
+ * uploads run at once; when the pool is empty, readers wait for a part upload to finish.
+ */
+@Slf4j
+@Component
+public class S3StreamingUploader {
+
+    public record Result(String sha256, long size) {}
+
+    private static final int RETRY_BUFFER = 128 * 1024;
+
+    private final S3Client s3;
+    private final int partSize;
+    private final int maxBuffers;
+    private final ExecutorService transfers;
+    private final BlockingQueue<byte[]> freeBuffers;
+    private final AtomicInteger allocatedBuffers = new AtomicInteger();
+
+    public S3StreamingUploader(S3Client s3, FileStorageProperties props) {
+        this.s3 = s3;
+        this.partSize = Math.max(5, props.getPartSizeMb()) * 1024 * 1024;
+        this.maxBuffers = Math.max(1, props.getMaxBufferedParts());
+        this.freeBuffers = new ArrayBlockingQueue<>(maxBuffers);
+        AtomicInteger n = new AtomicInteger();
+        this.transfers = Executors.newFixedThreadPool(Math.max(1, props.getUploadThreads()), r -> {
+            Thread t = new Thread(r, "s3-upload-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Uploads {@code size} bytes from {@code in} to {@code key}; does not close {@code in}.
+     *
+     * @throws IOException if the source fails or does not hold exactly {@code size} bytes
+     */
+    public Result upload(String bucket, String key, String contentType, String cacheControl,
+                         InputStream in, long size) throws IOException {
+        HashingInputStream body = new HashingInputStream(in);
+        if (size <= partSize) {
+            s3.putObject(PutObjectRequest.builder()
+                            .bucket(bucket).key(key)
+                            .contentType(contentType).cacheControl(cacheControl)
+                            .contentLength(size)
+                            .build(),
+                    // the SDK marks and resets this wrapper for retries; the digest below sees each byte once
+                    RequestBody.fromInputStream(new BufferedInputStream(body, RETRY_BUFFER), size));
+        } else {
+            uploadMultipart(bucket, key, contentType, cacheControl, body);
+        }
+        if (body.count != size) {
+            throw new IOException("Expected " + size + " bytes, read " + body.count);
+        }
+        return new Result(HexFormat.of().formatHex(body.digest.digest()), size);
+    }
+
+    private void uploadMultipart(String bucket, String key, String contentType, String cacheControl,
+                                 InputStream body) throws IOException {
+        String uploadId = s3.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket).key(key)
+                .contentType(contentType).cacheControl(cacheControl)
+                .build()).uploadId();
+        List<Future<CompletedPart>> parts = new ArrayList<>();
+        try {
+            for (int partNumber = 1; ; partNumber++) {
+                byte[] buf = acquireBuffer();
+                int n;
+                try {
+                    n = body.readNBytes(buf, 0, buf.length);
+                } catch (IOException | RuntimeException e) {
+                    freeBuffers.offer(buf);
+                    throw e;
+                }
+                if (n == 0) {
+                    freeBuffers.offer(buf);
+                    break;
+                }
+                int number = partNumber;
+                parts.add(transfers.submit(() -> uploadPart(bucket, key, uploadId, number, buf, n)));
+                if (n < buf.length) break;
+            }
+            List<CompletedPart> completed = new ArrayList<>(parts.size());
+            for (Future<CompletedPart> f : parts) completed.add(f.get());
+            s3.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket).key(key).uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completed).build())
+                    .build());
+        } catch (Exception e) {
+            // let submitted parts finish rather than cancel them: each one returns its buffer to the pool
+            for (Future<CompletedPart> f : parts) {
+                try {
+                    f.get();
+                } catch (Exception ignored) {
+                    // already failing
+                }
+            }
+            abortQuietly(bucket, key, uploadId);
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            if (e instanceof IOException io) throw io;
+            if (e instanceof ExecutionException ee && ee.getCause() instanceof RuntimeException re) throw re;
+            throw new IOException("Multipart upload of " + key + " failed", e);
+        }
+    }
+
+    private CompletedPart uploadPart(String bucket, String key, String uploadId, int number, byte[] buf, int n) {
+        try {
+            // content provider instead of fromBytes: no defensive copy, and retries re-read the buffer
+            UploadPartResponse r = s3.uploadPart(UploadPartRequest.builder()
+                            .bucket(bucket).key(key).uploadId(uploadId)
+                            .partNumber(number).contentLength((long) n)
+                            .build(),
+                    RequestBody.fromContentProvider(() -> new ByteArrayInputStream(buf, 0, n), n, "application/octet-stream"));
+            return CompletedPart.builder().partNumber(number).eTag(r.eTag()).build();
+        } finally {
+            freeBuffers.offer(buf);
+        }
+    }
+
+    private byte[] acquireBuffer() throws IOException {
+        byte[] buf = freeBuffers.poll();
+        if (buf != null) return buf;
+        if (allocatedBuffers.getAndUpdate(a -> a < maxBuffers ? a + 1 : a) < maxBuffers) {
+            return new byte[partSize];
+        }
+        try {
+            return freeBuffers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for an upload buffer", e);
+        }
+    }
+
+    private void abortQuietly(String bucket, String key, String uploadId) {
+        try {
+            s3.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket).key(key).uploadId(uploadId).build());
+        } catch (Exception e) {
+            log.warn("Abort of multipart upload {} for {} failed: {}", uploadId, key, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        transfers.shutdown();
+    }
+
+    /** Digests and counts every byte read; rewinding is left to a buffer on top of it. */
+    private static final class HashingInputStream extends FilterInputStream {
+        final MessageDigest digest;
+        long count;
+
+        HashingInputStream(InputStream in) {
+            super(in);
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                digest.update((byte) b);
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                digest.update(b, off, n);
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            return 0; // every byte has to go through the digest
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -1,27 +1,42 @@
 package uz.navbatuz.backend.media.service;
 
+import io.micrometer.core.instrument.Tags;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
-import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import uz.navbatuz.backend.common.DomainMetrics;
 import uz.navbatuz.backend.config.FileStorageProperties;
 import uz.navbatuz.backend.media.dto.UploadedFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.util.Locale;
 import java.util.UUID;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class StorageService {
 
     private final FileStorageProperties props;
     private final S3Client s3;
+    private final S3StreamingUploader uploader;
+    private final DomainMetrics metrics;
+    private final ImageDerivativeService derivatives;
+
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+    private static final String STAGING_PREFIX = "tmp/";   // expire with a bucket lifecycle rule
+    private static final int SNIFF_BYTES = 8;
 
     public static final String SCOPE_PROVIDER = "provider";
     public static final String SCOPE_SERVICE  = "service";
@@ -29,54 +44,95 @@ public class StorageService {
     public static final String SCOPE_MISC     = "misc";
 
     public UploadedFile store(MultipartFile file, String scope, String ownerId) {
+        Tags tags = Tags.of("scope", metricScope(scope));
+        UploadedFile stored = metrics.timed("storage.store", tags.and("dedup", "miss"), call -> upload(file, scope, ownerId, call));
+        metrics.record("storage.store.bytes", "bytes", stored.size(), tags);
+        return stored;
+    }
+
+    private UploadedFile upload(MultipartFile file, String scope, String ownerId, DomainMetrics.Call call) {
         if (file == null || file.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Empty file");
         }
 
-        // --- validate type + extension ---
-        String contentType = normalize(file.getContentType());
-        String ext = switch (contentType) {
-            case "image/png" -> ".png";
-            case "image/jpeg", "image/jpg" -> ".jpg";
-            default -> {
-                if (isPng(file))      yield ".png";
-                else if (isJpeg(file)) yield ".jpg";
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only PNG/JPEG are allowed");
-            }
-        };
-
         String safeScope = (scope == null || scope.isBlank())
                 ? SCOPE_MISC : scope.toLowerCase(Locale.ROOT);
         String subdir = (ownerId != null && !ownerId.isBlank())
                 ? safeScope + "/" + ownerId : safeScope;
 
-        String filename = UUID.randomUUID() + ext;
-        String key = subdir + "/" + filename;
+        String contentType = normalize(file.getContentType());
+        String ext;
+        String bucket = props.getS3Bucket();
+        String staging = STAGING_PREFIX + UUID.randomUUID();
+        S3StreamingUploader.Result result;
 
-        byte[] bytes;
-        try {
-            bytes = file.getBytes();
+        // one pass over the request body: peek the signature, then stream peek + rest to S3
+        try (InputStream in = file.getInputStream()) {
+            byte[] head = in.readNBytes(SNIFF_BYTES);
+            ext = switch (contentType) {
+                case "image/png" -> ".png";
+                case "image/jpeg" -> ".jpg";
+                default -> {
+                    if (isPng(head))       { contentType = "image/png";  yield ".png"; }
+                    else if (isJpeg(head)) { contentType = "image/jpeg"; yield ".jpg"; }
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only PNG/JPEG are allowed");
+                }
+            };
+            InputStream body = new SequenceInputStream(new ByteArrayInputStream(head), in);
+            result = uploader.upload(bucket, staging, contentType, CACHE_CONTROL, body, file.getSize());
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (IOException e) {
+            deleteQuietly(bucket, staging);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Read failed");
+        } catch (Exception e) {
+            deleteQuietly(bucket, staging);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "S3 upload failed");
         }
 
+        // content-addressed key: the same image uploaded again for the same owner is stored once
+        String key = subdir + "/" + result.sha256() + ext;
         try {
-            PutObjectRequest put = PutObjectRequest.builder()
-                    .bucket(props.getS3Bucket())
-                    .key(key)
-                    .contentType(contentType)
-                    .cacheControl("public, max-age=31536000, immutable")
-                    .build();
-            s3.putObject(put, RequestBody.fromBytes(bytes));
+            if (exists(bucket, key)) {
+                call.tag("dedup", "hit");
+                derivatives.ensureReady(key, contentType);
+            } else {
+                s3.copyObject(CopyObjectRequest.builder()
+                        .sourceBucket(bucket).sourceKey(staging)
+                        .destinationBucket(bucket).destinationKey(key)
+                        .build());
+                // list endpoints point at the variants as soon as this returns
+                derivatives.prepare(key, contentType);
+            }
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "S3 upload failed");
+        } finally {
+            deleteQuietly(bucket, staging);
         }
 
         String base = props.getPublicBaseUrl().replaceAll("/+$", "");
         String publicUrl = base + "/" + key;
 
         // NOTE: relativePath now equals the S3 key (no /uploads prefix in CDN)
-        return new UploadedFile(publicUrl, "/" + key, contentType, file.getSize());
+        return new UploadedFile(publicUrl, "/" + key, contentType, result.size(), result.sha256(),
+                ImageVariant.urls(publicUrl));
+    }
+
+    private boolean exists(String bucket, String key) {
+        try {
+            s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        }
+    }
+
+    private void deleteQuietly(String bucket, String key) {
+        try {
+            s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key).build());
+        } catch (Exception e) {
+            log.warn("Could not delete staged upload {}: {}", key, e.getMessage());
+        }
     }
 
     private static String normalize(String ct) {
@@ -85,21 +141,25 @@ public class StorageService {
         return ct.equals("image/jpg") ? "image/jpeg" : ct;
     }
 
-    private static boolean isPng(MultipartFile file) {
-        try (InputStream in = file.getInputStream()) {
-            byte[] sig = in.readNBytes(8);
-            byte[] png = new byte[]{(byte)0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A};
-            if (sig.length != 8) return false;
-            for (int i = 0; i < 8; i++) if (sig[i] != png[i]) return false;
-            return true;
-        } catch (IOException e) { return false; }
+    /** Known scopes only, so callers cannot blow up the tag cardinality. */
+    private static String metricScope(String scope) {
+        if (scope == null) return SCOPE_MISC;
+        String s = scope.toLowerCase(Locale.ROOT);
+        return switch (s) {
+            case SCOPE_PROVIDER, SCOPE_SERVICE, SCOPE_USER -> s;
+            default -> SCOPE_MISC;
+        };
     }
 
-    private static boolean isJpeg(MultipartFile file) {
-        try (InputStream in = file.getInputStream()) {
-            byte[] sig = in.readNBytes(3);
-            if (sig.length < 3) return false;
-            return (sig[0] & 0xFF) == 0xFF && (sig[1] & 0xFF) == 0xD8 && (sig[2] & 0xFF) == 0xFF;
-        } catch (IOException e) { return false; }
+    private static boolean isPng(byte[] head) {
+        byte[] png = new byte[]{(byte)0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A};
+        if (head.length < 8) return false;
+        for (int i = 0; i < 8; i++) if (head[i] != png[i]) return false;
+        return true;
+    }
+
+    private static boolean isJpeg(byte[] head) {
+        if (head.length < 3) return false;
+        return (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF;
     }
 }
@@ -0,0 +1,19 @@
+package uz.navbatuz.backend.observability;
+
+import java.time.Instant;
+
+/**
+ * One sampled slow statement. {@code params} is the bind-parameter shape (types, string
+ * lengths, repeat counts), never the values, e.g. {@code [uuid, date, uuid×40]}.
+ */
+public record SlowQuery(
+        Instant at,
+        double millis,
+        String sql,
+        String params,
+        int batchSize,
+        boolean failed,
+        String request,
+        String thread
+) {
+}
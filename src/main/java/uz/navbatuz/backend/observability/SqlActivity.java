@@ -0,0 +1,97 @@
+package uz.navbatuz.backend.observability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects JDBC statement executions reported by {@link TimingDataSource}: a per-request
+ * counter (thread bound, opened by {@link SqlRequestStatsFilter}) and a bounded ring buffer
+ * of statements slower than {@code app.sql.slow-query-ms}.
+ */
+@Component
+public class SqlActivity {
+
+    private static final int MAX_SQL_LENGTH = 4000;
+
+    /** Statements and DB time of the current request. */
+    public static final class RequestStats {
+        private final String label;
+        private int statements;
+        private long nanos;
+
+        private RequestStats(String label) {
+            this.label = label;
+        }
+
+        public int statements() { return statements; }
+
+        public long nanos() { return nanos; }
+    }
+
+    private final ThreadLocal<RequestStats> current = new ThreadLocal<>();
+    private final long slowNanos;
+    private final SlowQuery[] ring;
+    private long written; // guarded by ring
+
+    public SqlActivity(@Value("${app.sql.slow-query-ms:100}") long slowQueryMs,
+                       @Value("${app.sql.slow-query-buffer:200}") int capacity) {
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMs);
+        this.ring = new SlowQuery[Math.max(1, capacity)];
+    }
+
+    public void beginRequest(String label) {
+        current.set(new RequestStats(label));
+    }
+
+    public RequestStats endRequest() {
+        RequestStats stats = current.get();
+        current.remove();
+        return stats;
+    }
+
+    void onStatement(String sql, String params, int batchSize, long nanos, boolean failed) {
+        RequestStats stats = current.get();
+        if (stats != null) {
+            stats.statements++;
+            stats.nanos += nanos;
+        }
+        if (nanos < slowNanos) return;
+
+        SlowQuery q = new SlowQuery(Instant.now(), nanos / 1_000_000.0, normalize(sql), params, batchSize, failed,
+                stats == null ? null : stats.label, Thread.currentThread().getName());
+        synchronized (ring) {
+            ring[(int) (written++ % ring.length)] = q;
+        }
+    }
+
+    /** Newest first. */
+    public List<SlowQuery> slowQueries() {
+        synchronized (ring) {
+            int size = (int) Math.min(written, ring.length);
+            List<SlowQuery> result = new ArrayList<>(size);
+            for (int i = 1; i <= size; i++) {
+                result.add(ring[(int) ((written - i) % ring.length)]);
+            }
+            return result;
+        }
+    }
+
+    public void clearSlowQueries() {
+        synchronized (ring) {
+            Arrays.fill(ring, null);
+            written = 0;
+        }
+    }
+
+    private static String normalize(String sql) {
+        if (sql == null) return null;
+        String s = sql.replaceAll("\\s+", " ").trim();
+        return s.length() > MAX_SQL_LENGTH ? s.substring(0, MAX_SQL_LENGTH) + "…" : s;
+    }
+}
@@ -0,0 +1,58 @@
+package uz.navbatuz.backend.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements and DB time of each HTTP request and records them per route
+ * ({@code http.server.requests.sql.statements}, {@code http.server.requests.sql.time}).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SqlRequestStatsFilter extends OncePerRequestFilter {
+
+    static final String STATEMENTS = "http.server.requests.sql.statements";
+    static final String TIME = "http.server.requests.sql.time";
+
+    private final SqlActivity activity;
+    private final MeterRegistry registry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        activity.beginRequest(request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlActivity.RequestStats stats = activity.endRequest();
+            if (stats != null) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+                DistributionSummary.builder(STATEMENTS)
+                        .baseUnit("statements")
+                        .tags("method", request.getMethod(), "uri", uri)
+                        .register(registry)
+                        .record(stats.statements());
+                Timer.builder(TIME)
+                        .tags("method", request.getMethod(), "uri", uri)
+                        .register(registry)
+                        .record(stats.nanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
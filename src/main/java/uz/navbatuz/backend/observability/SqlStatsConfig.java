@@ -0,0 +1,63 @@
+package uz.navbatuz.backend.observability;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.Set;
+
+/**
+ * Wiring for the {@code sqlstats} actuator endpoint: Hibernate statistics, the timing
+ * DataSource wrapper and percentile histograms for repository and per-request SQL meters.
+ * Hibernate statistics cost a little on every session, so they are off unless
+ * {@code app.sql.hibernate-statistics=true}; the endpoint reports them as disabled otherwise.
+ */
+@Configuration
+public class SqlStatsConfig {
+
+    static final String REPOSITORY_INVOCATIONS = "spring.data.repository.invocations";
+
+    private static final Set<String> HISTOGRAMS = Set.of(
+            REPOSITORY_INVOCATIONS, SqlRequestStatsFilter.STATEMENTS, SqlRequestStatsFilter.TIME);
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatisticsCustomizer(
+            @Value("${app.sql.hibernate-statistics:false}") boolean enabled) {
+        return props -> props.putIfAbsent("hibernate.generate_statistics", String.valueOf(enabled));
+    }
+
+    // static: post-processors are created before regular beans, SqlActivity is resolved lazily
+    @Bean
+    public static BeanPostProcessor timingDataSourcePostProcessor(ObjectProvider<SqlActivity> activity) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource ds && !(bean instanceof TimingDataSource)) {
+                    return new TimingDataSource(ds, activity.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterFilter sqlHistogramsMeterFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!HISTOGRAMS.contains(id.getName())) return config;
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
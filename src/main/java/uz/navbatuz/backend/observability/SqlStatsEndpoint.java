@@ -0,0 +1,150 @@
+package uz.navbatuz.backend.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /actuator/sqlstats}: where DB time goes.
+ * <ul>
+ *   <li>{@code hibernate} – session factory totals and the queries with the highest total time</li>
+ *   <li>{@code repositories} – Spring Data repository methods by total time, with p50/p99</li>
+ *   <li>{@code requests} – SQL statements and DB time per HTTP route</li>
+ *   <li>{@code slowQueries} – newest sampled slow statements with their bind-parameter shapes</li>
+ * </ul>
+ * {@code DELETE} clears Hibernate statistics and the slow-query buffer.
+ */
+@Component
+@Endpoint(id = "sqlstats")
+@RequiredArgsConstructor
+public class SqlStatsEndpoint {
+
+    private static final int TOP = 25;
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry registry;
+    private final SqlActivity activity;
+
+    public record QueryRow(String query, long executions, double totalMs, double avgMs, double maxMs, long rows) {}
+
+    public record MethodRow(String repository, String method, String state, long count,
+                            double totalMs, double meanMs, double p50Ms, double p99Ms, double maxMs) {}
+
+    public record RouteRow(String method, String uri, long requests, double meanStatements, double maxStatements,
+                           double p99Statements, double totalSqlMs, double meanSqlMs) {}
+
+    @ReadOperation
+    public Map<String, Object> sqlStats() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("hibernate", hibernate());
+        body.put("repositories", repositories());
+        body.put("requests", requests());
+        body.put("slowQueries", activity.slowQueries());
+        return body;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics().clear();
+        activity.clearSlowQueries();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private Map<String, Object> hibernate() {
+        Statistics s = statistics();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", s.isStatisticsEnabled());
+        if (!s.isStatisticsEnabled()) return m;
+        m.put("since", s.getStart());
+        m.put("sessionsOpened", s.getSessionOpenCount());
+        m.put("transactions", s.getTransactionCount());
+        m.put("preparedStatements", s.getPrepareStatementCount());
+        m.put("queryExecutions", s.getQueryExecutionCount());
+        m.put("queryExecutionMaxMs", s.getQueryExecutionMaxTime());
+        m.put("slowestQuery", s.getQueryExecutionMaxTimeQueryString());
+        m.put("entityLoads", s.getEntityLoadCount());
+        m.put("entityFetches", s.getEntityFetchCount());
+        m.put("collectionFetches", s.getCollectionFetchCount());
+        m.put("flushes", s.getFlushCount());
+        m.put("optimisticFailures", s.getOptimisticFailureCount());
+
+        List<QueryRow> queries = new ArrayList<>();
+        for (String q : s.getQueries()) {
+            QueryStatistics qs = s.getQueryStatistics(q);
+            long n = qs.getExecutionCount();
+            if (n == 0) continue;
+            queries.add(new QueryRow(q, n, qs.getExecutionTotalTime(), qs.getExecutionAvgTime(),
+                    qs.getExecutionMaxTime(), qs.getExecutionRowCount()));
+        }
+        queries.sort(Comparator.comparingDouble(QueryRow::totalMs).reversed());
+        m.put("topQueries", queries.subList(0, Math.min(TOP, queries.size())));
+        return m;
+    }
+
+    private List<MethodRow> repositories() {
+        List<MethodRow> rows = new ArrayList<>();
+        for (Timer t : registry.find(SqlStatsConfig.REPOSITORY_INVOCATIONS).timers()) {
+            HistogramSnapshot snap = t.takeSnapshot();
+            if (snap.count() == 0) continue;
+            rows.add(new MethodRow(t.getId().getTag("repository"), t.getId().getTag("method"),
+                    t.getId().getTag("state"), snap.count(),
+                    snap.total(TimeUnit.MILLISECONDS), snap.mean(TimeUnit.MILLISECONDS),
+                    toMillis(percentile(snap, 0.50)), toMillis(percentile(snap, 0.99)),
+                    snap.max(TimeUnit.MILLISECONDS)));
+        }
+        rows.sort(Comparator.comparingDouble(MethodRow::totalMs).reversed());
+        return rows;
+    }
+
+    private List<RouteRow> requests() {
+        Map<List<String>, Timer> times = new HashMap<>();
+        for (Timer t : registry.find(SqlRequestStatsFilter.TIME).timers()) {
+            times.put(List.of(t.getId().getTag("method"), t.getId().getTag("uri")), t);
+        }
+        List<RouteRow> rows = new ArrayList<>();
+        for (DistributionSummary s : registry.find(SqlRequestStatsFilter.STATEMENTS).summaries()) {
+            HistogramSnapshot snap = s.takeSnapshot();
+            if (snap.count() == 0) continue;
+            String method = s.getId().getTag("method");
+            String uri = s.getId().getTag("uri");
+            Timer time = times.get(List.of(method, uri));
+            double totalMs = time == null ? 0 : time.totalTime(TimeUnit.MILLISECONDS);
+            rows.add(new RouteRow(method, uri, snap.count(), snap.mean(), snap.max(),
+                    percentile(snap, 0.99), totalMs, totalMs / snap.count()));
+        }
+        rows.sort(Comparator.comparingDouble(RouteRow::totalSqlMs).reversed());
+        return rows;
+    }
+
+    /** Upper bound of the histogram bucket holding quantile {@code q}; NaN without buckets. */
+    private static double percentile(HistogramSnapshot snap, double q) {
+        CountAtBucket[] buckets = snap.histogramCounts();
+        if (buckets.length == 0) return Double.NaN;
+        double rank = q * snap.count();
+        for (CountAtBucket b : buckets) {
+            if (b.count() >= rank) return b.bucket();
+        }
+        return snap.max();
+    }
+
+    private static double toMillis(double nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,142 @@
+package uz.navbatuz.backend.observability;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Wraps the pool so every statement execution is timed and reported to {@link SqlActivity}
+ * together with the shape of its bind parameters. Only JDK proxies over the JDBC interfaces,
+ * {@code unwrap}/{@code isWrapperFor} keep reaching the pool.
+ */
+class TimingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final SqlActivity activity;
+
+    TimingDataSource(DataSource target, SqlActivity activity) {
+        super(target);
+        this.activity = activity;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement st) {
+                        String sql = (args != null && args.length > 0 && args[0] instanceof String s) ? s : null;
+                        return statement(st, method.getReturnType(), sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Object statement(Statement target, Class<?> type, String preparedSql) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new StatementHandler(target, preparedSql));
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private final List<String> params = new ArrayList<>();
+        private int batchSize;
+
+        StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                shape(index, name, args[1]);
+            } else if (name.equals("clearParameters")) {
+                params.clear();
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+            } else if (EXECUTE.contains(name)) {
+                String sql = (args != null && args.length > 0 && args[0] instanceof String s) ? s : preparedSql;
+                String shape = describe(params);
+                int batch = batchSize;
+                if (name.startsWith("executeBatch") || name.equals("executeLargeBatch")) batchSize = 0;
+                long started = System.nanoTime();
+                boolean failed = true;
+                try {
+                    Object result = TimingDataSource.invoke(target, method, args);
+                    failed = false;
+                    return result;
+                } finally {
+                    activity.onStatement(sql, shape, batch, System.nanoTime() - started, failed);
+                }
+            }
+            return TimingDataSource.invoke(target, method, args);
+        }
+
+        private void shape(int index, String setter, Object value) {
+            while (params.size() < index) params.add("?");
+            params.set(index - 1, typeOf(setter, value));
+        }
+    }
+
+    private static String typeOf(String setter, Object value) {
+        if (setter.equals("setNull") || value == null) return "null";
+        if (value instanceof String s) return "varchar(" + s.length() + ")";
+        if (value instanceof byte[] b) return "bytea(" + b.length + ")";
+        if (value instanceof java.util.UUID) return "uuid";
+        if (value instanceof Integer || value instanceof Short) return "int";
+        if (value instanceof Long) return "bigint";
+        if (value instanceof Boolean) return "bool";
+        if (value instanceof java.math.BigDecimal || value instanceof Double || value instanceof Float) return "numeric";
+        if (value instanceof Date || value instanceof java.time.LocalDate) return "date";
+        if (value instanceof Time || value instanceof java.time.LocalTime) return "time";
+        if (value instanceof Timestamp || value instanceof Temporal) return "timestamp";
+        if (value instanceof Array) return "array";
+        return value.getClass().getSimpleName().toLowerCase();
+    }
+
+    /** {@code [uuid, uuid, uuid, date]} becomes {@code [uuid×3, date]} so IN-list sizes stand out. */
+    private static String describe(List<String> params) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < params.size(); ) {
+            String type = params.get(i);
+            int run = 1;
+            while (i + run < params.size() && params.get(i + run).equals(type)) run++;
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(type);
+            if (run > 1) sb.append('×').append(run);
+            i += run;
+        }
+        return sb.append(']').toString();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
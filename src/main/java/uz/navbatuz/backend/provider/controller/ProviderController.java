@@ -18,6 +18,7 @@ import uz.navbatuz.backend.location.dto.LocationSummary;
 import uz.navbatuz.backend.location.model.Location;
 import uz.navbatuz.backend.provider.dto.*;
 import uz.navbatuz.backend.provider.model.Provider;
+import uz.navbatuz.backend.provider.service.ProviderSearchService;
 import uz.navbatuz.backend.provider.service.ProviderService;
 import uz.navbatuz.backend.security.CurrentUserService;
 import uz.navbatuz.backend.worker.dto.WorkerDetailsDto;
@@ -32,6 +33,7 @@ import java.util.*;
 public class ProviderController {
 
     private final ProviderService providerService;
+    private final ProviderSearchService providerSearchService;
     private final CurrentUserService currentUserService;
 
     private static LocationSummary toSummary(uz.navbatuz.backend.location.model.Location loc) {
@@ -139,6 +141,37 @@ public class ProviderController {
         );
     }
 
+    // localhost:8080/api/providers/public/nearby?lat=41.31&lon=69.24&radius=3000&category=BARBERSHOP&minRating=4
+    @GetMapping("/public/nearby")
+    public ResponseEntity<NearbyProvidersPage> searchNearby(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(defaultValue = "5000") double radius,
+            @RequestParam(required = false) Category category,
+            @RequestParam(defaultValue = "0") float minRating,
+            @RequestParam(required = false) Double afterDistance,
+            @RequestParam(required = false) UUID afterId,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(providerService.searchNearby(
+                lat, lon, radius, category, minRating, afterDistance, afterId, size));
+    }
+
+    // localhost:8080/api/providers/public/find?q=sartaroshxona&city=Tashkent
+    @GetMapping("/public/find")
+    public ResponseEntity<ProviderSearchPage> find(
+            @RequestParam String q,
+            @RequestParam(required = false) Category category,
+            @RequestParam(required = false) String city,
+            @RequestParam(defaultValue = "0") float minRating,
+            @RequestParam(required = false) Double afterScore,
+            @RequestParam(required = false) UUID afterId,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(providerSearchService.search(
+                q, category, city, minRating, afterScore, afterId, size));
+    }
+
     @GetMapping("/public/{providerId}/business-hours")
     public ResponseEntity<List<BusinessHourResponse>> getBusinessHours(@PathVariable UUID providerId) {
         return ResponseEntity.ok(providerService.getBusinessHours(providerId));
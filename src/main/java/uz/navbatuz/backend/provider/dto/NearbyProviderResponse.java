@@ -0,0 +1,17 @@
+package uz.navbatuz.backend.provider.dto;
+
+import uz.navbatuz.backend.common.Category;
+import uz.navbatuz.backend.location.dto.LocationSummary;
+
+import java.util.UUID;
+
+public record NearbyProviderResponse(
+        UUID id,
+        String name,
+        String description,
+        float avgRating,
+        Category category,
+        LocationSummary location,
+        String logoUrl,
+        double distanceMeters
+) {}
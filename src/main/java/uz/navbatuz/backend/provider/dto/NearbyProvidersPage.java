@@ -0,0 +1,14 @@
+package uz.navbatuz.backend.provider.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One page of a proximity search. Pass {@code nextAfterDistance} / {@code nextAfterId} back
+ * as {@code afterDistance} / {@code afterId} to get the next page; both are null on the last page.
+ */
+public record NearbyProvidersPage(
+        List<NearbyProviderResponse> items,
+        Double nextAfterDistance,
+        UUID nextAfterId
+) {}
@@ -0,0 +1,18 @@
+package uz.navbatuz.backend.provider.dto;
+
+import uz.navbatuz.backend.location.dto.LocationResponse;
+import uz.navbatuz.backend.location.dto.LocationSummary;
+
+import java.util.List;
+
+/**
+ * Everything the public provider pages read, assembled once per load.
+ * {@code location} and {@code locationSummary} are null when the provider has no location.
+ */
+public record ProviderProfileSnapshot(
+        ProviderResponse profile,
+        ProvidersDetails details,
+        List<BusinessHourResponse> businessHours,
+        LocationResponse location,
+        LocationSummary locationSummary
+) {}
@@ -0,0 +1,20 @@
+package uz.navbatuz.backend.provider.dto;
+
+import uz.navbatuz.backend.common.Category;
+import uz.navbatuz.backend.location.dto.LocationSummary;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record ProviderSearchHit(
+        UUID id,
+        String name,
+        String description,
+        float avgRating,
+        Category category,
+        LocationSummary location, // may be null
+        String logoUrl,
+        BigDecimal minPrice,       // cheapest active service, may be null
+        BigDecimal maxPrice,
+        double score
+) {}
@@ -0,0 +1,14 @@
+package uz.navbatuz.backend.provider.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One page of a text search. Pass {@code nextAfterScore} / {@code nextAfterId} back
+ * as {@code afterScore} / {@code afterId} to get the next page; both are null on the last page.
+ */
+public record ProviderSearchPage(
+        List<ProviderSearchHit> items,
+        Double nextAfterScore,
+        UUID nextAfterId
+) {}
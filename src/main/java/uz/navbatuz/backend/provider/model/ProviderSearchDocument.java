@@ -0,0 +1,77 @@
+package uz.navbatuz.backend.provider.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Denormalized search row, one per provider: profile, location, active services and rating
+ * flattened so a text search touches a single table. Rows are written only by
+ * {@code ProviderSearchRepository.refresh}; the {@code search_vector} tsvector column and the
+ * trigram indexes are added by {@code DatabaseIndexInitializer} and are not mapped here.
+ * <p>
+ * {@code nameNorm} / {@code terms} hold lower-cased text with Uzbek apostrophe variants removed
+ * (see {@code SearchText.normalize}), so "Oʻzbek", "O'zbek" and "ozbek" match.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(
+        name = "provider_search_documents",
+        indexes = {
+                @Index(name = "idx_provider_search_category", columnList = "category"),
+                @Index(name = "idx_provider_search_city", columnList = "city")
+        }
+)
+public class ProviderSearchDocument {
+
+    @Id
+    @Column(name = "provider_id")
+    private UUID providerId;
+
+    private String name;
+
+    @Column(length = 2000)
+    private String description;
+
+    @Column(length = 32)
+    private String category;
+
+    @Column(length = 120)
+    private String city;
+
+    @Column(length = 120)
+    private String district;
+
+    @Column(length = 2)
+    private String countryIso2;
+
+    private UUID locationId;
+    private String addressLine1;
+    private String logoUrl;
+
+    private Float avgRating;
+    private Long reviewsCount;
+
+    @Column(columnDefinition = "text")
+    private String serviceNames;
+
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+
+    @Column(columnDefinition = "text")
+    private String nameNorm;
+
+    @Column(columnDefinition = "text")
+    private String terms;
+
+    private boolean isActive;
+
+    private LocalDateTime updatedAt;
+}
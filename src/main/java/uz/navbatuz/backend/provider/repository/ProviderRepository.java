@@ -5,6 +5,9 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uz.navbatuz.backend.common.Category;
 import uz.navbatuz.backend.provider.model.Provider;
@@ -34,6 +37,9 @@ public interface ProviderRepository extends JpaRepository<Provider, UUID> {
 
     Optional<Provider> findByOwnerId(UUID ownerId);
 
+    @Query("select p from Provider p left join fetch p.location where p.id = :id")
+    Optional<Provider> findWithLocationById(@Param("id") UUID id);
+
 
     boolean existsByIdAndOwner_Id(UUID providerId, UUID ownerId);
 
@@ -43,4 +49,56 @@ public interface ProviderRepository extends JpaRepository<Provider, UUID> {
 
 //    boolean existsByEmailIgnoreCase(String email);
 
+    interface NearbyRow {
+        UUID getId();
+        String getName();
+        String getDescription();
+        Float getAvgRating();
+        String getCategory();
+        String getLogoUrl();
+        UUID getLocationId();
+        String getAddressLine1();
+        String getCity();
+        String getCountryIso2();
+        double getDistance();
+    }
+
+    /**
+     * Active providers within {@code radius} meters of (lat, lon), nearest first.
+     * ST_DWithin uses the GiST index on {@code locations.point}; paging is keyset on
+     * (distance, id), so deep pages cost the same as the first one.
+     * Pass an empty {@code category} for "any"; start with afterDistance = -1.
+     */
+    @Query(
+            value = """
+      SELECT * FROM (
+          SELECT p.id, p.name, p.description, p.avg_rating AS "avgRating", p.category, p.logo_url AS "logoUrl",
+                 l.id AS "locationId", l.address_line1 AS "addressLine1", l.city, l.country_iso2 AS "countryIso2",
+                 ST_Distance(l.point, CAST(ST_SetSRID(ST_MakePoint(:lon, :lat), 4326) AS geography)) AS distance
+          FROM providers p
+          JOIN locations l ON l.id = p.location_id
+          WHERE p.is_active = true
+            AND ST_DWithin(l.point, CAST(ST_SetSRID(ST_MakePoint(:lon, :lat), 4326) AS geography), :radius)
+            AND (:category = '' OR p.category = :category)
+            AND COALESCE(p.avg_rating, 0) >= :minRating
+      ) n
+      WHERE (n.distance, n.id) > (:afterDistance, :afterId)
+      ORDER BY n.distance, n.id
+      LIMIT :limit
+    """,
+            nativeQuery = true
+    )
+    List<NearbyRow> findNearby(@Param("lat") double lat,
+                               @Param("lon") double lon,
+                               @Param("radius") double radiusMeters,
+                               @Param("category") String category,
+                               @Param("minRating") float minRating,
+                               @Param("afterDistance") double afterDistance,
+                               @Param("afterId") UUID afterId,
+                               @Param("limit") int limit);
+
+    /** Bulk update: does not bump {@code @Version}, so it never collides with profile edits. */
+    @Modifying
+    @Query("update Provider p set p.avgRating = :avg, p.reviewsCount = :count where p.id = :id")
+    int updateRating(@Param("id") UUID id, @Param("avg") float avg, @Param("count") long count);
 }
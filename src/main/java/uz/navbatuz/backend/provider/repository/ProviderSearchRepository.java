@@ -0,0 +1,133 @@
+package uz.navbatuz.backend.provider.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uz.navbatuz.backend.provider.model.ProviderSearchDocument;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ProviderSearchRepository extends JpaRepository<ProviderSearchDocument, UUID> {
+
+    /**
+     * Rebuilds the search rows of the given providers from {@code providers}, {@code locations}
+     * and their active services in one statement. The {@code translate} calls must stay in sync
+     * with {@code SearchText.normalize}.
+     */
+    @Modifying
+    @Query(
+            value = """
+      INSERT INTO provider_search_documents (
+          provider_id, name, description, category, city, district, country_iso2, location_id,
+          address_line1, logo_url, avg_rating, reviews_count, service_names, min_price, max_price,
+          name_norm, terms, is_active, updated_at)
+      SELECT p.id, p.name, p.description, p.category, l.city, l.district, l.country_iso2, l.id,
+             l.address_line1, p.logo_url, p.avg_rating, p.reviews_count, s.names, s.min_price, s.max_price,
+             translate(lower(COALESCE(p.name, '')), 'ёʻʼ‘’`''', 'е'),
+             translate(lower(concat_ws(' ', p.name, s.names, p.category, l.city, l.district)), 'ёʻʼ‘’`''', 'е'),
+             p.is_active, now()
+      FROM providers p
+      LEFT JOIN locations l ON l.id = p.location_id
+      LEFT JOIN LATERAL (
+          SELECT string_agg(DISTINCT sv.name, ' ') AS names, min(sv.price) AS min_price, max(sv.price) AS max_price
+          FROM services sv
+          WHERE sv.provider_id = p.id AND sv.is_active = true AND sv.deleted = false
+      ) s ON true
+      WHERE p.id IN (:ids)
+      ON CONFLICT (provider_id) DO UPDATE SET
+          name = EXCLUDED.name, description = EXCLUDED.description, category = EXCLUDED.category,
+          city = EXCLUDED.city, district = EXCLUDED.district, country_iso2 = EXCLUDED.country_iso2,
+          location_id = EXCLUDED.location_id, address_line1 = EXCLUDED.address_line1,
+          logo_url = EXCLUDED.logo_url, avg_rating = EXCLUDED.avg_rating, reviews_count = EXCLUDED.reviews_count,
+          service_names = EXCLUDED.service_names, min_price = EXCLUDED.min_price, max_price = EXCLUDED.max_price,
+          name_norm = EXCLUDED.name_norm, terms = EXCLUDED.terms, is_active = EXCLUDED.is_active,
+          updated_at = EXCLUDED.updated_at
+    """,
+            nativeQuery = true
+    )
+    int refresh(@Param("ids") Collection<UUID> ids);
+
+    /** Drops rows whose provider no longer exists. */
+    @Modifying
+    @Query(value = """
+      DELETE FROM provider_search_documents d
+      WHERE d.provider_id IN (:ids)
+        AND NOT EXISTS (SELECT 1 FROM providers p WHERE p.id = d.provider_id)
+    """, nativeQuery = true)
+    int deleteOrphans(@Param("ids") Collection<UUID> ids);
+
+    @Query(value = """
+      SELECT p.id FROM providers p
+      WHERE NOT EXISTS (SELECT 1 FROM provider_search_documents d WHERE d.provider_id = p.id)
+      LIMIT :limit
+    """, nativeQuery = true)
+    List<UUID> findUnindexedProviderIds(@Param("limit") int limit);
+
+    @Query(value = "SELECT p.id FROM providers p WHERE p.id > :afterId ORDER BY p.id LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> findProviderIdsAfter(@Param("afterId") UUID afterId, @Param("limit") int limit);
+
+    interface SearchRow {
+        UUID getId();
+        String getName();
+        String getDescription();
+        Float getAvgRating();
+        String getCategory();
+        String getLogoUrl();
+        UUID getLocationId();
+        String getAddressLine1();
+        String getCity();
+        String getCountryIso2();
+        BigDecimal getMinPrice();
+        BigDecimal getMaxPrice();
+        double getScore();
+    }
+
+    /**
+     * Active providers matching {@code tsq} (prefix full-text over name, services, city and
+     * description) or close to {@code q} by trigram similarity, best first.
+     * <p>
+     * The three predicates are served by the GIN indexes on {@code search_vector},
+     * {@code name_norm} and {@code terms}. The score is rounded so it survives a JSON round
+     * trip; paging is keyset on (score desc, id). Pass empty {@code category}/{@code city}
+     * for "any"; start with afterScore = -1.
+     */
+    @Query(
+            value = """
+      SELECT * FROM (
+          SELECT d.provider_id AS id, d.name, d.description, d.avg_rating AS "avgRating", d.category,
+                 d.logo_url AS "logoUrl", d.location_id AS "locationId", d.address_line1 AS "addressLine1",
+                 d.city, d.country_iso2 AS "countryIso2", d.min_price AS "minPrice", d.max_price AS "maxPrice",
+                 round(CAST(2 * ts_rank_cd(d.search_vector, q.tsq)
+                            + similarity(d.name_norm, :q)
+                            + 0.5 * word_similarity(:q, d.terms)
+                            + 0.02 * COALESCE(d.avg_rating, 0) AS numeric), 6) AS score
+          FROM provider_search_documents d
+          CROSS JOIN (SELECT to_tsquery('simple', :tsq) AS tsq) q
+          WHERE d.is_active = true
+            AND (d.search_vector @@ q.tsq OR d.name_norm % :q OR :q <% d.terms)
+            AND (:category = '' OR d.category = :category)
+            AND (:city = '' OR lower(d.city) = lower(:city))
+            AND COALESCE(d.avg_rating, 0) >= :minRating
+      ) r
+      WHERE (:afterScore < 0 OR r.score < :afterScore OR (r.score = :afterScore AND r.id > :afterId))
+      ORDER BY r.score DESC, r.id
+      LIMIT :limit
+    """,
+            nativeQuery = true
+    )
+    List<SearchRow> search(@Param("q") String q,
+                           @Param("tsq") String tsq,
+                           @Param("category") String category,
+                           @Param("city") String city,
+                           @Param("minRating") float minRating,
+                           @Param("afterScore") double afterScore,
+                           @Param("afterId") UUID afterId,
+                           @Param("limit") int limit);
+}
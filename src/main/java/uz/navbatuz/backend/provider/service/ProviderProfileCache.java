@@ -0,0 +1,120 @@
+package uz.navbatuz.backend.provider.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uz.navbatuz.backend.provider.dto.ProviderProfileSnapshot;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of {@link ProviderProfileSnapshot}s backing the public provider pages.
+ * <p>
+ * Bounded by {@link #MAX_ENTRIES}: when full, expired entries go first, then the oldest tenth.
+ * Writers call {@link #evict(UUID)} for profile, hours, location, logo, rating and worker
+ * changes; the TTL covers edits that have no hook (e.g. a worker renaming their user).
+ * Evictions bump a version stripe, and a snapshot is only stored if its stripe did not move while
+ * it loaded, so a load that overlapped a committing edit is served once but not cached.
+ * Hits, misses and size are published as {@code provider.profile.cache.*} meters.
+ */
+@Component
+public class ProviderProfileCache {
+
+    private static final int MAX_ENTRIES = 5_000;
+    private static final long TTL_MS = 10 * 60_000; // 10 min
+    private static final int STRIPES = 256;
+
+    private record Entry(ProviderProfileSnapshot snapshot, long loadedAt) {}
+
+    private final ConcurrentHashMap<UUID, Entry> profiles = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+    private final Counter hits;
+    private final Counter misses;
+
+    public ProviderProfileCache(MeterRegistry meterRegistry) {
+        this.hits = Counter.builder("provider.profile.cache.requests")
+                .tag("result", "hit")
+                .description("Provider profile cache lookups")
+                .register(meterRegistry);
+        this.misses = Counter.builder("provider.profile.cache.requests")
+                .tag("result", "miss")
+                .description("Provider profile cache lookups")
+                .register(meterRegistry);
+        Gauge.builder("provider.profile.cache.size", profiles, Map::size)
+                .description("Provider profiles currently cached")
+                .register(meterRegistry);
+    }
+
+    public ProviderProfileSnapshot get(UUID providerId, Function<UUID, ProviderProfileSnapshot> loader) {
+        long now = System.currentTimeMillis();
+        Entry e = profiles.get(providerId);
+        if (e != null && now - e.loadedAt() <= TTL_MS) {
+            hits.increment();
+            return e.snapshot();
+        }
+        misses.increment();
+        long version = versions.get(stripe(providerId));
+        ProviderProfileSnapshot fresh = loader.apply(providerId);
+        put(providerId, fresh, version);
+        return fresh;
+    }
+
+    private void put(UUID providerId, ProviderProfileSnapshot snapshot, long version) {
+        if (profiles.size() >= MAX_ENTRIES) {
+            evictExpired();
+            if (profiles.size() >= MAX_ENTRIES) evictOldest(MAX_ENTRIES / 10);
+        }
+        int stripe = stripe(providerId);
+        long loadedAt = System.currentTimeMillis();
+        profiles.compute(providerId, (k, cur) ->
+                versions.get(stripe) == version ? new Entry(snapshot, loadedAt) : cur);
+    }
+
+    /** Drops the provider now and again after the current transaction commits. */
+    public void evict(UUID providerId) {
+        if (providerId == null) return;
+        remove(providerId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(providerId);
+                }
+            });
+        }
+    }
+
+    // bump first: a load that read the old version can no longer store its result
+    private void remove(UUID providerId) {
+        versions.incrementAndGet(stripe(providerId));
+        profiles.remove(providerId);
+    }
+
+    private static int stripe(UUID providerId) {
+        return (providerId.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        profiles.values().removeIf(e -> now - e.loadedAt() > TTL_MS);
+    }
+
+    private void evictOldest(int count) {
+        profiles.entrySet().stream()
+                .sorted(Comparator.comparingLong(en -> en.getValue().loadedAt()))
+                .limit(count)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(profiles::remove);
+    }
+}
@@ -0,0 +1,115 @@
+package uz.navbatuz.backend.provider.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.navbatuz.backend.provider.repository.ProviderSearchRepository;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps {@code provider_search_documents} in step with provider and service writes.
+ * <p>
+ * Writers call {@link #markDirty(UUID)}; the id is queued after the transaction commits and
+ * a poller rebuilds queued providers in batches, so several edits to one provider collapse
+ * into a single refresh and the request path never pays for it. Rows missing at startup are
+ * backfilled, and a nightly pass rebuilds everything to cover writes from other nodes that
+ * were lost with their queue.
+ */
+@Slf4j
+@Component
+public class ProviderSearchIndexer {
+
+    private static final int BATCH_SIZE = 200;
+
+    private final ProviderSearchRepository searchRepository;
+    private final TransactionTemplate tx;
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+
+    public ProviderSearchIndexer(ProviderSearchRepository searchRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.searchRepository = searchRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    public void markDirty(UUID providerId) {
+        if (providerId == null) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dirty.add(providerId);
+                }
+            });
+        } else {
+            dirty.add(providerId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.index.flush-ms:2000}")
+    public void flush() {
+        while (!dirty.isEmpty()) {
+            List<UUID> batch = take(BATCH_SIZE);
+            try {
+                refresh(batch);
+            } catch (RuntimeException e) {
+                log.warn("Search index refresh of {} providers failed, will retry: {}", batch.size(), e.getMessage());
+                dirty.addAll(batch);
+                return;
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            int total = 0;
+            List<UUID> ids;
+            while (!(ids = searchRepository.findUnindexedProviderIds(BATCH_SIZE)).isEmpty()) {
+                refresh(ids);
+                total += ids.size();
+            }
+            if (total > 0) log.info("Indexed {} providers for search", total);
+        } catch (RuntimeException e) {
+            log.warn("Search index backfill failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.search.index.rebuild-cron:0 15 4 * * *}")
+    public void rebuild() {
+        UUID after = new UUID(0L, 0L);
+        List<UUID> ids;
+        while (!(ids = searchRepository.findProviderIdsAfter(after, BATCH_SIZE)).isEmpty()) {
+            refresh(ids);
+            after = ids.get(ids.size() - 1);
+        }
+    }
+
+    private void refresh(List<UUID> ids) {
+        tx.executeWithoutResult(status -> {
+            searchRepository.refresh(ids);
+            searchRepository.deleteOrphans(ids);
+        });
+    }
+
+    private List<UUID> take(int max) {
+        List<UUID> batch = new ArrayList<>(Math.min(max, dirty.size()));
+        Iterator<UUID> it = dirty.iterator();
+        while (it.hasNext() && batch.size() < max) {
+            batch.add(it.next());
+            it.remove();
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,96 @@
+package uz.navbatuz.backend.provider.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import uz.navbatuz.backend.common.Category;
+import uz.navbatuz.backend.common.text.SearchText;
+import uz.navbatuz.backend.location.dto.LocationSummary;
+import uz.navbatuz.backend.provider.dto.ProviderSearchHit;
+import uz.navbatuz.backend.provider.dto.ProviderSearchPage;
+import uz.navbatuz.backend.provider.repository.ProviderSearchRepository;
+import uz.navbatuz.backend.media.service.ImageVariant;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Free-text provider search over {@code provider_search_documents}.
+ * Exact and prefix words go through PostgreSQL full-text search, misspellings through
+ * trigram similarity; both run against the same normalized text, which is why
+ * {@link SearchText#normalize} mirrors the {@code translate} in {@link ProviderSearchRepository#refresh}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProviderSearchService {
+
+    private static final int MAX_QUERY_LENGTH = 100;
+    private static final int MAX_TERMS = 8;
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private final ProviderSearchRepository searchRepository;
+
+    public ProviderSearchPage search(String query, Category category, String city, float minRating,
+                                     Double afterScore, UUID afterId, int size) {
+        if ((afterScore == null) != (afterId == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "afterScore and afterId go together");
+        }
+        List<String> terms = terms(query);
+        if (terms.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q must contain at least one letter or digit");
+        }
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        var rows = searchRepository.search(
+                String.join(" ", terms),
+                toTsQuery(terms),
+                category == null ? "" : category.name(),
+                city == null ? "" : city.trim(),
+                minRating,
+                afterScore == null ? -1 : afterScore,
+                afterId == null ? new UUID(0L, 0L) : afterId,
+                limit);
+
+        List<ProviderSearchHit> items = rows.stream()
+                .map(r -> new ProviderSearchHit(
+                        r.getId(),
+                        r.getName(),
+                        r.getDescription(),
+                        r.getAvgRating() == null ? 0f : r.getAvgRating(),
+                        Category.valueOf(r.getCategory()),
+                        r.getLocationId() == null ? null
+                                : new LocationSummary(r.getLocationId(), r.getAddressLine1(), r.getCity(), r.getCountryIso2()),
+                        ImageVariant.thumbnail(r.getLogoUrl()),
+                        r.getMinPrice(),
+                        r.getMaxPrice(),
+                        r.getScore()
+                ))
+                .toList();
+
+        if (items.size() < limit) {
+            return new ProviderSearchPage(items, null, null);
+        }
+        var last = items.get(items.size() - 1);
+        return new ProviderSearchPage(items, last.score(), last.id());
+    }
+
+    /** Distinct letter/digit runs of the normalized query; everything else is a separator. */
+    static List<String> terms(String query) {
+        if (query == null) return List.of();
+        String q = query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query;
+        List<String> out = new ArrayList<>();
+        for (String t : SearchText.normalize(q).split("[^\\p{L}\\p{N}]+")) {
+            if (!t.isEmpty() && !out.contains(t)) out.add(t);
+            if (out.size() == MAX_TERMS) break;
+        }
+        return out;
+    }
+
+    /** Every term as a prefix, all required: "soch tur" -> "soch:* & tur:*". Terms are already safe. */
+    static String toTsQuery(List<String> terms) {
+        return terms.stream().map(t -> t + ":*").collect(Collectors.joining(" & "));
+    }
+}
@@ -11,8 +11,12 @@ import org.locationtech.jts.geom.PrecisionModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import uz.navbatuz.backend.availability.schedule.WorkerScheduleCache;
 import uz.navbatuz.backend.common.Role;
 import uz.navbatuz.backend.common.Status;
+import uz.navbatuz.backend.common.geo.Geo;
+import uz.navbatuz.backend.customer.model.Customer;
+import uz.navbatuz.backend.customer.repository.CustomerRepository;
 import uz.navbatuz.backend.location.dto.LocationRequest;
 import uz.navbatuz.backend.location.dto.LocationResponse;
 import uz.navbatuz.backend.location.dto.LocationSummary;
@@ -35,6 +39,7 @@ import uz.navbatuz.backend.worker.mapper.WorkerMapper;
 import uz.navbatuz.backend.worker.model.Worker;
 import uz.navbatuz.backend.worker.repository.WorkerRepository;
 import uz.navbatuz.backend.common.WorkerType;
+import uz.navbatuz.backend.media.service.ImageVariant;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
@@ -53,6 +58,13 @@ public class ProviderService {
     private final WorkerRepository workerRepository;
     private final WorkerMapper workerMapper;
     private final ReceptionistRepository receptionistRepository;
+    private final WorkerScheduleCache scheduleCache;
+    private final CustomerRepository customerRepository;
+    private final ProviderProfileCache profileCache;
+    private final ProviderSearchIndexer searchIndexer;
+
+    private static final double MAX_NEARBY_RADIUS_METERS = 50_000;
+    private static final int MAX_NEARBY_PAGE_SIZE = 50;
 
     public Provider create(ProviderRequest request) {
         User owner = userRepository.findById(request.getOwnerId())
@@ -76,7 +88,9 @@ public class ProviderService {
                 .owner(owner)
                 .build();
 
-        return providerRepository.save(provider);
+        Provider saved = providerRepository.save(provider);
+        searchIndexer.markDirty(saved.getId());
+        return saved;
     }
 
     private LocationSummary toSummary(uz.navbatuz.backend.location.model.Location loc) {
@@ -90,28 +104,33 @@ public class ProviderService {
     }
 
     public ProviderResponse getById(UUID id) {
-        Provider provider = providerRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Provider not found"));
+        return profileCache.get(id, this::loadProfile).profile();
+    }
+
+    public ProvidersDetails getProvidersDetails(UUID id) {
+        return profileCache.get(id, this::loadProfile).details();
+    }
+
+    /** One provider+location query, one workers query, one business hours query. */
+    private ProviderProfileSnapshot loadProfile(UUID id) {
+        var provider = providerRepository.findWithLocationById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Provider not found"));
 
-        return new ProviderResponse(
+        var workers = List.copyOf(workerRepository.findWorkerResponsesByProviderId(id));
+        var businessHours = List.copyOf(businessHourRepository.findByProvider_Id(id));
+        var location = provider.getLocation();
+        var summary = toSummary(location);
+
+        var profile = new ProviderResponse(
                 provider.getId(),
                 provider.getName(),
                 provider.getDescription(),
                 provider.getAvgRating(),
                 provider.getCategory(),
-                toSummary(provider.getLocation()),
+                summary,
                 provider.getLogoUrl()
         );
-    }
-
-    public ProvidersDetails getProvidersDetails(UUID id) {
-        var provider = providerRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Provider not found"));
-
-        var workers = workerRepository.findWorkerResponsesByProviderId(id);
-        var businessHours = businessHourRepository.findByProvider_Id(id);
-
-        return new ProvidersDetails(
+        var details = new ProvidersDetails(
                 provider.getId(),
                 provider.getName(),
                 provider.getDescription(),
@@ -125,7 +144,14 @@ public class ProviderService {
 
                 provider.getAvgRating(),
                 businessHours,
-                toSummary(provider.getLocation())
+                summary
+        );
+        return new ProviderProfileSnapshot(
+                profile,
+                details,
+                businessHours,
+                location == null ? null : toLocationResponse(location),
+                summary
         );
     }
 
@@ -151,6 +177,8 @@ public class ProviderService {
         provider.setPhoneNumber(request.phoneNumber());
 
         providerRepository.save(provider);
+        profileCache.evict(id);
+        searchIndexer.markDirty(id);
     }
 
 //    public List<ProviderResponse> getAllActiveProviders() {
@@ -175,7 +203,7 @@ public class ProviderService {
                         p.getAvgRating(),
                         p.getCategory(),
                         toSummary(p.getLocation()), // <-- null-safe
-                        p.getLogoUrl()
+                        ImageVariant.thumbnail(p.getLogoUrl())
                 ));
     }
 
@@ -188,7 +216,7 @@ public class ProviderService {
                         p.getAvgRating(),
                         p.getCategory(),
                         toSummary(p.getLocation()), // <-- null-safe
-                        p.getLogoUrl()
+                        ImageVariant.thumbnail(p.getLogoUrl())
                 ))
                 .toList();
     }
@@ -206,6 +234,8 @@ public class ProviderService {
                 .orElseThrow(() -> new EntityNotFoundException("Provider not found"));
         provider.setActive(false);
         providerRepository.save(provider);
+        profileCache.evict(id);
+        searchIndexer.markDirty(id);
         log.info("Successfully deactivated provider with id: {}", id);
     }
 
@@ -219,10 +249,80 @@ public class ProviderService {
                         p.getAvgRating(),
                         p.getCategory(),
                         toSummary(p.getLocation()), // <-- null-safe
-                        p.getLogoUrl()
+                        ImageVariant.thumbnail(p.getLogoUrl())
                 ));
     }
 
+    /**
+     * Providers near a point, nearest first. Without lat/lon the caller's saved
+     * {@code Customer.defaultCenter} is used.
+     */
+    public NearbyProvidersPage searchNearby(Double lat, Double lon, double radiusMeters, Category category,
+                                            float minRating, Double afterDistance, UUID afterId, int size) {
+        if (radiusMeters <= 0 || radiusMeters > MAX_NEARBY_RADIUS_METERS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "radius must be in (0, " + (int) MAX_NEARBY_RADIUS_METERS + "] meters");
+        }
+        if ((afterDistance == null) != (afterId == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "afterDistance and afterId go together");
+        }
+        Point center = resolveCenter(lat, lon);
+        int limit = Math.max(1, Math.min(size, MAX_NEARBY_PAGE_SIZE));
+
+        var rows = providerRepository.findNearby(
+                center.getY(), center.getX(), radiusMeters,
+                category == null ? "" : category.name(),
+                minRating,
+                afterDistance == null ? -1 : afterDistance,
+                afterId == null ? new UUID(0L, 0L) : afterId,
+                limit);
+
+        List<NearbyProviderResponse> items = rows.stream()
+                .map(r -> new NearbyProviderResponse(
+                        r.getId(),
+                        r.getName(),
+                        r.getDescription(),
+                        r.getAvgRating() == null ? 0f : r.getAvgRating(),
+                        Category.valueOf(r.getCategory()),
+                        new LocationSummary(r.getLocationId(), r.getAddressLine1(), r.getCity(), r.getCountryIso2()),
+                        ImageVariant.thumbnail(r.getLogoUrl()),
+                        r.getDistance()
+                ))
+                .toList();
+
+        if (items.size() < limit) {
+            return new NearbyProvidersPage(items, null, null);
+        }
+        var last = items.get(items.size() - 1);
+        return new NearbyProvidersPage(items, last.distanceMeters(), last.id());
+    }
+
+    private Point resolveCenter(Double lat, Double lon) {
+        if (lat != null && lon != null) {
+            if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid coordinates");
+            }
+            return Geo.point(lat, lon);
+        }
+        if (lat != null || lon != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "lat and lon must be passed together");
+        }
+
+        // fall back to the logged-in customer's saved home area
+        UUID userId;
+        try {
+            userId = currentUserService.getCurrentUserId();
+        } catch (ResponseStatusException e) {
+            userId = null; // anonymous caller
+        }
+        Point saved = userId == null ? null
+                : customerRepository.findById(userId).map(Customer::getDefaultCenter).orElse(null);
+        if (saved == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "lat/lon required: no saved location");
+        }
+        return saved;
+    }
+
     private BusinessHourResponse toResponse(BusinessHour bh) {
         return new BusinessHourResponse(
                 bh.getId(),
@@ -233,14 +333,7 @@ public class ProviderService {
     }
 
     public List<BusinessHourResponse> getBusinessHours(UUID providerId) {
-        return businessHourRepository.findByProviderId(providerId).stream()
-                .map(hour -> new BusinessHourResponse(
-                        hour.getId(),
-                        hour.getDay(),
-                        hour.getStartTime(),
-                        hour.getEndTime()
-                ))
-                .toList();
+        return profileCache.get(providerId, this::loadProfile).businessHours();
     }
 
     @Transactional
@@ -276,6 +369,8 @@ public class ProviderService {
                 .toList();
 
         businessHourRepository.saveAll(newHours);
+        scheduleCache.invalidateProvider(providerId);
+        profileCache.evict(providerId);
     }
 
     public List<BusinessHourResponse> listForProvider(UUID providerId) {
@@ -303,6 +398,8 @@ public class ProviderService {
                 .toList();
 
         businessHourRepository.saveAll(hours);
+        scheduleCache.invalidateProvider(providerId);
+        profileCache.evict(providerId);
     }
 
     private static final GeometryFactory GEO_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
@@ -353,18 +450,20 @@ public class ProviderService {
         // attach to provider (make sure Provider owns the relation)
         provider.setLocation(loc);
         providerRepository.save(provider);
+        profileCache.evict(providerId);
+        searchIndexer.markDirty(providerId);
     }
 
 
     public LocationResponse getLocation(UUID providerId) {
-        Provider provider = providerRepository.findById(providerId)
-                .orElseThrow(() -> new EntityNotFoundException("Provider not found"));
-
-        Location loc = provider.getLocation();
+        LocationResponse loc = profileCache.get(providerId, this::loadProfile).location();
         if (loc == null) {
             throw new EntityNotFoundException("Location not set for provider");
         }
+        return loc;
+    }
 
+    private static LocationResponse toLocationResponse(Location loc) {
         Double lat = null, lng = null;
         if (loc.getPoint() != null) {
             lat = loc.getPoint().getY(); // y = lat
@@ -388,15 +487,11 @@ public class ProviderService {
     }
 
     public LocationSummary getLocationSummary(UUID providerId) {
-        Provider provider = providerRepository.findById(providerId)
-                .orElseThrow(() -> new EntityNotFoundException("Provider not found"));
-
-        return new LocationSummary(
-                provider.getLocation().getId(),
-                provider.getLocation().getAddressLine1(),
-                provider.getLocation().getCity(),
-                provider.getLocation().getCountryIso2()
-        );
+        LocationSummary summary = profileCache.get(providerId, this::loadProfile).locationSummary();
+        if (summary == null) {
+            throw new EntityNotFoundException("Location not set for provider");
+        }
+        return summary;
     }
 
 
@@ -414,7 +509,10 @@ public class ProviderService {
         }
 
         p.setLogoUrl(url);
-        return providerRepository.save(p);
+        Provider saved = providerRepository.save(p);
+        profileCache.evict(providerId);
+        searchIndexer.markDirty(providerId);
+        return saved;
     }
 
     @Transactional
@@ -424,6 +522,8 @@ public class ProviderService {
         // Optional: verify requester is the owner of this provider
         p.setLogoUrl(url);
         providerRepository.save(p);
+        profileCache.evict(providerId);
+        searchIndexer.markDirty(providerId);
     }
 
     public UUID getProviderIdForOwner(UUID userId) {
@@ -509,7 +609,9 @@ public class ProviderService {
             if (req.isActive() != null) worker.setActive(req.isActive());
             // hireDate stays as is if already set
             worker = workerRepository.save(worker);
+            scheduleCache.invalidateWorker(worker.getId());
         }
+        profileCache.evict(providerId);
 
         return workerMapper.mapToDetails(worker);
     }
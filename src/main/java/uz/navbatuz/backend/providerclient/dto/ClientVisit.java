@@ -0,0 +1,18 @@
+package uz.navbatuz.backend.providerclient.dto;
+
+import uz.navbatuz.backend.customer.model.Customer;
+import uz.navbatuz.backend.guest.model.Guest;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** One booking to count against a provider's client book; customer or guest, else the fallbacks. */
+public record ClientVisit(
+        UUID providerId,
+        Customer customer,
+        Guest guest,
+        String fallbackName,
+        String fallbackPhone,
+        UUID actorUserId,
+        LocalDateTime visitedAt
+) {}
@@ -10,7 +10,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "provider_clients",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"provider_id","phone_e164"}))
+        uniqueConstraints = @UniqueConstraint(columnNames = {"provider_id","phone_e164"}),
+        indexes = @Index(name = "idx_provider_clients_recent", columnList = "provider_id, last_visit_at DESC"))
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class ProviderClient {
 
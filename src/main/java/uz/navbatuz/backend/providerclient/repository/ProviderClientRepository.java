@@ -4,8 +4,10 @@ package uz.navbatuz.backend.providerclient.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import uz.navbatuz.backend.providerclient.model.ProviderClient;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -43,4 +45,74 @@ public interface ProviderClientRepository extends JpaRepository<ProviderClient,
            order by pc.lastVisitAt desc
            """)
     List<ProviderClient> searchByPhoneOrName(UUID providerId, String phonePrefix, String nameToken, Pageable page);
+
+    long countByProvider_Id(UUID providerId);
+
+    interface TypeaheadRow {
+        UUID getId();
+        String getName();
+        String getPhoneE164();
+        ProviderClient.PersonType getPersonType();
+        UUID getCustomerId();
+        UUID getGuestId();
+        LocalDateTime getLastVisitAt();
+    }
+
+    /** Just the columns the in-memory typeahead needs, no entity instances. */
+    @Query("""
+           select pc.id as id, pc.name as name, pc.phoneE164 as phoneE164, pc.personType as personType,
+                  pc.customerId as customerId, pc.guestId as guestId, pc.lastVisitAt as lastVisitAt
+           from ProviderClient pc
+           where pc.provider.id = :providerId
+           """)
+    List<TypeaheadRow> findTypeaheadRows(@Param("providerId") UUID providerId, Pageable page);
+
+    /**
+     * Index-backed client lookup: phone prefix via the (provider_id, phone_e164 text_pattern_ops)
+     * btree, name via the trigram GIN on the folded name expression ({@code name_norm} below is that
+     * expression, and must stay identical to the index definition in {@code DatabaseIndexInitializer}).
+     * Needs {@code pg_trgm}; callers check {@code DatabaseIndexInitializer.isReady} first. Each branch is
+     * capped at {@code cap} candidates; the union is ranked phone matches first, then names with a
+     * word starting with the token, then substring/fuzzy names, ties by similarity, last visit and id.
+     * Pass an empty {@code phoneLo} or {@code name} to skip that branch.
+     */
+    @Query(value = """
+      WITH phone AS (
+          SELECT pc.id, 0 AS tier, CAST(1 AS real) AS sim
+          FROM provider_clients pc
+          WHERE :phoneLo <> ''
+            AND pc.provider_id = :providerId
+            AND pc.phone_e164 ~>=~ :phoneLo AND pc.phone_e164 ~<~ :phoneHi
+          ORDER BY pc.phone_e164
+          LIMIT :cap
+      ), name AS (
+          SELECT pc.id,
+                 CASE WHEN pc.name_norm LIKE :name || '%' OR pc.name_norm LIKE '% ' || :name || '%'
+                      THEN 1 ELSE 2 END AS tier,
+                 similarity(pc.name_norm, :name) AS sim
+          FROM (SELECT c.id, c.provider_id,
+                       translate(lower(COALESCE(c.name, '')), 'ёʻʼ‘’`''', 'е') AS name_norm
+                FROM provider_clients c) pc
+          WHERE :name <> ''
+            AND pc.provider_id = :providerId
+            AND (pc.name_norm LIKE '%' || :name || '%' OR pc.name_norm % :name)
+          ORDER BY sim DESC
+          LIMIT :cap
+      ), hits AS (
+          SELECT u.id, min(u.tier) AS tier, max(u.sim) AS sim
+          FROM (SELECT * FROM phone UNION ALL SELECT * FROM name) u
+          GROUP BY u.id
+      )
+      SELECT pc.* FROM hits h
+      JOIN provider_clients pc ON pc.id = h.id
+      ORDER BY h.tier, h.sim DESC, pc.last_visit_at DESC, pc.id
+      LIMIT :limit
+    """, nativeQuery = true)
+    List<ProviderClient> searchIndexed(@Param("providerId") UUID providerId,
+                                       @Param("phoneLo") String phoneLo,
+                                       @Param("phoneHi") String phoneHi,
+                                       @Param("name") String name,
+                                       @Param("cap") int cap,
+                                       @Param("limit") int limit);
 }
+
@@ -0,0 +1,114 @@
+package uz.navbatuz.backend.providerclient.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import uz.navbatuz.backend.providerclient.model.ProviderClient.PersonType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based visit counter upserts for {@code provider_clients}.
+ * <p>
+ * All rows go in one {@code INSERT ... SELECT FROM unnest(...) ON CONFLICT} statement, so a
+ * batch costs one round trip and counters are incremented in the database
+ * ({@code total_visits + n}) instead of read-modify-write in Java. Rows must be unique per
+ * (provider, phone); callers pass them sorted so concurrent batches lock rows in the same order.
+ * Runs on the connection of the surrounding JPA transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProviderClientVisitRepository {
+
+    /** One coalesced (provider, phone) bucket; {@code visits} is how many bookings it stands for. */
+    public record VisitRow(UUID providerId, PersonType personType, UUID customerId, UUID guestId, String name,
+                           String phoneE164, LocalDateTime lastVisitAt, int visits, UUID createdBy) {}
+
+    /** A client row as it is after the upsert. */
+    public record SavedClient(UUID id, UUID providerId, PersonType personType, UUID customerId, UUID guestId,
+                              String name, String phoneE164, LocalDateTime lastVisitAt) {}
+
+    // the person type / link rules mirror the former read-modify-write: a customer visit upgrades a
+    // guest-only row, a guest visit fills an empty guest link, everything else keeps the existing links
+    private static final String UPSERT = """
+            INSERT INTO provider_clients AS pc (id, provider_id, person_type, customer_id, guest_id, name,
+                                                phone_e164, last_visit_at, total_visits, created_at, created_by)
+            SELECT v.id, v.provider_id, v.person_type, v.customer_id, v.guest_id, v.name,
+                   v.phone_e164, v.last_visit_at, v.visits, CAST(? AS timestamp), v.created_by
+            FROM unnest(?::uuid[], ?::uuid[], ?::text[], ?::uuid[], ?::uuid[], ?::text[],
+                        ?::text[], ?::timestamp[], ?::int[], ?::uuid[])
+                 AS v(id, provider_id, person_type, customer_id, guest_id, name,
+                      phone_e164, last_visit_at, visits, created_by)
+            ON CONFLICT (provider_id, phone_e164) DO UPDATE SET
+                person_type = CASE
+                    WHEN pc.customer_id IS NULL AND EXCLUDED.customer_id IS NOT NULL THEN 'CUSTOMER'
+                    WHEN pc.guest_id IS NULL AND EXCLUDED.guest_id IS NOT NULL THEN 'GUEST'
+                    ELSE pc.person_type END,
+                guest_id = CASE
+                    WHEN pc.customer_id IS NULL AND EXCLUDED.customer_id IS NOT NULL THEN NULL
+                    WHEN pc.guest_id IS NULL AND EXCLUDED.guest_id IS NOT NULL THEN EXCLUDED.guest_id
+                    ELSE pc.guest_id END,
+                customer_id = COALESCE(pc.customer_id, EXCLUDED.customer_id),
+                name = COALESCE(NULLIF(btrim(EXCLUDED.name), ''), pc.name),
+                last_visit_at = GREATEST(pc.last_visit_at, EXCLUDED.last_visit_at),
+                total_visits = pc.total_visits + EXCLUDED.total_visits
+            RETURNING pc.id, pc.provider_id, pc.person_type, pc.customer_id, pc.guest_id, pc.name,
+                      pc.phone_e164, pc.last_visit_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<SavedClient> upsertVisits(List<VisitRow> rows, LocalDateTime now) {
+        if (rows.isEmpty()) return List.of();
+        return jdbcTemplate.query(con -> prepare(con, rows, now), (rs, i) -> new SavedClient(
+                rs.getObject("id", UUID.class),
+                rs.getObject("provider_id", UUID.class),
+                PersonType.valueOf(rs.getString("person_type")),
+                rs.getObject("customer_id", UUID.class),
+                rs.getObject("guest_id", UUID.class),
+                rs.getString("name"),
+                rs.getString("phone_e164"),
+                rs.getTimestamp("last_visit_at").toLocalDateTime()
+        ));
+    }
+
+    private static PreparedStatement prepare(Connection con, List<VisitRow> rows, LocalDateTime now) throws SQLException {
+        int n = rows.size();
+        UUID[] ids = new UUID[n], providers = new UUID[n], customers = new UUID[n], guests = new UUID[n], actors = new UUID[n];
+        String[] types = new String[n], names = new String[n], phones = new String[n];
+        Timestamp[] visitedAt = new Timestamp[n];
+        Integer[] visits = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            VisitRow r = rows.get(i);
+            ids[i] = UUID.randomUUID();
+            providers[i] = r.providerId();
+            types[i] = r.personType().name();
+            customers[i] = r.customerId();
+            guests[i] = r.guestId();
+            names[i] = r.name();
+            phones[i] = r.phoneE164();
+            visitedAt[i] = Timestamp.valueOf(r.lastVisitAt());
+            visits[i] = r.visits();
+            actors[i] = r.createdBy();
+        }
+        PreparedStatement ps = con.prepareStatement(UPSERT);
+        ps.setTimestamp(1, Timestamp.valueOf(now));
+        ps.setArray(2, con.createArrayOf("uuid", ids));
+        ps.setArray(3, con.createArrayOf("uuid", providers));
+        ps.setArray(4, con.createArrayOf("text", types));
+        ps.setArray(5, con.createArrayOf("uuid", customers));
+        ps.setArray(6, con.createArrayOf("uuid", guests));
+        ps.setArray(7, con.createArrayOf("text", names));
+        ps.setArray(8, con.createArrayOf("text", phones));
+        ps.setArray(9, con.createArrayOf("timestamp", visitedAt));
+        ps.setArray(10, con.createArrayOf("int4", visits));
+        ps.setArray(11, con.createArrayOf("uuid", actors));
+        return ps;
+    }
+}
@@ -0,0 +1,57 @@
+package uz.navbatuz.backend.providerclient.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import uz.navbatuz.backend.appointment.event.AppointmentEvent;
+import uz.navbatuz.backend.appointment.event.AppointmentEventConsumer;
+import uz.navbatuz.backend.appointment.event.AppointmentEventType;
+import uz.navbatuz.backend.customer.model.Customer;
+import uz.navbatuz.backend.customer.repository.CustomerRepository;
+import uz.navbatuz.backend.guest.model.Guest;
+import uz.navbatuz.backend.guest.repository.GuestRepository;
+import uz.navbatuz.backend.providerclient.dto.ClientVisit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/** Keeps the provider client index up to date from BOOKED events, one batched upsert per outbox batch. */
+@Component
+@RequiredArgsConstructor
+public class ProviderClientIndexConsumer implements AppointmentEventConsumer {
+
+    private final ProviderClientService providerClientService;
+    private final CustomerRepository customerRepository;
+    private final GuestRepository guestRepository;
+
+    @Override
+    public void onEvents(List<AppointmentEvent> events) {
+        List<AppointmentEvent> booked = events.stream()
+                .filter(e -> e.type() == AppointmentEventType.BOOKED && e.providerId() != null)
+                .toList();
+        if (booked.isEmpty()) return;
+
+        // one query per party type for the whole batch
+        Map<UUID, Customer> customers = customerRepository.findAllWithUserByIdIn(
+                        booked.stream().map(AppointmentEvent::customerId).filter(Objects::nonNull).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Customer::getId, Function.identity()));
+        Map<UUID, Guest> guests = guestRepository.findAllById(
+                        booked.stream().map(AppointmentEvent::guestId).filter(Objects::nonNull).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Guest::getId, Function.identity()));
+
+        // the outbox batch is the coalescing window: one upsert statement for all of its bookings
+        List<ClientVisit> visits = new ArrayList<>(booked.size());
+        for (AppointmentEvent e : booked) {
+            Customer customer = e.customerId() != null ? customers.get(e.customerId()) : null;
+            Guest guest = e.guestId() != null ? guests.get(e.guestId()) : null;
+            if (customer == null && guest == null) continue; // party deleted since booking
+
+            visits.add(new ClientVisit(e.providerId(), customer, guest, null, null, e.actorUserId(), e.occurredAt()));
+        }
+        providerClientService.recordVisits(visits);
+    }
+}
@@ -5,21 +5,41 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uz.navbatuz.backend.common.text.SearchText;
+import uz.navbatuz.backend.config.DatabaseIndexInitializer;
 import uz.navbatuz.backend.customer.model.Customer;
 import uz.navbatuz.backend.guest.model.Guest;
-import uz.navbatuz.backend.provider.model.Provider;
+import uz.navbatuz.backend.providerclient.dto.ClientVisit;
 import uz.navbatuz.backend.providerclient.dto.ProviderClientResponse;
 import uz.navbatuz.backend.providerclient.model.ProviderClient;
 import uz.navbatuz.backend.providerclient.repository.ProviderClientRepository;
+import uz.navbatuz.backend.providerclient.repository.ProviderClientVisitRepository;
+import uz.navbatuz.backend.providerclient.repository.ProviderClientVisitRepository.SavedClient;
+import uz.navbatuz.backend.providerclient.repository.ProviderClientVisitRepository.VisitRow;
+import uz.navbatuz.backend.providerclient.typeahead.ClientTypeaheadCache;
+import uz.navbatuz.backend.providerclient.typeahead.ClientTypeaheadIndex;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 public class ProviderClientService {
+    private static final int SEARCH_LIMIT = 20;
+    private static final int SEARCH_CANDIDATES = 200;
+    private static final int MIN_PHONE_DIGITS = 3;
+    private static final int MIN_TRIGRAM_TOKEN = 3;
+    private static final Pattern PHONE_FRAGMENT = Pattern.compile("[+\\d\\s\\-()]+");
+
     private final ProviderClientRepository repo;
+    private final ProviderClientVisitRepository visitRepository;
+    private final ClientTypeaheadCache typeahead;
+    private final DatabaseIndexInitializer indexes;
 
     private String normalizePhone(String s) {
         if (s == null) return null;
@@ -34,58 +54,74 @@ public class ProviderClientService {
         return "*".repeat(Math.max(0, n - 4)) + e164.substring(n - 4);
     }
 
+    /**
+     * Counts a batch of visits. Visits of the same (provider, phone) are coalesced first, so each
+     * client row is written once per batch with {@code total_visits + n}; the whole batch is one
+     * statement in the caller's transaction.
+     */
     @Transactional
-    public void upsertFromAppointment(Provider provider,
-                                      Customer customer,
-                                      Guest guest,
-                                      String fallbackName,
-                                      String fallbackPhone,
-                                      UUID actorUserId) {
+    public void recordVisits(List<ClientVisit> visits) {
+        Map<VisitKey, VisitRow> buckets = new TreeMap<>();
+        for (ClientVisit v : visits) {
+            VisitRow row = toRow(v);
+            if (row != null) buckets.merge(new VisitKey(row.providerId(), row.phoneE164()), row, ProviderClientService::merge);
+        }
+        if (buckets.isEmpty()) return;
 
-        if (isWalkIn(customer, guest, fallbackName, fallbackPhone)) return;
+        // TreeMap order = (provider, phone): concurrent batches lock rows in the same order
+        for (SavedClient c : visitRepository.upsertVisits(new ArrayList<>(buckets.values()), LocalDateTime.now())) {
+            typeahead.clientSaved(c.providerId(), ClientTypeaheadIndex.Entry.of(c.id(), c.name(), c.phoneE164(),
+                    c.personType(), c.customerId(), c.guestId(), c.lastVisitAt()));
+        }
+    }
+
+    private record VisitKey(UUID providerId, String phone) implements Comparable<VisitKey> {
+        @Override
+        public int compareTo(VisitKey o) {
+            int c = providerId.compareTo(o.providerId);
+            return c != 0 ? c : phone.compareTo(o.phone);
+        }
+    }
 
-        final var now = LocalDateTime.now();
+    private VisitRow toRow(ClientVisit v) {
+        final Customer customer = v.customer();
+        final Guest guest = v.guest();
+        if (v.providerId() == null || isWalkIn(customer, guest, v.fallbackName(), v.fallbackPhone())) return null;
 
         final String phone = normalizePhone(
                 customer != null ? customer.getUser().getPhoneNumber()
                         : guest != null ? guest.getPhoneNumber()
-                        : fallbackPhone
+                        : v.fallbackPhone()
         );
-        if (phone == null || phone.isBlank()) return;
+        if (phone == null || phone.isBlank()) return null;
 
         final String name = (customer != null) ? customer.getUser().getName()
                 : (guest != null) ? guest.getName()
-                : fallbackName;
-
-        var existing = repo.findByProviderIdAndPhoneE164(provider.getId(), phone).orElse(null);
-        if (existing == null) {
-            var pc = ProviderClient.builder()
-                    .provider(provider)
-                    .personType(customer != null ? ProviderClient.PersonType.CUSTOMER : ProviderClient.PersonType.GUEST)
-                    .customerId(customer != null ? customer.getId() : null)
-                    .guestId(guest != null ? guest.getId() : null)
-                    .name(name)
-                    .phoneE164(phone)
-                    .lastVisitAt(now)
-                    .totalVisits(1)
-                    .createdAt(now)
-                    .createdBy(actorUserId)
-                    .build();
-            repo.save(pc);
-        } else {
-            if (existing.getCustomerId() == null && customer != null) {
-                existing.setPersonType(ProviderClient.PersonType.CUSTOMER);
-                existing.setCustomerId(customer.getId());
-                existing.setGuestId(null);
-            } else if (existing.getGuestId() == null && guest != null) {
-                existing.setPersonType(ProviderClient.PersonType.GUEST);
-                existing.setGuestId(guest.getId());
-            }
-            if (name != null && !name.isBlank()) existing.setName(name);
-            existing.setLastVisitAt(now);
-            existing.setTotalVisits(existing.getTotalVisits() + 1);
-            repo.save(existing);
-        }
+                : v.fallbackName();
+
+        return new VisitRow(
+                v.providerId(),
+                customer != null ? ProviderClient.PersonType.CUSTOMER : ProviderClient.PersonType.GUEST,
+                customer != null ? customer.getId() : null,
+                guest != null ? guest.getId() : null,
+                name,
+                phone,
+                v.visitedAt() != null ? v.visitedAt() : LocalDateTime.now(),
+                1,
+                v.actorUserId()
+        );
+    }
+
+    /**
+     * Folds {@code next} into {@code acc}: counts add up, the latest visit wins for time, party and
+     * name (a blank name keeps the earlier one), the first actor stays the creator.
+     */
+    static VisitRow merge(VisitRow acc, VisitRow next) {
+        VisitRow latest = next.lastVisitAt().isBefore(acc.lastVisitAt()) ? acc : next;
+        String name = latest.name() != null && !latest.name().isBlank() ? latest.name()
+                : (latest == acc ? next.name() : acc.name());
+        return new VisitRow(acc.providerId(), latest.personType(), latest.customerId(), latest.guestId(), name,
+                acc.phoneE164(), latest.lastVisitAt(), acc.visits() + next.visits(), acc.createdBy());
     }
 
     private boolean isWalkIn(Customer customer, Guest guest, String fallbackName, String fallbackPhone) {
@@ -104,23 +140,76 @@ public class ProviderClientService {
 
     @Transactional(readOnly = true)
     public List<ProviderClientResponse> search(UUID providerId, String q) {
-        final String phonePrefix = normalizePhone(q);
-        final String nameToken = q == null ? "" : q.trim().toLowerCase();
+        final String raw = q == null ? "" : q.trim();
+        final String phoneLo = phonePrefix(raw);
+        final String name = phoneLo.isEmpty() ? nameToken(raw) : "";
+        final boolean shortName = phoneLo.isEmpty() && name.length() < MIN_TRIGRAM_TOKEN;
+
+        ClientTypeaheadIndex index = typeahead.get(providerId);
+        if (index != null) {
+            List<ClientTypeaheadIndex.Entry> hits;
+            if (raw.isEmpty()) hits = index.recent(SEARCH_LIMIT);
+            else if (!phoneLo.isEmpty()) hits = index.byPhonePrefix(phoneLo, SEARCH_CANDIDATES, SEARCH_LIMIT);
+            else if (shortName) hits = index.byNameContaining(name, SEARCH_LIMIT);
+            else hits = index.byNameTokens(name, SEARCH_LIMIT);
+
+            // word-prefix name hits that do not fill a page still need the substring/fuzzy pass below
+            if (hits.size() == SEARCH_LIMIT || raw.isEmpty() || !phoneLo.isEmpty() || shortName) {
+                return hits.stream().map(this::toDto).toList();
+            }
+        }
 
         // empty → recent
-        if (nameToken.isEmpty()) {
-            return repo.findByProviderIdOrderByLastVisitAtDesc(providerId, PageRequest.of(0, 20))
+        if (raw.isEmpty()) {
+            return repo.findByProviderIdOrderByLastVisitAtDesc(providerId, PageRequest.of(0, SEARCH_LIMIT))
                     .stream()
                     .map(this::toDto)
                     .toList();
         }
 
-        return repo.searchByPhoneOrName(providerId, phonePrefix, nameToken, PageRequest.of(0, 20))
+        // one or two letters: too short for trigrams, scan recent clients until the page fills up.
+        // Same scan while the trigram index is missing (still building, or pg_trgm unavailable).
+        if (shortName || !indexes.isReady(DatabaseIndexInitializer.CLIENT_NAME_INDEX)) {
+            return repo.searchByPhoneOrName(providerId, phoneLo.isEmpty() ? null : phoneLo, raw.toLowerCase(),
+                            PageRequest.of(0, SEARCH_LIMIT))
+                    .stream()
+                    .map(this::toDto)
+                    .toList();
+        }
+
+        return repo.searchIndexed(providerId, phoneLo, phoneLo.isEmpty() ? "" : upperBound(phoneLo), name,
+                        SEARCH_CANDIDATES, SEARCH_LIMIT)
                 .stream()
                 .map(this::toDto)
                 .toList();
     }
 
+    /** "+998 90" or "(90) 123" → "+99890" / "+90123"; "" when q is not a phone fragment of 3+ digits. */
+    static String phonePrefix(String q) {
+        if (!PHONE_FRAGMENT.matcher(q).matches()) return "";
+        String digits = q.replaceAll("\\D", "");
+        return digits.length() < MIN_PHONE_DIGITS ? "" : "+" + digits;
+    }
+
+    /** Smallest string greater than every string starting with {@code prefix} (digits only, so no overflow). */
+    static String upperBound(String prefix) {
+        int last = prefix.length() - 1;
+        return prefix.substring(0, last) + (char) (prefix.charAt(last) + 1);
+    }
+
+    /**
+     * Same folding as the {@link DatabaseIndexInitializer#CLIENT_NAME_INDEX} expression
+     * ({@code translate(lower(name), ...)}), with LIKE wildcards and punctuation dropped. Change
+     * both together, or the index stops matching what is searched for.
+     */
+    static String nameToken(String q) {
+        return SearchText.normalize(q).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    private ProviderClientResponse toDto(ClientTypeaheadIndex.Entry e) {
+        return new ProviderClientResponse(e.id(), e.name(), mask(e.phoneE164()), e.personType().name(), e.linkId());
+    }
+
     private ProviderClientResponse toDto(ProviderClient pc) {
         return new ProviderClientResponse(
                 pc.getId(),
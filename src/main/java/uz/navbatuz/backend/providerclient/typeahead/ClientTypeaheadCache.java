@@ -0,0 +1,184 @@
+package uz.navbatuz.backend.providerclient.typeahead;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uz.navbatuz.backend.providerclient.repository.ProviderClientRepository;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-provider {@link ClientTypeaheadIndex}es, built on the first search and kept while the
+ * provider's front desk is active.
+ * <p>
+ * Providers are kept in LRU order and dropped after {@code idle-minutes} without a search or
+ * when the total number of indexed clients goes over {@code max-entries}. Local upserts are
+ * applied after commit; indexes are rebuilt after {@link #RELOAD_MS} so writes made on other
+ * nodes show up. Providers with more than {@code max-per-provider} clients are never indexed
+ * and keep using the database path.
+ * <p>
+ * One thread loads a provider at a time; concurrent misses wait for its result. Upserts that
+ * commit while the load runs are buffered and replayed onto the new index before it is published,
+ * since the load may have read the table before they were visible.
+ */
+@Slf4j
+@Component
+public class ClientTypeaheadCache {
+
+    private static final long RELOAD_MS = 10 * 60_000; // 10 min
+
+    private record Slot(ClientTypeaheadIndex index, long lastUsedAt) {}
+
+    /** A load in progress; {@code pending} is guarded by the {@code providers} lock. */
+    private record Loading(CompletableFuture<ClientTypeaheadIndex> result, List<ClientTypeaheadIndex.Entry> pending) {}
+
+    private final ProviderClientRepository repo;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final int maxPerProvider;
+    private final long idleMs;
+
+    private final LinkedHashMap<UUID, Slot> providers = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<UUID, Loading> loading = new HashMap<>();          // guarded by providers
+    private final Map<UUID, Long> tooLarge = new ConcurrentHashMap<>(); // provider -> checked at
+    private int indexedEntries;
+
+    public ClientTypeaheadCache(ProviderClientRepository repo,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.clients.typeahead.enabled:true}") boolean enabled,
+                                @Value("${app.clients.typeahead.max-entries:500000}") int maxEntries,
+                                @Value("${app.clients.typeahead.max-per-provider:100000}") int maxPerProvider,
+                                @Value("${app.clients.typeahead.idle-minutes:30}") int idleMinutes) {
+        this.repo = repo;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.maxPerProvider = maxPerProvider;
+        this.idleMs = idleMinutes * 60_000L;
+        Gauge.builder("clients.typeahead.providers", this, c -> c.sizeOf(false))
+                .description("Providers with an in-memory client typeahead index")
+                .register(meterRegistry);
+        Gauge.builder("clients.typeahead.entries", this, c -> c.sizeOf(true))
+                .description("Clients held by in-memory typeahead indexes")
+                .register(meterRegistry);
+    }
+
+    /** The provider's index, loading it if needed; null when disabled or the client book is too large. */
+    public ClientTypeaheadIndex get(UUID providerId) {
+        if (!enabled) return null;
+        long now = System.currentTimeMillis();
+        Long checkedAt = tooLarge.get(providerId);
+        if (checkedAt != null && now - checkedAt <= RELOAD_MS) return null;
+        Loading mine = new Loading(new CompletableFuture<>(), new ArrayList<>());
+        Loading running;
+        synchronized (providers) {
+            Slot s = providers.get(providerId);
+            if (s != null && now - s.index().loadedAt() <= RELOAD_MS) {
+                providers.put(providerId, new Slot(s.index(), now));
+                return s.index();
+            }
+            running = loading.putIfAbsent(providerId, mine);
+        }
+        if (running != null) {
+            // another request is loading this provider; a failed load sends us to the database path
+            return running.result().exceptionally(e -> null).join();
+        }
+
+        ClientTypeaheadIndex fresh = null;
+        try {
+            fresh = load(providerId);
+        } finally {
+            synchronized (providers) {
+                loading.remove(providerId);
+                if (fresh != null) {
+                    mine.pending().forEach(fresh::upsert);
+                    Slot old = providers.put(providerId, new Slot(fresh, now));
+                    indexedEntries += fresh.size() - (old == null ? 0 : old.index().size());
+                    trim();
+                }
+            }
+            mine.result().complete(fresh);
+        }
+        return fresh;
+    }
+
+    /** Applies a saved client to the provider's index, if loaded, once the transaction commits. */
+    public void clientSaved(UUID providerId, ClientTypeaheadIndex.Entry entry) {
+        if (!enabled || providerId == null) return;
+        Runnable apply = () -> {
+            synchronized (providers) {
+                Loading l = loading.get(providerId);
+                if (l != null) l.pending().add(entry);
+                Slot s = providers.get(providerId);
+                if (s == null) return;
+                int before = s.index().size();
+                s.index().upsert(entry);
+                indexedEntries += s.index().size() - before;
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        synchronized (providers) {
+            Iterator<Slot> it = providers.values().iterator();
+            while (it.hasNext()) {
+                Slot s = it.next();
+                if (now - s.lastUsedAt() > idleMs) {
+                    indexedEntries -= s.index().size();
+                    it.remove();
+                }
+            }
+        }
+        tooLarge.values().removeIf(checkedAt -> now - checkedAt > RELOAD_MS);
+    }
+
+    private ClientTypeaheadIndex load(UUID providerId) {
+        long count = repo.countByProvider_Id(providerId);
+        if (count > maxPerProvider) {
+            tooLarge.put(providerId, System.currentTimeMillis());
+            log.info("Provider {} has {} clients, typeahead stays on the database", providerId, count);
+            return null;
+        }
+        var rows = repo.findTypeaheadRows(providerId, PageRequest.of(0, maxPerProvider));
+        ClientTypeaheadIndex index = new ClientTypeaheadIndex();
+        for (var r : rows) {
+            index.upsert(ClientTypeaheadIndex.Entry.of(r.getId(), r.getName(), r.getPhoneE164(), r.getPersonType(),
+                    r.getCustomerId(), r.getGuestId(), r.getLastVisitAt()));
+        }
+        return index;
+    }
+
+    /** Drops least recently used providers until the entry budget fits; caller holds the lock. */
+    private void trim() {
+        Iterator<Slot> it = providers.values().iterator();
+        while (indexedEntries > maxEntries && providers.size() > 1 && it.hasNext()) {
+            indexedEntries -= it.next().index().size();
+            it.remove();
+        }
+    }
+
+    private int sizeOf(boolean entries) {
+        synchronized (providers) {
+            return entries ? indexedEntries : providers.size();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package uz.navbatuz.backend.providerclient.typeahead;
+
+import uz.navbatuz.backend.common.text.SearchText;
+import uz.navbatuz.backend.providerclient.model.ProviderClient.PersonType;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory client book of one provider for receptionist typeahead.
+ * <p>
+ * Phones live in a digit trie stored in two flat int arrays (ten child slots per node plus a
+ * terminal slot), names in a sorted token map for word-prefix lookups. Results follow the same
+ * rules as {@code ProviderClientRepository.searchIndexed}: phone prefix hits are the first
+ * {@code cap} numbers in digit order, then the most recent visits win. Name hits are ranked by
+ * last visit only; callers fall back to the database when a name query does not fill a page,
+ * since substring and fuzzy matches are not indexed here.
+ */
+public final class ClientTypeaheadIndex {
+
+    public record Entry(UUID id, String name, String phoneE164, PersonType personType, UUID linkId,
+                        long lastVisitAt) {
+
+        public static Entry of(UUID id, String name, String phoneE164, PersonType personType,
+                               UUID customerId, UUID guestId, LocalDateTime lastVisitAt) {
+            return new Entry(id, name, phoneE164, personType,
+                    personType == PersonType.CUSTOMER ? customerId : guestId,
+                    lastVisitAt == null ? 0L : lastVisitAt.atZone(ZONE).toInstant().toEpochMilli());
+        }
+    }
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Tashkent");
+
+    private static final Comparator<Entry> RECENT_FIRST = Comparator
+            .comparingLong(Entry::lastVisitAt).reversed()
+            .thenComparing(Entry::id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Entry> slots = new ArrayList<>();
+    private final List<String> slotNames = new ArrayList<>();   // normalized name per slot
+    private final Map<String, Integer> slotByPhone = new HashMap<>();
+
+    // phone trie over the digits after '+': node n's child for digit d is children[n * 10 + d], 0 = none
+    private int[] children = new int[10 * 256];
+    private int[] terminal = new int[256];                       // slot + 1, 0 = none
+    private int nodeCount = 1;                                   // node 0 is the root
+
+    private final TreeMap<String, Set<Integer>> tokens = new TreeMap<>();
+
+    private final long loadedAt = System.currentTimeMillis();
+
+    public long loadedAt() {
+        return loadedAt;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Inserts or replaces the client with this phone number. */
+    public void upsert(Entry e) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByPhone.get(e.phoneE164());
+            if (slot == null) {
+                slot = slots.size();
+                slots.add(e);
+                slotNames.add(null);
+                slotByPhone.put(e.phoneE164(), slot);
+                addPhone(e.phoneE164(), slot);
+            } else {
+                slots.set(slot, e);
+                removeTokens(slot);
+            }
+            String norm = SearchText.normalize(e.name());
+            slotNames.set(slot, norm);
+            for (String t : tokensOf(norm)) {
+                tokens.computeIfAbsent(t, k -> new HashSet<>()).add(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Most recent visits first. */
+    public List<Entry> recent(int limit) {
+        lock.readLock().lock();
+        try {
+            return top(slots, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** {@code prefix} is "+" followed by digits. */
+    public List<Entry> byPhonePrefix(String prefix, int cap, int limit) {
+        lock.readLock().lock();
+        try {
+            int node = 0;
+            for (int i = 1; i < prefix.length() && node >= 0; i++) {
+                node = child(node, prefix.charAt(i) - '0');
+            }
+            if (node <= 0) return List.of();
+            List<Entry> found = new ArrayList<>();
+            collect(node, cap, found);
+            return top(found, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Clients with a name word starting with every query token, most recent first. */
+    public List<Entry> byNameTokens(String normalizedQuery, int limit) {
+        List<String> query = tokensOf(normalizedQuery);
+        if (query.isEmpty()) return List.of();
+        lock.readLock().lock();
+        try {
+            Set<Integer> hits = null;
+            for (String q : query) {
+                Set<Integer> forToken = new HashSet<>();
+                for (Set<Integer> s : tokens.subMap(q, true, q + Character.MAX_VALUE, false).values()) {
+                    forToken.addAll(s);
+                }
+                if (hits == null) hits = forToken;
+                else hits.retainAll(forToken);
+                if (hits.isEmpty()) return List.of();
+            }
+            List<Entry> found = new ArrayList<>(hits.size());
+            for (int slot : hits) found.add(slots.get(slot));
+            return top(found, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Clients whose normalized name contains {@code normalizedToken}, most recent first. */
+    public List<Entry> byNameContaining(String normalizedToken, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Entry> found = new ArrayList<>();
+            for (int slot = 0; slot < slots.size(); slot++) {
+                if (slotNames.get(slot).contains(normalizedToken)) found.add(slots.get(slot));
+            }
+            return top(found, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private void addPhone(String phone, int slot) {
+        if (phone.length() < 2 || phone.charAt(0) != '+') return;
+        for (int i = 1; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c < '0' || c > '9') return; // not an E.164 number, reachable by name only
+        }
+        int node = 0;
+        for (int i = 1; i < phone.length(); i++) {
+            int d = phone.charAt(i) - '0';
+            int next = children[node * 10 + d];
+            if (next == 0) {
+                next = newNode();
+                children[node * 10 + d] = next;
+            }
+            node = next;
+        }
+        terminal[node] = slot + 1;
+    }
+
+    private int newNode() {
+        if (nodeCount == terminal.length) {
+            terminal = Arrays.copyOf(terminal, nodeCount * 2);
+            children = Arrays.copyOf(children, nodeCount * 2 * 10);
+        }
+        return nodeCount++;
+    }
+
+    private int child(int node, int digit) {
+        if (digit < 0 || digit > 9) return -1;
+        int next = children[node * 10 + digit];
+        return next == 0 ? -1 : next;
+    }
+
+    /** Depth-first in digit order, i.e. the same order as the phone btree. */
+    private void collect(int node, int cap, List<Entry> out) {
+        if (out.size() >= cap) return;
+        if (terminal[node] != 0) out.add(slots.get(terminal[node] - 1));
+        for (int d = 0; d < 10 && out.size() < cap; d++) {
+            int next = children[node * 10 + d];
+            if (next != 0) collect(next, cap, out);
+        }
+    }
+
+    private void removeTokens(int slot) {
+        String old = slotNames.get(slot);
+        if (old == null) return;
+        for (String t : tokensOf(old)) {
+            Set<Integer> s = tokens.get(t);
+            if (s != null && s.remove(slot) && s.isEmpty()) tokens.remove(t);
+        }
+    }
+
+    private static List<String> tokensOf(String normalized) {
+        List<String> out = new ArrayList<>();
+        for (String t : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!t.isEmpty()) out.add(t);
+        }
+        return out;
+    }
+
+    private static List<Entry> top(Collection<Entry> entries, int limit) {
+        PriorityQueue<Entry> heap = new PriorityQueue<>(limit + 1, RECENT_FIRST.reversed());
+        for (Entry e : entries) {
+            heap.offer(e);
+            if (heap.size() > limit) heap.poll();
+        }
+        List<Entry> out = new ArrayList<>(heap);
+        out.sort(RECENT_FIRST);
+        return out;
+    }
+}
@@ -16,6 +16,7 @@ import uz.navbatuz.backend.receptionist.dto.ReceptionistUpdateReq;
 import uz.navbatuz.backend.receptionist.model.Receptionist;
 import uz.navbatuz.backend.receptionist.repository.ReceptionistRepository;
 import uz.navbatuz.backend.security.CurrentUserService;
+import uz.navbatuz.backend.security.PrincipalCache;
 import uz.navbatuz.backend.user.model.User;
 import uz.navbatuz.backend.user.repository.UserRepository;
 import uz.navbatuz.backend.user.service.UserService;
@@ -35,6 +36,7 @@ public class ReceptionistService {
     private final ProviderRepository providers;
     private final CurrentUserService current;
     private final UserRepository userRepo;
+    private final PrincipalCache principalCache;
 
     @Transactional
     public Receptionist createReceptionist(UUID providerId, ReceptionistCreateReq req) {
@@ -114,6 +116,7 @@ public class ReceptionistService {
         if (req.phoneNumber() != null) u.setPhoneNumber(req.phoneNumber().trim());
         if (req.email() != null) u.setEmail(req.email().trim());
         userRepo.save(u);
+        principalCache.evict(u.getId());
 
         return mapToDetailsDto(r);
     }
@@ -0,0 +1,253 @@
+package uz.navbatuz.backend.reminder;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.navbatuz.backend.appointment.dto.UpcomingAppointment;
+import uz.navbatuz.backend.appointment.event.AppointmentEvent;
+import uz.navbatuz.backend.appointment.event.AppointmentEventConsumer;
+import uz.navbatuz.backend.appointment.event.AppointmentEventType;
+import uz.navbatuz.backend.appointment.repository.AppointmentRepository;
+import uz.navbatuz.backend.common.AppointmentStatus;
+import uz.navbatuz.backend.common.DomainMetrics;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Fires {@link ReminderKind reminders} ahead of active appointments through the
+ * {@link ReminderNotifier}.
+ * <p>
+ * Only appointments starting within the lookahead (the longest lead plus two refill periods) are
+ * held, on a {@link TimingWheel} keyed by reminder instant. Every refill loads the slice of time
+ * that just entered the window; booking, reschedule and cancel events received in between
+ * adjust the wheel after their batch commits. Events applied while a refill query runs win over
+ * that query's rows, since the query may have read the state before the change. After a restart the window is simply loaded again,
+ * and reminders missed while down are sent late as long as the next reminder is not due yet.
+ * Notifiers re-check each appointment, so a wheel that missed an event (e.g. it was processed on
+ * another node) never reminds about a cancelled or moved visit.
+ */
+@Slf4j
+@Component
+public class AppointmentReminderScheduler implements AppointmentEventConsumer {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Tashkent");
+    private static final List<AppointmentStatus> ACTIVE = List.of(AppointmentStatus.BOOKED, AppointmentStatus.RESCHEDULED);
+    private static final long RETRY_MS = 60_000;
+    private static final long TICK_MS = 1_000;
+
+    record Key(UUID appointmentId, ReminderKind kind) {}
+
+    private final AppointmentRepository appointmentRepository;
+    private final ReminderNotifier notifier;
+    private final TransactionTemplate tx;
+    private final DomainMetrics metrics;
+    private final boolean enabled;
+    private final long lookaheadMs;
+
+    private final TimingWheel<Key> wheel;
+    private final Map<UUID, LocalDateTime> startsAt = new HashMap<>();
+    private long loadedUntil;   // epoch ms; appointments starting after this are not on the wheel yet
+    private long loadingUntil;  // end of the window a running refill is loading; equals loadedUntil otherwise
+    private final Set<UUID> appliedDuringRefill = new HashSet<>();
+
+    public AppointmentReminderScheduler(AppointmentRepository appointmentRepository,
+                                        ReminderNotifier notifier,
+                                        PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry,
+                                        DomainMetrics metrics,
+                                        @Value("${app.reminders.enabled:true}") boolean enabled,
+                                        @Value("${app.reminders.refill-ms:1800000}") long refillMs) {
+        this.appointmentRepository = appointmentRepository;
+        this.notifier = notifier;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.lookaheadMs = ReminderKind.DAY_BEFORE.lead().toMillis() + 2 * refillMs;
+        long now = System.currentTimeMillis();
+        this.wheel = new TimingWheel<>(TICK_MS, now);
+        this.loadedUntil = now;
+        this.loadingUntil = now;
+        Gauge.builder("reminders.scheduled", this, s -> s.size())
+                .description("Reminders waiting on the timing wheel")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) refill();
+    }
+
+    /** Loads appointments that entered the lookahead window since the last refill. */
+    @Scheduled(fixedDelayString = "${app.reminders.refill-ms:1800000}", initialDelayString = "${app.reminders.refill-ms:1800000}")
+    public void refill() {
+        if (!enabled) return;
+        refill(System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelay = TICK_MS)
+    public void tick() {
+        if (!enabled) return;
+        fireDue(System.currentTimeMillis());
+    }
+
+    @Override
+    public void onEvents(List<AppointmentEvent> events) {
+        if (!enabled) return;
+        Set<UUID> changed = new LinkedHashSet<>();
+        Set<UUID> ended = new HashSet<>();
+        for (AppointmentEvent e : events) {
+            if (e.type() == AppointmentEventType.BOOKED || e.type() == AppointmentEventType.RESCHEDULED
+                    || e.type() == AppointmentEventType.NO_SHOW_UNDONE) {
+                changed.add(e.appointmentId());
+                ended.remove(e.appointmentId());
+            } else {
+                ended.add(e.appointmentId());
+                changed.remove(e.appointmentId());
+            }
+        }
+        List<UpcomingAppointment> upcoming = changed.isEmpty()
+                ? List.of()
+                : appointmentRepository.findUpcomingByIdIn(changed, ACTIVE);
+        afterCommit(() -> apply(upcoming, changed, ended, System.currentTimeMillis()));
+    }
+
+    /* ---------------- package-private for tests ---------------- */
+
+    void refill(long now) {
+        long until = now + lookaheadMs;
+        LocalDateTime from;
+        synchronized (wheel) {
+            // from here on, events for the new slice are applied directly (see apply)
+            from = toLocal(loadedUntil);
+            loadingUntil = Math.max(until, loadedUntil);
+            appliedDuringRefill.clear();
+        }
+        LocalDateTime to = toLocal(until);
+        List<UpcomingAppointment> rows = appointmentRepository.findUpcoming(from.toLocalDate(), to.toLocalDate(), ACTIVE);
+        int loaded = 0;
+        synchronized (wheel) {
+            for (UpcomingAppointment a : rows) {
+                LocalDateTime start = a.startsAt();
+                // an event applied while the query ran is at least as new as this row
+                if (start.isAfter(from) && !start.isAfter(to) && !appliedDuringRefill.contains(a.id())) {
+                    schedule(a, now);
+                    loaded++;
+                }
+            }
+            loadedUntil = loadingUntil;
+            appliedDuringRefill.clear();
+            startsAt.values().removeIf(start -> toEpoch(start) < now);
+        }
+        if (loaded > 0) log.debug("Reminder window now ends {}, {} appointments loaded", to, loaded);
+    }
+
+    void apply(List<UpcomingAppointment> upcoming, Set<UUID> changed, Set<UUID> ended, long now) {
+        synchronized (wheel) {
+            if (loadingUntil > loadedUntil) {
+                appliedDuringRefill.addAll(changed);
+                appliedDuringRefill.addAll(ended);
+            }
+            // changed but not found active: the appointment left the bookable states
+            Set<UUID> gone = new HashSet<>(changed);
+            for (UpcomingAppointment a : upcoming) {
+                gone.remove(a.id());
+                unschedule(a.id());
+                // beyond the window: the refill that reaches it loads the current start time.
+                // A refill in progress may have queried before this change, so its slice counts as loaded.
+                if (toEpoch(a.startsAt()) <= loadingUntil) schedule(a, now);
+            }
+            gone.forEach(this::unschedule);
+            ended.forEach(this::unschedule);
+        }
+    }
+
+    void fireDue(long now) {
+        List<DueReminder> due = new ArrayList<>();
+        synchronized (wheel) {
+            for (Key k : wheel.advanceTo(now)) {
+                LocalDateTime start = startsAt.get(k.appointmentId());
+                if (start != null) due.add(new DueReminder(k.appointmentId(), k.kind(), start));
+            }
+        }
+        if (due.isEmpty()) return;
+        try {
+            metrics.run("reminders.send", Tags.empty(), call -> tx.executeWithoutResult(s -> notifier.send(due)));
+        } catch (RuntimeException e) {
+            log.warn("Sending {} reminders failed, retrying in a minute: {}", due.size(), e.getMessage());
+            synchronized (wheel) {
+                for (DueReminder r : due) {
+                    // still the same start and not started yet
+                    if (r.startsAt().equals(startsAt.get(r.appointmentId())) && toEpoch(r.startsAt()) > now) {
+                        wheel.schedule(new Key(r.appointmentId(), r.kind()), now + RETRY_MS);
+                    }
+                }
+            }
+        }
+    }
+
+    int size() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /* ---------------- helpers (caller holds the wheel lock) ---------------- */
+
+    private void schedule(UpcomingAppointment a, long now) {
+        long start = toEpoch(a.startsAt());
+        if (start <= now) return;
+        long booked = a.bookedDate() == null ? Long.MIN_VALUE : toEpoch(a.bookedDate());
+        startsAt.put(a.id(), a.startsAt());
+        ReminderKind[] kinds = ReminderKind.values();
+        for (int i = 0; i < kinds.length; i++) {
+            long fireAt = start - kinds[i].lead().toMillis();
+            long nextFireAt = i + 1 < kinds.length ? start - kinds[i + 1].lead().toMillis() : start;
+            Key key = new Key(a.id(), kinds[i]);
+            if (fireAt > now) {
+                wheel.schedule(key, fireAt);
+            } else if (booked < fireAt && now < nextFireAt) {
+                // missed while down: still worth sending until the next reminder takes over
+                wheel.schedule(key, now);
+            }
+        }
+    }
+
+    private void unschedule(UUID appointmentId) {
+        startsAt.remove(appointmentId);
+        for (ReminderKind k : ReminderKind.values()) wheel.cancel(new Key(appointmentId, k));
+    }
+
+    private static long toEpoch(LocalDateTime t) {
+        return t.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocal(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZONE);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
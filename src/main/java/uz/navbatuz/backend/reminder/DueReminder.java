@@ -0,0 +1,7 @@
+package uz.navbatuz.backend.reminder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** A reminder that came due; {@code startsAt} is the start the reminder was scheduled for. */
+public record DueReminder(UUID appointmentId, ReminderKind kind, LocalDateTime startsAt) {}
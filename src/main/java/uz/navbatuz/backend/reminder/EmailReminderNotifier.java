@@ -0,0 +1,86 @@
+package uz.navbatuz.backend.reminder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uz.navbatuz.backend.appointment.dto.ReminderDetails;
+import uz.navbatuz.backend.appointment.repository.AppointmentRepository;
+import uz.navbatuz.backend.common.AppointmentStatus;
+import uz.navbatuz.backend.common.EmailService;
+import uz.navbatuz.backend.mail.template.MailTemplate;
+import uz.navbatuz.backend.mail.template.MailTemplateService;
+import uz.navbatuz.backend.mail.template.RenderedMail;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Emails reminders to customers. Guests have no email address and are skipped until there is
+ * an SMS channel. The idempotency key includes the start time, so a node that fires the same
+ * reminder again is a no-op while a reschedule gets a fresh reminder.
+ */
+@Component
+public class EmailReminderNotifier implements ReminderNotifier {
+
+    private static final DateTimeFormatter WHEN = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+    private final AppointmentRepository appointmentRepository;
+    private final MailTemplateService mailTemplates;
+    private final EmailService emailService;
+    private final String publicUrl;
+    private final Counter sent;
+    private final Counter skipped;
+
+    public EmailReminderNotifier(AppointmentRepository appointmentRepository,
+                                 MailTemplateService mailTemplates,
+                                 EmailService emailService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.public-url:${app.publicUrl:https://birzum.app}}") String publicUrl) {
+        this.appointmentRepository = appointmentRepository;
+        this.mailTemplates = mailTemplates;
+        this.emailService = emailService;
+        this.publicUrl = publicUrl;
+        this.sent = Counter.builder("reminders.notified").tag("channel", "email")
+                .description("Reminders handed to a delivery channel")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("reminders.skipped").tag("channel", "email")
+                .description("Due reminders dropped as stale or unreachable")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void send(List<DueReminder> reminders) {
+        Map<UUID, ReminderDetails> details = appointmentRepository.findReminderDetails(
+                        reminders.stream().map(DueReminder::appointmentId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(ReminderDetails::appointmentId, Function.identity()));
+
+        for (DueReminder r : reminders) {
+            ReminderDetails d = details.get(r.appointmentId());
+            if (d == null || !stillApplies(d, r) || d.customerEmail() == null || d.customerEmail().isBlank()) {
+                skipped.increment();
+                continue;
+            }
+            RenderedMail mail = mailTemplates.render(MailTemplate.APPOINTMENT_REMINDER, d.customerLanguage(),
+                    safe(d.customerName()), d.providerName(), d.serviceName(), safe(d.workerName()),
+                    WHEN.format(r.startsAt()), publicUrl + "/appointments/" + r.appointmentId());
+            String key = "reminder:" + r.appointmentId() + ":" + r.kind() + ":" + r.startsAt();
+            if (emailService.sendHtml(key, d.customerEmail(), mail.subject(), mail.html())) {
+                sent.increment();
+            }
+        }
+    }
+
+    private static boolean stillApplies(ReminderDetails d, DueReminder r) {
+        return (d.status() == AppointmentStatus.BOOKED || d.status() == AppointmentStatus.RESCHEDULED)
+                && d.date().atTime(d.startTime()).equals(r.startsAt());
+    }
+
+    private static String safe(String s) {
+        return s == null ? "" : s;
+    }
+}
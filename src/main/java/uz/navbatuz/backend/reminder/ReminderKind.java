@@ -0,0 +1,19 @@
+package uz.navbatuz.backend.reminder;
+
+import java.time.Duration;
+
+/** Reminder lead times, longest first. */
+public enum ReminderKind {
+    DAY_BEFORE(Duration.ofHours(24)),
+    TWO_HOURS_BEFORE(Duration.ofHours(2));
+
+    private final Duration lead;
+
+    ReminderKind(Duration lead) {
+        this.lead = lead;
+    }
+
+    public Duration lead() {
+        return lead;
+    }
+}
@@ -0,0 +1,14 @@
+package uz.navbatuz.backend.reminder;
+
+import java.util.List;
+
+/**
+ * Delivery channel for appointment reminders. Called with a batch of due reminders inside a
+ * transaction; a thrown exception rolls it back and the batch is offered again a minute later.
+ * Implementations re-check the appointment and skip reminders that no longer apply (cancelled,
+ * moved), since another node's wheel may be behind on events.
+ */
+public interface ReminderNotifier {
+
+    void send(List<DueReminder> reminders);
+}
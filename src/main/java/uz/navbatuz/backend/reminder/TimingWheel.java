@@ -0,0 +1,122 @@
+package uz.navbatuz.backend.reminder;
+
+import java.util.*;
+
+/**
+ * Hierarchical timing wheel keyed by deadline.
+ * <p>
+ * Level 0 has {@value #SLOTS} buckets of one tick each, every higher level {@value #SLOTS}
+ * times coarser. A timer sits on the lowest level where its deadline and the current tick share
+ * all higher digits; when the wheel reaches the start of a coarse bucket, that bucket is
+ * re-inserted one level down. Scheduling and cancelling are O(1) and advancing costs one bucket
+ * per tick plus the timers that actually move. Not thread-safe; the owner serializes access.
+ */
+final class TimingWheel<K> {
+
+    static final int SLOTS = 64;
+    private static final int BITS = 6;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private static final class Timer<K> {
+        final K key;
+        final long deadlineTick;
+        Set<Timer<K>> bucket;
+
+        Timer(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    private final long tickMs;
+    private final List<Set<Timer<K>>[]> levels = new ArrayList<>(LEVELS);
+    private final Map<K, Timer<K>> byKey = new HashMap<>();
+    private final Set<Timer<K>> overdue = new LinkedHashSet<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMs, long nowMs) {
+        this.tickMs = tickMs;
+        this.currentTick = nowMs / tickMs;
+        for (int l = 0; l < LEVELS; l++) {
+            Set<Timer<K>>[] buckets = new Set[SLOTS];
+            for (int s = 0; s < SLOTS; s++) buckets[s] = new LinkedHashSet<>();
+            levels.add(buckets);
+        }
+    }
+
+    /** Longest delay the wheel can hold. */
+    long horizonMs() {
+        return ((1L << (BITS * LEVELS)) - 1) * tickMs;
+    }
+
+    int size() {
+        return byKey.size();
+    }
+
+    boolean contains(K key) {
+        return byKey.containsKey(key);
+    }
+
+    /** Schedules {@code key} at {@code deadlineMs}, replacing an earlier schedule; past deadlines fire on the next advance. */
+    void schedule(K key, long deadlineMs) {
+        cancel(key);
+        long deadlineTick = Math.max(deadlineMs / tickMs, currentTick);
+        if (deadlineTick - currentTick > horizonMs() / tickMs) {
+            throw new IllegalArgumentException("Deadline beyond wheel horizon: " + deadlineMs);
+        }
+        Timer<K> t = new Timer<>(key, deadlineTick);
+        byKey.put(key, t);
+        place(t);
+    }
+
+    boolean cancel(K key) {
+        Timer<K> t = byKey.remove(key);
+        if (t == null) return false;
+        t.bucket.remove(t);
+        return true;
+    }
+
+    /** Moves the wheel to {@code nowMs} and returns the keys that came due, earliest first. */
+    List<K> advanceTo(long nowMs) {
+        List<K> due = new ArrayList<>();
+        drain(overdue, due);
+        long target = nowMs / tickMs;
+        while (currentTick < target) {
+            currentTick++;
+            // cascade from the coarsest level whose digit just rolled over
+            for (int l = LEVELS - 1; l >= 1; l--) {
+                if ((currentTick & ((1L << (BITS * l)) - 1)) == 0) {
+                    Set<Timer<K>> bucket = levels.get(l)[(int) ((currentTick >>> (BITS * l)) & MASK)];
+                    List<Timer<K>> moving = new ArrayList<>(bucket);
+                    bucket.clear();
+                    for (Timer<K> t : moving) place(t);
+                }
+            }
+            drain(levels.get(0)[(int) (currentTick & MASK)], due);
+            drain(overdue, due);
+        }
+        return due;
+    }
+
+    private void place(Timer<K> t) {
+        if (t.deadlineTick <= currentTick) {
+            t.bucket = overdue;
+        } else {
+            int level = 0;
+            while (level < LEVELS - 1 && ((t.deadlineTick ^ currentTick) >>> (BITS * (level + 1))) != 0) level++;
+            t.bucket = levels.get(level)[(int) ((t.deadlineTick >>> (BITS * level)) & MASK)];
+        }
+        t.bucket.add(t);
+    }
+
+    private void drain(Set<Timer<K>> bucket, List<K> out) {
+        if (bucket.isEmpty()) return;
+        for (Timer<K> t : bucket) {
+            byKey.remove(t.key);
+            out.add(t.key);
+        }
+        bucket.clear();
+    }
+}
@@ -1,6 +1,9 @@
 package uz.navbatuz.backend.review.dto;
 
+import java.util.List;
+
 public record RatingSummary(
         Double average,
-        Long count
-) {}
\ No newline at end of file
+        Long count,
+        List<Long> stars   // index 0 = 1 star … index 4 = 5 stars
+) {}
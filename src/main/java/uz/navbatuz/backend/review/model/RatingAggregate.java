@@ -0,0 +1,58 @@
+package uz.navbatuz.backend.review.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Running rating totals for one provider or worker. Maintained by atomic delta upserts in
+ * {@code RatingAggregateRepository}, never by read-modify-write, so concurrent reviews do not
+ * collide and summaries are a single primary-key read.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+@Table(name = "rating_aggregates")
+public class RatingAggregate {
+
+    public enum SubjectType { PROVIDER, WORKER }
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Enumerated(EnumType.STRING)
+        @Column(name = "subject_type", length = 16)
+        private SubjectType subjectType;
+
+        @Column(name = "subject_id")
+        private UUID subjectId;
+    }
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "stars_1", nullable = false)
+    private long stars1;
+
+    @Column(name = "stars_2", nullable = false)
+    private long stars2;
+
+    @Column(name = "stars_3", nullable = false)
+    private long stars3;
+
+    @Column(name = "stars_4", nullable = false)
+    private long stars4;
+
+    @Column(name = "stars_5", nullable = false)
+    private long stars5;
+}
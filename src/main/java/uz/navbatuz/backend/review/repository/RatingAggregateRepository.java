@@ -0,0 +1,76 @@
+package uz.navbatuz.backend.review.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import uz.navbatuz.backend.review.model.RatingAggregate;
+
+import java.util.UUID;
+
+public interface RatingAggregateRepository extends JpaRepository<RatingAggregate, RatingAggregate.Key> {
+
+    interface Totals {
+        long getRatingSum();
+        long getRatingCount();
+    }
+
+    /**
+     * Creates the aggregate row from the existing (non-deleted) reviews of the subject.
+     * No-op if the row already exists; used once per subject so pre-existing reviews are counted.
+     */
+    @Modifying
+    @Query(
+            value = """
+      INSERT INTO rating_aggregates (subject_type, subject_id, rating_sum, rating_count,
+                                     stars_1, stars_2, stars_3, stars_4, stars_5)
+      SELECT :subjectType, :subjectId,
+             COALESCE(SUM(r.rating), 0), COUNT(r.id),
+             COUNT(*) FILTER (WHERE r.rating = 1),
+             COUNT(*) FILTER (WHERE r.rating = 2),
+             COUNT(*) FILTER (WHERE r.rating = 3),
+             COUNT(*) FILTER (WHERE r.rating = 4),
+             COUNT(*) FILTER (WHERE r.rating = 5)
+      FROM reviews r
+      WHERE r.deleted = false
+        AND ((:subjectType = 'PROVIDER' AND r.provider_id = :subjectId)
+          OR (:subjectType = 'WORKER' AND r.worker_id = :subjectId))
+      ON CONFLICT (subject_type, subject_id) DO NOTHING
+    """,
+            nativeQuery = true
+    )
+    int seed(@Param("subjectType") String subjectType, @Param("subjectId") UUID subjectId);
+
+    /**
+     * Adds {@code sign} (+1 / -1) reviews with the given rating to the subject in one atomic
+     * statement and returns the new totals.
+     */
+    @Transactional
+    @Query(
+            value = """
+      INSERT INTO rating_aggregates AS a (subject_type, subject_id, rating_sum, rating_count,
+                                          stars_1, stars_2, stars_3, stars_4, stars_5)
+      VALUES (:subjectType, :subjectId, :sign * :rating, :sign,
+              CASE WHEN :rating = 1 THEN :sign ELSE 0 END,
+              CASE WHEN :rating = 2 THEN :sign ELSE 0 END,
+              CASE WHEN :rating = 3 THEN :sign ELSE 0 END,
+              CASE WHEN :rating = 4 THEN :sign ELSE 0 END,
+              CASE WHEN :rating = 5 THEN :sign ELSE 0 END)
+      ON CONFLICT (subject_type, subject_id) DO UPDATE SET
+          rating_sum   = a.rating_sum   + EXCLUDED.rating_sum,
+          rating_count = a.rating_count + EXCLUDED.rating_count,
+          stars_1      = a.stars_1      + EXCLUDED.stars_1,
+          stars_2      = a.stars_2      + EXCLUDED.stars_2,
+          stars_3      = a.stars_3      + EXCLUDED.stars_3,
+          stars_4      = a.stars_4      + EXCLUDED.stars_4,
+          stars_5      = a.stars_5      + EXCLUDED.stars_5
+      RETURNING a.rating_sum AS "ratingSum", a.rating_count AS "ratingCount"
+    """,
+            nativeQuery = true
+    )
+    Totals applyDelta(@Param("subjectType") String subjectType,
+                      @Param("subjectId") UUID subjectId,
+                      @Param("rating") int rating,
+                      @Param("sign") int sign);
+}
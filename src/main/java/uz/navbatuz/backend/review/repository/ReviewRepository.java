@@ -5,14 +5,19 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import uz.navbatuz.backend.review.model.Review;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface ReviewRepository extends JpaRepository<Review, UUID> {
 
     boolean existsByAppointmentId(UUID appointmentId);
 
+    @Query("select r.appointmentId from Review r where r.appointmentId in :appointmentIds")
+    Set<UUID> findReviewedAppointmentIds(Collection<UUID> appointmentIds);
+
     @Query("""
            select r from Review r
            where r.provider.id = :providerId
@@ -0,0 +1,83 @@
+package uz.navbatuz.backend.review.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.navbatuz.backend.provider.repository.ProviderRepository;
+import uz.navbatuz.backend.provider.service.ProviderProfileCache;
+import uz.navbatuz.backend.provider.service.ProviderSearchIndexer;
+import uz.navbatuz.backend.review.dto.RatingSummary;
+import uz.navbatuz.backend.review.model.RatingAggregate;
+import uz.navbatuz.backend.review.model.RatingAggregate.SubjectType;
+import uz.navbatuz.backend.review.model.Review;
+import uz.navbatuz.backend.review.repository.RatingAggregateRepository;
+import uz.navbatuz.backend.worker.repository.WorkerRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Incremental rating totals per provider and worker. Each review change is applied as a
+ * +1 / -1 delta; the denormalized {@code avgRating}/{@code reviewsCount} columns are refreshed
+ * from the returned totals with version-less bulk updates.
+ */
+@Service
+@RequiredArgsConstructor
+public class RatingAggregateService {
+
+    private final RatingAggregateRepository aggregateRepository;
+    private final ProviderRepository providerRepository;
+    private final WorkerRepository workerRepository;
+    private final ProviderProfileCache profileCache;
+    private final ProviderSearchIndexer searchIndexer;
+
+    /**
+     * Makes sure the subject has an aggregate row built from its existing reviews.
+     * Call before writing the review being added or removed, so the seed does not include it.
+     */
+    public void ensureSeeded(SubjectType type, UUID subjectId) {
+        if (subjectId == null) return;
+        if (!aggregateRepository.existsById(new RatingAggregate.Key(type, subjectId))) {
+            aggregateRepository.seed(type.name(), subjectId);
+        }
+    }
+
+    /** Applies a review to both its provider and worker aggregates; {@code sign} is +1 or -1. */
+    public void apply(Review r, int sign) {
+        if (r.getProvider() != null) {
+            UUID id = r.getProvider().getId();
+            var t = aggregateRepository.applyDelta(SubjectType.PROVIDER.name(), id, r.getRating(), sign);
+            providerRepository.updateRating(id, average(t.getRatingSum(), t.getRatingCount()), t.getRatingCount());
+            profileCache.evict(id);
+            searchIndexer.markDirty(id);
+        }
+        if (r.getWorker() != null) {
+            UUID id = r.getWorker().getId();
+            var t = aggregateRepository.applyDelta(SubjectType.WORKER.name(), id, r.getRating(), sign);
+            workerRepository.updateRating(id, average(t.getRatingSum(), t.getRatingCount()), t.getRatingCount());
+        }
+    }
+
+    @Transactional
+    public RatingSummary summary(SubjectType type, UUID subjectId) {
+        var key = new RatingAggregate.Key(type, subjectId);
+        var agg = aggregateRepository.findById(key).orElse(null);
+        if (agg == null) {
+            // first read for a subject with legacy reviews: build the row once
+            aggregateRepository.seed(type.name(), subjectId);
+            agg = aggregateRepository.findById(key).orElse(null);
+        }
+        if (agg == null) {
+            return new RatingSummary(0.0, 0L, List.of(0L, 0L, 0L, 0L, 0L));
+        }
+        return new RatingSummary(
+                (double) average(agg.getRatingSum(), agg.getRatingCount()),
+                agg.getRatingCount(),
+                List.of(agg.getStars1(), agg.getStars2(), agg.getStars3(), agg.getStars4(), agg.getStars5())
+        );
+    }
+
+    private static float average(long sum, long count) {
+        return count <= 0 ? 0.0f : (float) sum / count;
+    }
+}
@@ -0,0 +1,94 @@
+package uz.navbatuz.backend.review.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uz.navbatuz.backend.appointment.event.AppointmentEvent;
+import uz.navbatuz.backend.appointment.event.AppointmentEventConsumer;
+import uz.navbatuz.backend.appointment.event.AppointmentEventType;
+import uz.navbatuz.backend.common.EmailService;
+import uz.navbatuz.backend.customer.model.Customer;
+import uz.navbatuz.backend.customer.repository.CustomerRepository;
+import uz.navbatuz.backend.mail.template.MailTemplate;
+import uz.navbatuz.backend.mail.template.MailTemplateService;
+import uz.navbatuz.backend.mail.template.RenderedMail;
+import uz.navbatuz.backend.provider.model.Provider;
+import uz.navbatuz.backend.provider.repository.ProviderRepository;
+import uz.navbatuz.backend.review.repository.ReviewRepository;
+import uz.navbatuz.backend.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/** Emails customers a "rate your visit" link once their appointment is COMPLETED. */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReviewPromptConsumer implements AppointmentEventConsumer {
+
+    private final CustomerRepository customerRepository;
+    private final ProviderRepository providerRepository;
+    private final ReviewRepository reviewRepository;
+    private final MailTemplateService mailTemplates;
+    private final EmailService emailService;
+
+    @Value("${app.public-url:${app.publicUrl:https://birzum.app}}")
+    private String publicUrl;
+
+    private record Prompt(UUID appointmentId, String to, String subject, String html) {}
+
+    @Override
+    public void onEvents(List<AppointmentEvent> events) {
+        List<AppointmentEvent> completed = events.stream()
+                .filter(e -> e.type() == AppointmentEventType.COMPLETED && e.customerId() != null)
+                .toList();
+        if (completed.isEmpty()) return;
+
+        // one query for the whole batch: already reviewed appointments get no prompt
+        Set<UUID> reviewed = reviewRepository.findReviewedAppointmentIds(
+                completed.stream().map(AppointmentEvent::appointmentId).collect(Collectors.toSet()));
+        if (!reviewed.isEmpty()) {
+            completed = completed.stream().filter(e -> !reviewed.contains(e.appointmentId())).toList();
+            if (completed.isEmpty()) return;
+        }
+
+        Map<UUID, Customer> customers = customerRepository.findAllWithUserByIdIn(
+                        completed.stream().map(AppointmentEvent::customerId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Customer::getId, Function.identity()));
+        Map<UUID, Provider> providers = providerRepository.findAllById(
+                        completed.stream().map(AppointmentEvent::providerId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Provider::getId, Function.identity()));
+
+        List<Prompt> prompts = new ArrayList<>();
+        for (AppointmentEvent e : completed) {
+            Customer c = customers.get(e.customerId());
+            Provider p = providers.get(e.providerId());
+            if (c == null || p == null) continue;
+            User u = c.getUser();
+            if (u.getEmail() == null || u.getEmail().isBlank()) continue;
+
+            String link = publicUrl + "/appointments/" + e.appointmentId() + "/review";
+            RenderedMail mail = mailTemplates.render(MailTemplate.REVIEW_PROMPT, u.getLanguage(),
+                    safe(u.getName()), p.getName(), link);
+            prompts.add(new Prompt(e.appointmentId(), u.getEmail(), mail.subject(), mail.html()));
+        }
+
+        // queued in the batch transaction; a replayed batch hits the same key and is not mailed twice
+        prompts.forEach(this::send);
+    }
+
+    // a failed insert fails the batch, which the outbox retries; the key keeps the retry from double-queueing
+    private void send(Prompt prompt) {
+        emailService.sendHtml("review-prompt:" + prompt.appointmentId(), prompt.to(), prompt.subject(), prompt.html());
+    }
+
+    private static String safe(String s) {
+        return s == null ? "" : s;
+    }
+}
@@ -9,17 +9,17 @@ import org.springframework.web.server.ResponseStatusException;
 import uz.navbatuz.backend.appointment.model.Appointment;
 import uz.navbatuz.backend.appointment.repository.AppointmentRepository;
 import uz.navbatuz.backend.common.AppointmentStatus;
+import uz.navbatuz.backend.common.DomainMetrics;
 import uz.navbatuz.backend.provider.model.Provider;
-import uz.navbatuz.backend.provider.repository.ProviderRepository;
 import uz.navbatuz.backend.review.dto.CreateReviewRequest;
 import uz.navbatuz.backend.review.dto.RatingSummary;
 import uz.navbatuz.backend.review.dto.ReviewResponse;
+import uz.navbatuz.backend.review.model.RatingAggregate.SubjectType;
 import uz.navbatuz.backend.review.model.Review;
 import uz.navbatuz.backend.review.repository.ReviewRepository;
 import uz.navbatuz.backend.security.CurrentUserService;
 import uz.navbatuz.backend.user.model.User;
 import uz.navbatuz.backend.worker.model.Worker;
-import uz.navbatuz.backend.worker.repository.WorkerRepository;
 
 import java.time.*;
 import java.util.List;
@@ -31,9 +31,9 @@ public class ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final AppointmentRepository appointmentRepository;
-    private final ProviderRepository providerRepository;
-    private final WorkerRepository workerRepository;
+    private final RatingAggregateService ratingAggregateService;
     private final CurrentUserService currentUserService;
+    private final DomainMetrics metrics;
 
     private static final int MIN_RATING = 1;
     private static final int MAX_RATING = 5;
@@ -41,6 +41,10 @@ public class ReviewService {
 
     @Transactional
     public ReviewResponse create(CreateReviewRequest req) {
+        return metrics.timed("reviews.create", DomainMetrics.BY_CATEGORY, call -> create(req, call));
+    }
+
+    private ReviewResponse create(CreateReviewRequest req, DomainMetrics.Call call) {
         UUID currentUserId = currentUserService.getCurrentUserId();
 
         // rating bounds
@@ -86,6 +90,11 @@ public class ReviewService {
         } else if (appt.getService() != null && appt.getService().getProvider() != null) {
             provider = appt.getService().getProvider();
         }
+        if (provider != null) call.category(provider.getCategory());
+
+        // seed aggregates from existing reviews before this one is written
+        if (provider != null) ratingAggregateService.ensureSeeded(SubjectType.PROVIDER, provider.getId());
+        if (worker != null)   ratingAggregateService.ensureSeeded(SubjectType.WORKER, worker.getId());
 
         // build & save
         Review r = Review.builder()
@@ -102,21 +111,8 @@ public class ReviewService {
 
         r = reviewRepository.save(r);
 
-        // aggregates
-        if (provider != null) {
-            Double avg = reviewRepository.avgByProviderId(provider.getId());
-            Long cnt   = reviewRepository.countByProviderId(provider.getId());
-            provider.setAvgRating(avg == null ? 0.0f : avg.floatValue());
-            provider.setReviewsCount(cnt == null ? 0L : cnt);
-            providerRepository.save(provider);
-        }
-        if (worker != null) {
-            Double avg = reviewRepository.avgByWorkerId(worker.getId());
-            Long cnt   = reviewRepository.countByWorkerId(worker.getId());
-            worker.setAvgRating(avg == null ? 0.0f : avg.floatValue());
-            worker.setReviewsCount(cnt == null ? 0L : cnt);
-            workerRepository.save(worker);
-        }
+        // aggregates: atomic +1 delta, no rescans and no versioned entity saves
+        ratingAggregateService.apply(r, +1);
 
         // return DTO (avoid serializing entity graph)
         return map(r);
@@ -134,11 +130,15 @@ public class ReviewService {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot delete this review");
         }
 
+        if (r.isDeleted()) return; // already counted out
+
+        if (r.getProvider() != null) ratingAggregateService.ensureSeeded(SubjectType.PROVIDER, r.getProvider().getId());
+        if (r.getWorker()   != null) ratingAggregateService.ensureSeeded(SubjectType.WORKER, r.getWorker().getId());
+
         r.setDeleted(true);
         reviewRepository.save(r);
 
-        if (r.getProvider() != null) recalcProviderAggregate(r.getProvider().getId());
-        if (r.getWorker()   != null) recalcWorkerAggregate(r.getWorker().getId());
+        ratingAggregateService.apply(r, -1);
     }
 
     public List<ReviewResponse> listByProvider(UUID providerId, int page, int size) {
@@ -152,41 +152,15 @@ public class ReviewService {
     }
 
     public RatingSummary getProviderSummary(UUID providerId) {
-        Double avg = reviewRepository.avgByProviderId(providerId);
-        Long cnt   = reviewRepository.countByProviderId(providerId);
-        return new RatingSummary(avg, cnt == null ? 0L : cnt);
+        return ratingAggregateService.summary(SubjectType.PROVIDER, providerId);
     }
 
     public RatingSummary getWorkerSummary(UUID workerId) {
-        Double avg = reviewRepository.avgByWorkerId(workerId);
-        Long cnt   = reviewRepository.countByWorkerId(workerId);
-        return new RatingSummary(avg, cnt == null ? 0L : cnt);
+        return ratingAggregateService.summary(SubjectType.WORKER, workerId);
     }
 
     // ---- helpers ----
 
-    private void recalcProviderAggregate(UUID providerId) {
-        Double avg = reviewRepository.avgByProviderId(providerId);
-        Long cnt   = reviewRepository.countByProviderId(providerId);
-
-        var p = providerRepository.findById(providerId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Provider not found"));
-        p.setAvgRating(avg == null ? 0.0f : avg.floatValue());
-        p.setReviewsCount(cnt == null ? 0L : cnt);
-        providerRepository.save(p);
-    }
-
-    private void recalcWorkerAggregate(UUID workerId) {
-        Double avg = reviewRepository.avgByWorkerId(workerId);
-        Long cnt   = reviewRepository.countByWorkerId(workerId);
-
-        var w = workerRepository.findById(workerId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Worker not found"));
-        w.setAvgRating(avg == null ? 0.0f : avg.floatValue());
-        w.setReviewsCount(cnt == null ? 0L : cnt);
-        workerRepository.save(w);
-    }
-
     private ReviewResponse map(Review r) {
         return new ReviewResponse(
                 r.getId(),
@@ -0,0 +1,19 @@
+package uz.navbatuz.backend.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import uz.navbatuz.backend.common.Role;
+
+import java.util.UUID;
+
+/**
+ * What the {@code SecurityContext} holds for a JWT-authenticated request: the user's id and
+ * current role, nothing that needs a persistence context. Immutable, so {@link PrincipalCache}
+ * can share one instance across requests. {@link #getName()} is the email, as before.
+ */
+public record AuthenticatedUser(UUID id, String email, Role role, boolean active) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -30,9 +30,9 @@ public class CurrentUserService {
 
         Object principal = auth.getPrincipal();
 
-        // Case 1: Your domain User
-        if (principal instanceof User u) {
-            return u.getId();
+        // Case 1: JWT-authenticated request
+        if (principal instanceof AuthenticatedUser u) {
+            return u.id();
         }
 
         // Case 2: Spring Security UserDetails -> username = email
@@ -63,9 +63,9 @@ public class CurrentUserService {
         Authentication auth = getAuthOrThrow();
         Object principal = auth.getPrincipal();
 
-        // Case 1: Your domain User already present
-        if (principal instanceof User u) {
-            Role r = u.getRole();
+        // Case 1: JWT-authenticated request, role loaded with the principal
+        if (principal instanceof AuthenticatedUser u) {
+            Role r = u.role();
             if (r == null) throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User has no role");
             return r;
         }
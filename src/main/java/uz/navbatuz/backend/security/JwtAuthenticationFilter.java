@@ -37,10 +37,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserRepository userRepository) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserRepository userRepository, PrincipalCache principalCache) {
         this.jwtService = jwtService;
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -77,27 +79,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
         String token = header.substring(7);
-        uz.navbatuz.backend.user.model.User domainUser = null;
+        AuthenticatedUser principal = null;
         try {
-            var sub = jwtService.extractSubject(token);
+            // signature + expiry are verified here, once per request
+            var sub = jwtService.parseClaims(token).getSubject();
             try {
                 var id = java.util.UUID.fromString(sub);
-                domainUser = userRepository.findById(id).orElse(null);
+                principal = principalCache.get(id, key -> userRepository.findPrincipalById(key).orElse(null));
             } catch (IllegalArgumentException ignored) {
-                domainUser = userRepository.findByEmail(sub).orElse(null);
+                // legacy email subject: the id is only known after the load, too late to version it
+                principal = userRepository.findPrincipalByEmail(sub).orElse(null);
             }
         } catch (Exception ignored) {
             chain.doFilter(request, response);
             return;
         }
 
-        if (domainUser != null
-                && SecurityContextHolder.getContext().getAuthentication() == null
-                && !jwtService.isExpired(token)) {
+        if (principal != null) {
             var authority = new org.springframework.security.core.authority.SimpleGrantedAuthority(
-                    "ROLE_" + domainUser.getRole().name());
-            var auth = new UsernamePasswordAuthenticationToken(domainUser, null, java.util.List.of(authority));
+                    "ROLE_" + principal.role().name());
+            var auth = new UsernamePasswordAuthenticationToken(principal, null, java.util.List.of(authority));
             auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(auth);
         }
@@ -0,0 +1,85 @@
+package uz.navbatuz.backend.security;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Authenticated principals keyed by user id, so {@link JwtAuthenticationFilter} does not
+ * load the user on every request. Holds immutable {@link AuthenticatedUser}s only, never entities.
+ * Bounded and TTL-based; services that change a user (profile, password, role, soft delete,
+ * restore) call {@link #evict(UUID)}. An evict bumps the user's version stripe, and a principal
+ * whose load overlapped one is returned but not cached.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+    private static final long TTL_MS = 5 * 60_000; // 5 min
+    private static final int STRIPES = 1024;
+
+    private record Entry(AuthenticatedUser user, long loadedAt) {}
+
+    private final ConcurrentHashMap<UUID, Entry> principals = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+    /** Cached principal or {@code loader.apply(userId)}; a null result is not cached. */
+    public AuthenticatedUser get(UUID userId, Function<UUID, AuthenticatedUser> loader) {
+        long now = System.currentTimeMillis();
+        Entry e = principals.get(userId);
+        if (e != null && now - e.loadedAt() <= TTL_MS) {
+            return e.user();
+        }
+        long version = versions.get(stripe(userId));
+        AuthenticatedUser user = loader.apply(userId);
+        if (user != null) put(user, version);
+        return user;
+    }
+
+    private void put(AuthenticatedUser user, long version) {
+        if (principals.size() >= MAX_ENTRIES) {
+            evictExpired();
+            if (principals.size() >= MAX_ENTRIES) principals.clear();
+        }
+        int stripe = stripe(user.id());
+        long loadedAt = System.currentTimeMillis();
+        principals.compute(user.id(), (k, cur) ->
+                versions.get(stripe) == version ? new Entry(user, loadedAt) : cur);
+    }
+
+    /** Drops the user now and again after the current transaction commits. */
+    public void evict(UUID userId) {
+        if (userId == null) return;
+        remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(userId);
+                }
+            });
+        }
+    }
+
+    // bump first: a load that read the old version can no longer store its result
+    private void remove(UUID userId) {
+        versions.incrementAndGet(stripe(userId));
+        principals.remove(userId);
+    }
+
+    private static int stripe(UUID userId) {
+        return (userId.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        principals.values().removeIf(e -> now - e.loadedAt() > TTL_MS);
+    }
+}
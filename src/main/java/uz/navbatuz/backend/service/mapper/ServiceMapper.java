@@ -5,6 +5,7 @@ import uz.navbatuz.backend.service.dto.ServiceResponse;
 import uz.navbatuz.backend.service.dto.ServiceSummaryResponse;
 import uz.navbatuz.backend.service.model.ServiceEntity;
 import uz.navbatuz.backend.worker.model.Worker;
+import uz.navbatuz.backend.media.service.ImageVariant;
 
 @Component
 public class ServiceMapper {
@@ -21,6 +22,15 @@ public class ServiceMapper {
     }
 
     public ServiceResponse toDetailedResponse(ServiceEntity service) {
+        return toResponse(service, service.getImageUrl());
+    }
+
+    /** Same as {@link #toDetailedResponse} but pointing at the thumbnail, for lists. */
+    public ServiceResponse toListResponse(ServiceEntity service) {
+        return toResponse(service, ImageVariant.thumbnail(service.getImageUrl()));
+    }
+
+    private ServiceResponse toResponse(ServiceEntity service, String imageUrl) {
         return new ServiceResponse(
                 service.getId(),
                 service.getName(),
@@ -31,7 +41,7 @@ public class ServiceMapper {
                 service.isActive(),
                 service.getProvider().getId(),
                 service.getWorkers().stream().map(Worker::getId).toList(),
-                service.getImageUrl()
+                imageUrl
         );
     }
 
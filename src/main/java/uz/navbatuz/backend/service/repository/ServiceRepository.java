@@ -15,6 +15,7 @@ import uz.navbatuz.backend.service.model.ServiceEntity;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -41,6 +42,8 @@ public interface ServiceRepository extends JpaRepository<ServiceEntity, UUID> {
 
     List<ServiceEntity> findByWorkers_IdAndDeletedFalseAndIsActiveTrue(UUID workerId);
 
+    Optional<ServiceEntity> findByIdAndWorkers_IdAndDeletedFalseAndIsActiveTrue(UUID id, UUID workerId);
+
     @Query("""
     SELECT s FROM ServiceEntity s
     WHERE s.isActive = true
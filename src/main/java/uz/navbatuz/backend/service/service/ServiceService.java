@@ -12,6 +12,7 @@ import org.springframework.web.server.ResponseStatusException;
 import uz.navbatuz.backend.common.Category;
 import uz.navbatuz.backend.provider.model.Provider;
 import uz.navbatuz.backend.provider.repository.ProviderRepository;
+import uz.navbatuz.backend.provider.service.ProviderSearchIndexer;
 import uz.navbatuz.backend.service.dto.CreateServiceRequest;
 import uz.navbatuz.backend.service.dto.ServiceResponse;
 import uz.navbatuz.backend.service.dto.ServiceSummaryResponse;
@@ -41,6 +42,7 @@ public class ServiceService {
     private final ServiceMapper serviceMapper;
     private final WorkerMapper workerMapper;
     private final UserRepository userRepository;
+    private final ProviderSearchIndexer searchIndexer;
 
     // ---------- READ ----------
 
@@ -58,7 +60,7 @@ public class ServiceService {
                 .orElseThrow(() -> new IllegalArgumentException("Provider not found"));
         return serviceRepository.findByProvider_IdAndDeletedFalse(providerId)
                 .stream()
-                .map(serviceMapper::toDetailedResponse)
+                .map(serviceMapper::toListResponse)
                 .toList();
     }
 
@@ -76,7 +78,7 @@ public class ServiceService {
                 .orElseThrow(() -> new IllegalArgumentException("Worker not found"));
         return serviceRepository.findByWorkers_IdAndDeletedFalse(workerId)
                 .stream()
-                .map(serviceMapper::toDetailedResponse)
+                .map(serviceMapper::toListResponse)
                 .toList();
     }
 
@@ -151,6 +153,7 @@ public class ServiceService {
                 .build();
 
         service = serviceRepository.save(service);
+        searchIndexer.markDirty(provider.getId());
         return serviceMapper.toDetailedResponse(service);
     }
 
@@ -164,6 +167,7 @@ public class ServiceService {
                 .orElseThrow(() -> new RuntimeException("Service not found"));
         s.setActive(false);
         serviceRepository.save(s);
+        searchIndexer.markDirty(providerIdOf(s));
         log.info("Successfully deactivated service with id: {}", serviceId);
     }
 
@@ -174,6 +178,7 @@ public class ServiceService {
                 .orElseThrow(() -> new RuntimeException("Service not found"));
         s.setActive(true);
         serviceRepository.save(s);
+        searchIndexer.markDirty(providerIdOf(s));
         log.info("Successfully activated service with id: {}", serviceId);
     }
 
@@ -231,6 +236,7 @@ public class ServiceService {
         }
 
         serviceRepository.save(s);
+        searchIndexer.markDirty(providerIdOf(s));
     }
 
     // ---------- WORKER LINKS ----------
@@ -293,6 +299,11 @@ public class ServiceService {
         s.setDeleted(true);
         s.setActive(false);
         serviceRepository.save(s);
+        searchIndexer.markDirty(providerIdOf(s));
+    }
+
+    private static UUID providerIdOf(ServiceEntity s) {
+        return s.getProvider() == null ? null : s.getProvider().getId();
     }
 
     // ---------- SEARCH (unchanged) ----------
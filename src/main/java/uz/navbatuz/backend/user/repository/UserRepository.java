@@ -5,9 +5,12 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import org.springframework.stereotype.Repository;
 import uz.navbatuz.backend.provider.model.Provider;
+import uz.navbatuz.backend.security.AuthenticatedUser;
 
 import uz.navbatuz.backend.user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -17,6 +20,12 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findById(UUID id);
 
+    @Query("select new uz.navbatuz.backend.security.AuthenticatedUser(u.id, u.email, u.role, u.isActive) from User u where u.id = :id")
+    Optional<AuthenticatedUser> findPrincipalById(@Param("id") UUID id);
+
+    @Query("select new uz.navbatuz.backend.security.AuthenticatedUser(u.id, u.email, u.role, u.isActive) from User u where u.email = :email")
+    Optional<AuthenticatedUser> findPrincipalByEmail(@Param("email") String email);
+
 //
 //    boolean existsByPhoneNumber(@NotBlank(message = "Phone number is required") @Pattern(regexp = "^\\+?998\\d{9}$", message = "Phone must be valid Uzbekistan number") String phoneNumber);
     boolean existsByEmail(String email);
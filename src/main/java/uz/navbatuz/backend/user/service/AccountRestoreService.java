@@ -8,6 +8,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import uz.navbatuz.backend.security.PrincipalCache;
 import uz.navbatuz.backend.user.model.DeletedUserArchive;
 import uz.navbatuz.backend.user.model.User;
 import uz.navbatuz.backend.user.repository.DeletedUserArchiveRepository;
@@ -21,6 +22,7 @@ public class AccountRestoreService {
     private final UserRepository users;
     private final DeletedUserArchiveRepository archives;
     private final PasswordEncoder encoder;
+    private final PrincipalCache principalCache;
 
     @PreAuthorize("hasRole('ADMIN')")
     @Transactional
@@ -59,6 +61,7 @@ public class AccountRestoreService {
         u.setPasswordHash(encoder.encode("restored:" + UUID.randomUUID()));
 
         users.save(u);
+        principalCache.evict(u.getId());
 
         // Optional: keep archive row for audit, or delete it after restore:
         // archives.delete(a);
@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import uz.navbatuz.backend.security.CurrentUserService;
+import uz.navbatuz.backend.security.PrincipalCache;
 import uz.navbatuz.backend.user.model.DeletedUserArchive;
 import uz.navbatuz.backend.user.model.User;
 import uz.navbatuz.backend.user.repository.DeletedUserArchiveRepository;
@@ -22,6 +23,7 @@ public class SoftDeleteService {
     private final UserRepository users;
     private final DeletedUserArchiveRepository archiveRepo;
     private final PasswordEncoder encoder;
+    private final PrincipalCache principalCache;
 
     @Transactional
     public void softDeleteMe(String reason, HttpServletRequest request) {
@@ -63,6 +65,7 @@ public class SoftDeleteService {
         u.setDeletedAt(LocalDateTime.now());
 
         users.save(u);
+        principalCache.evict(u.getId());
 
         // If you keep token storage/refresh tokens, revoke here.
         // jwtService.revokeAll(u);
@@ -18,6 +18,7 @@ import uz.navbatuz.backend.location.dto.LocationRequest;
 import uz.navbatuz.backend.location.model.Location;
 import uz.navbatuz.backend.provider.model.Provider;
 import uz.navbatuz.backend.provider.service.ProviderService;
+import uz.navbatuz.backend.security.PrincipalCache;
 import uz.navbatuz.backend.user.dto.ChangePasswordRequest;
 import uz.navbatuz.backend.user.dto.SettingsUpdateRequest;
 import uz.navbatuz.backend.user.dto.UserDetailsDTO;
@@ -37,6 +38,7 @@ public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final ProviderService providerService;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) {
@@ -84,6 +86,7 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setActive(false);
         userRepository.save(user);
+        principalCache.evict(user.getId());
     }
 
     public void changePassword(String email, ChangePasswordRequest request) {
@@ -96,6 +99,7 @@ public class UserService implements UserDetailsService {
 
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        principalCache.evict(user.getId());
     }
 
     public UserDetailsDTO getUserByEmail(String email) {
@@ -136,6 +140,7 @@ public class UserService implements UserDetailsService {
             user.setCountry(req.getCountry().trim().toUpperCase());
         }
         userRepository.save(user);
+        principalCache.evict(user.getId());
 
         return new UserDetailsDTO(
                 user.getId(),
@@ -163,6 +168,7 @@ public class UserService implements UserDetailsService {
 
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        principalCache.evict(user.getId());
     }
 
     // OPTIONAL: make sure updateUserById also updates country if provided
@@ -190,6 +196,7 @@ public class UserService implements UserDetailsService {
         user.setEmail(request.getEmail());
 
         userRepository.save(user);
+        principalCache.evict(user.getId());
     }
 
     public User requireByEmail(String email) {
@@ -231,6 +238,7 @@ public class UserService implements UserDetailsService {
 
         u.setAvatarUrl(url);
         userRepository.save(u);
+        principalCache.evict(u.getId());
     }
 
     @Transactional
@@ -246,6 +254,7 @@ public class UserService implements UserDetailsService {
         // Minimal: just null out the URL (frontend will hide the image)
         u.setAvatarUrl(null);
         userRepository.save(u);
+        principalCache.evict(u.getId());
 
         // If you later want to also delete the file from disk/S3,
         // you can add best-effort deletion here.
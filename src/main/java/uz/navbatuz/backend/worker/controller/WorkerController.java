@@ -162,6 +162,17 @@ public class WorkerController {
     }
 
 
+    @GetMapping("/free-slots/batch")
+    public ResponseEntity<List<WorkerFreeSlotsResponse>> getFreeSlotsBatch(
+            @RequestParam(required = false) UUID providerId,
+            @RequestParam(required = false) UUID serviceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer serviceDurationMinutes) {
+        return ResponseEntity.ok(workerService.getFreeSlotsBatch(providerId, serviceId, from, to, serviceDurationMinutes));
+    }
+
+
     @PreAuthorize("hasAnyRole('OWNER', 'RECEPTIONIST', 'WORKER', 'ADMIN')")
     @PutMapping("/{workerId}")
     public ResponseEntity<WorkerDetailsDto> updateWorker(
@@ -0,0 +1,14 @@
+package uz.navbatuz.backend.worker.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public record WorkerFreeSlotsResponse(
+        UUID workerId,
+        String name,
+        String surname,
+        Map<LocalDate, List<LocalTime>> slots
+) {}
@@ -1,6 +1,7 @@
 package uz.navbatuz.backend.worker.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import uz.navbatuz.backend.customer.model.Customer;
@@ -31,6 +32,23 @@ public interface WorkerRepository extends JpaRepository<Worker, UUID> {
     """)
     List<WorkerResponseForService> findWorkerResponsesByProviderId(@Param("providerId") UUID providerId);
 
+    @Query("""
+       select w from Worker w
+       join fetch w.user
+       join fetch w.provider
+       where w.provider.id = :providerId and w.isActive = true
+    """)
+    List<Worker> findActiveWithUserByProviderId(@Param("providerId") UUID providerId);
+
+    @Query("""
+       select w from ServiceEntity s
+       join s.workers w
+       join fetch w.user
+       join fetch w.provider
+       where s.id = :serviceId and w.isActive = true
+    """)
+    List<Worker> findActiveWithUserByServiceId(@Param("serviceId") UUID serviceId);
+
     boolean existsByUserIdAndProviderId(UUID userId, UUID providerId);
 
     Optional<Worker> findByUserId(UUID userId);
@@ -39,4 +57,9 @@ public interface WorkerRepository extends JpaRepository<Worker, UUID> {
 
 
     boolean existsByUser_IdAndProvider_Id(UUID userId, UUID providerId);
+
+    /** Bulk update: does not bump {@code @Version}, so it never collides with worker edits. */
+    @Modifying
+    @Query("update Worker w set w.avgRating = :avg, w.reviewsCount = :count where w.id = :id")
+    int updateRating(@Param("id") UUID id, @Param("avg") float avg, @Param("count") long count);
 }
@@ -1,5 +1,6 @@
 package uz.navbatuz.backend.worker.service;
 
+import io.micrometer.core.instrument.Tags;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -7,8 +8,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import uz.navbatuz.backend.appointment.dto.BookedInterval;
 import uz.navbatuz.backend.appointment.model.Appointment;
 import uz.navbatuz.backend.appointment.repository.AppointmentRepository;
+import uz.navbatuz.backend.appointment.repository.SlotHoldRepository;
 import uz.navbatuz.backend.availability.dto.*;
 import uz.navbatuz.backend.availability.model.ActualAvailability;
 import uz.navbatuz.backend.availability.model.Break;
@@ -16,14 +19,22 @@ import uz.navbatuz.backend.availability.model.PlannedAvailability;
 import uz.navbatuz.backend.availability.repository.ActualAvailabilityRepository;
 import uz.navbatuz.backend.availability.repository.BreakRepository;
 import uz.navbatuz.backend.availability.repository.PlannedAvailabilityRepository;
+import uz.navbatuz.backend.availability.schedule.DaySchedule;
+import uz.navbatuz.backend.availability.schedule.WorkerLocks;
+import uz.navbatuz.backend.availability.schedule.WorkerScheduleCache;
 import uz.navbatuz.backend.common.AppointmentStatus;
+import uz.navbatuz.backend.common.DomainMetrics;
 import uz.navbatuz.backend.common.WorkerCategoryValidator;
 import uz.navbatuz.backend.provider.model.BusinessHour;
 import uz.navbatuz.backend.provider.model.Provider;
 import uz.navbatuz.backend.provider.repository.BusinessHourRepository;
 import uz.navbatuz.backend.provider.repository.ProviderRepository;
+import uz.navbatuz.backend.provider.service.ProviderProfileCache;
 import uz.navbatuz.backend.security.AuthorizationService;
 import uz.navbatuz.backend.security.CurrentUserService;
+import uz.navbatuz.backend.security.PrincipalCache;
+import uz.navbatuz.backend.service.model.ServiceEntity;
+import uz.navbatuz.backend.service.repository.ServiceRepository;
 import uz.navbatuz.backend.user.model.User;
 import uz.navbatuz.backend.user.repository.UserRepository;
 import uz.navbatuz.backend.worker.dto.*;
@@ -53,6 +64,13 @@ public class WorkerService {
     private final AuthorizationService authorizationService;
     private final AppointmentRepository appointmentRepository;
     private final BusinessHourRepository businessHourRepository;
+    private final WorkerScheduleCache scheduleCache;
+    private final ProviderProfileCache profileCache;
+    private final ServiceRepository serviceRepository;
+    private final PrincipalCache principalCache;
+    private final SlotHoldRepository slotHoldRepository;
+    private final DomainMetrics metrics;
+    private final WorkerLocks workerLocks;
 
     private static final Set<AppointmentStatus> BLOCKING_STATUSES = Set.of(
             AppointmentStatus.BOOKED,
@@ -60,7 +78,8 @@ public class WorkerService {
             AppointmentStatus.COMPLETED   // include if completed should block TODAY's remaining time (usually not needed)
     );
 
-    private static final Duration STEP = Duration.ofMinutes(10);
+    private static final int STEP_MINUTES = 10;
+    private static final int MAX_BATCH_DAYS = 31;
 
 
     @Transactional
@@ -92,6 +111,7 @@ public class WorkerService {
                 .isActive(true)
                 .build();
 
+        profileCache.evict(provider.getId());
         return workerRepository.save(worker);
     }
 
@@ -156,6 +176,8 @@ public class WorkerService {
 
         worker.setActive(false);
         workerRepository.save(worker);
+        scheduleCache.invalidateWorker(workerId);
+        profileCache.evict(worker.getProvider().getId());
     }
 
     @Transactional
@@ -171,6 +193,8 @@ public class WorkerService {
 
         worker.setActive(true);
         workerRepository.save(worker);
+        scheduleCache.invalidateWorker(workerId);
+        profileCache.evict(worker.getProvider().getId());
     }
 
 
@@ -215,12 +239,14 @@ public class WorkerService {
             throw new RuntimeException("Unauthorized access to modify worker");
         }
 
+        workerLocks.lockUntilCompletion(workerId, requests.stream().map(BreakRequest::date).toArray(LocalDate[]::new));
         breakRepository.deleteByWorkerIdAndDateIn(workerId, requests.stream().map(BreakRequest::date).toList());
 
         List<Break> breaks = new ArrayList<>();
         for (BreakRequest req : requests) {
             if(!req.isValid())
                 throw new IllegalArgumentException("Invalid range: " + req.date());
+            assertNoBookingOverlap(workerId, req);
 
             breaks.add(Break.builder()
                     .worker(worker)
@@ -231,6 +257,7 @@ public class WorkerService {
         }
 
         breakRepository.saveAll(breaks);
+        requests.forEach(r -> scheduleCache.invalidate(workerId, r.date()));
     }
 
     @Transactional
@@ -247,10 +274,13 @@ public class WorkerService {
             throw new IllegalArgumentException("Invalid range: " + (req == null ? null : req.date()));
         }
 
+        workerLocks.lockUntilCompletion(workerId, req.date());
+
         // optional: reject overlaps on the same day
         if (breakRepository.existsOverlap(workerId, req.date(), req.startTime(), req.endTime())) {
             throw new IllegalArgumentException("Break overlaps an existing break");
         }
+        assertNoBookingOverlap(workerId, req);
 
         Break entity = Break.builder()
                 .worker(worker)
@@ -260,6 +290,7 @@ public class WorkerService {
                 .build();
 
         breakRepository.save(entity);
+        scheduleCache.invalidate(workerId, req.date());
     }
 
     @Transactional
@@ -276,6 +307,15 @@ public class WorkerService {
         if (deleted == 0) {
             throw new RuntimeException("Break not found");
         }
+        scheduleCache.invalidateWorker(workerId);
+    }
+
+    /** A break may not cover a booked appointment or a live slot hold; call with the worker-day locked. */
+    private void assertNoBookingOverlap(UUID workerId, BreakRequest req) {
+        if (appointmentRepository.existsOverlap(workerId, req.date(), req.startTime(), req.endTime(), BLOCKING_STATUSES)
+                || slotHoldRepository.existsActiveOverlap(workerId, req.date(), req.startTime(), req.endTime(), LocalDateTime.now())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Break overlaps a booked appointment on " + req.date());
+        }
     }
 
     public List<BreakResponse> getBreaks(UUID workerId, LocalDate from, LocalDate to) {
@@ -295,6 +335,8 @@ public class WorkerService {
             throw new IllegalArgumentException("Invalid range: " + (req == null ? null : req.date()));
         }
 
+        workerLocks.lockUntilCompletion(workerId, req.date());
+
         // One per date: update if exists, else create
         Optional<ActualAvailability> existing =
                 actualAvailabilityRepository.findByWorkerIdAndDate(workerId, req.date());
@@ -307,6 +349,7 @@ public class WorkerService {
         entity.setBufferBetweenAppointments(req.bufferBetweenAppointments());
 
         actualAvailabilityRepository.save(entity);
+        scheduleCache.invalidate(workerId, req.date());
     }
 
     @Transactional
@@ -321,6 +364,7 @@ public class WorkerService {
 
         int deleted = actualAvailabilityRepository.deleteByIdAndWorkerId(availabilityId, workerId);
         if (deleted == 0) throw new RuntimeException("Actual availability not found");
+        scheduleCache.invalidateWorker(workerId);
     }
 
     public List<ActualAvailabilityResponse> getActualAvailability(UUID workerId, LocalDate from, LocalDate to) {
@@ -372,6 +416,7 @@ public class WorkerService {
                 .toList();
 
         plannedAvailabilityRepository.deleteAll(toDelete);
+        scheduleCache.invalidateWorker(workerId);
     }
 
 
@@ -380,159 +425,232 @@ public class WorkerService {
     }
 
     public List<LocalTime> getFreeSlots(UUID workerId, LocalDate date, Duration serviceDuration) {
-        Worker worker = workerRepository.findById(workerId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Worker not found"));
+        List<LocalTime> slots = metrics.timed("slots.free", call -> {
+            DaySchedule day = scheduleCache.get(workerId, date, () -> loadDaySchedule(workerId, date));
+            int fromMinute = bookableFromMinute(day, date);
+            if (fromMinute < 0) return List.<LocalTime>of();
+            return day.freeSlots(durationMinutes(serviceDuration), fromMinute, STEP_MINUTES);
+        });
+        metrics.record("slots.free.count", "slots", slots.size(), Tags.empty());
+        return slots;
+    }
 
+    /**
+     * Authoritative check used by booking paths: rebuilds the day from the DB (refreshing the cache)
+     * and tests only the requested start instead of listing every slot.
+     */
+    public boolean isSlotFree(UUID workerId, LocalDate date, LocalTime start, Duration serviceDuration) {
+        long version = scheduleCache.version(workerId, date);
+        DaySchedule day = loadDaySchedule(workerId, date);
+        scheduleCache.put(workerId, date, day, version);
+        int fromMinute = bookableFromMinute(day, date);
+        if (fromMinute < 0) return false;
+        return day.isFree(start, durationMinutes(serviceDuration), fromMinute, STEP_MINUTES);
+    }
+
+    /**
+     * First minute of {@code date} that may still be booked, or -1 when nothing can be booked.
+     * Throws 404 when the provider is closed on that day.
+     */
+    private int bookableFromMinute(DaySchedule day, LocalDate date) {
         // 1) Worker must be AVAILABLE
-        if (worker.getStatus() == null || !worker.getStatus().name().equalsIgnoreCase("AVAILABLE")) {
-            return List.of();
-        }
+        if (!day.bookable()) return -1;
 
-        // 2) Lead-time cutoff (now + provider lead time, default 30m)
-        int leadMin = Optional.ofNullable(worker.getProvider())
-                .map(p -> p.getMinAdvanceBookingMinutes())
-                .orElse(30);
+        // If date is in the past → no slots
         LocalDate today = LocalDate.now();
-        LocalTime nowTime = LocalTime.now();
+        if (date.isBefore(today)) return -1;
 
-        // If date is in the past → no slots
-        if (date.isBefore(today)) return List.of();
+        if (day.closed()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Provider closed on " + date.getDayOfWeek());
+        }
+        if (!date.isEqual(today)) return 0;
+
+        // 2) Lead-time cutoff for TODAY (now + provider lead time)
+        LocalDateTime cutoff = LocalDateTime.now().plusMinutes(Math.max(0, day.leadMinutes()));
+        if (!cutoff.toLocalDate().isEqual(today)) return -1;
+        LocalTime t = cutoff.toLocalTime();
+        int minute = t.getHour() * 60 + t.getMinute();
+        return (t.getSecond() != 0 || t.getNano() != 0) ? minute + 1 : minute;
+    }
 
-        LocalTime minBookTimeToday = (date.isEqual(today))
-                ? roundUp(nowTime.plusMinutes(Math.max(0, leadMin)), STEP)
-                : LocalTime.MIN;
+    private static int durationMinutes(Duration serviceDuration) {
+        if (serviceDuration == null || serviceDuration.isNegative() || serviceDuration.isZero()) {
+            throw new IllegalArgumentException("Service duration must be positive");
+        }
+        long seconds = serviceDuration.getSeconds();
+        return (int) Math.min(DaySchedule.MINUTES_PER_DAY + 1L, (seconds + 59) / 60);
+    }
+
+    private DaySchedule loadDaySchedule(UUID workerId, LocalDate date) {
+        Worker worker = workerRepository.findById(workerId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Worker not found"));
 
         // Provider working day bounds
         DayOfWeek day = date.getDayOfWeek();
-        List<BusinessHour> businessHours = businessHourRepository.findByProviderId(worker.getProvider().getId());
-        BusinessHour dayHours = businessHours.stream()
+        BusinessHour dayHours = businessHourRepository.findByProviderId(worker.getProvider().getId()).stream()
                 .filter(b -> b.getDay() == day)
                 .findFirst()
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND, "Provider closed on " + day
-                ));
-
-        LocalTime providerOpen = dayHours.getStartTime();
-        LocalTime providerClose = dayHours.getEndTime();
+                .orElse(null);
+        if (dayHours == null) {
+            return buildDaySchedule(worker, null, null, null, List.of(), Map.of());
+        }
 
         // Planned/Actual availability & buffer
-        Optional<ActualAvailability> actualAvailability = actualAvailabilityRepository.findByWorkerIdAndDate(workerId, date);
+        ActualAvailability actual = actualAvailabilityRepository.findByWorkerIdAndDate(workerId, date).orElse(null);
+        PlannedAvailability planned = (actual == null)
+                ? plannedAvailabilityRepository.findByWorkerIdAndDay(workerId, day)
+                : null;
+
+        List<TimeRange> breaks = breakRepository.findByWorkerIdAndDate(workerId, date).stream()
+                .map(b -> new TimeRange(b.getStartTime(), b.getEndTime()))
+                .toList();
+
+        Map<UUID, TimeRange> booked = new HashMap<>();
+        for (Appointment a : appointmentRepository.findByWorkerIdAndDateAndStatusIn(workerId, date, BLOCKING_STATUSES)) {
+            booked.put(a.getId(), new TimeRange(a.getStartTime(), a.getEndTime()));
+        }
+        // live slot holds block like appointments
+        for (BookedInterval h : slotHoldRepository.findActiveIntervals(List.of(workerId), date, date, LocalDateTime.now())) {
+            booked.put(h.appointmentId(), new TimeRange(h.startTime(), h.endTime()));
+        }
+
+        return buildDaySchedule(worker, dayHours, actual, planned, breaks, booked);
+    }
+
+    /**
+     * Pure assembly of one worker-day; {@code dayHours == null} means the provider is closed,
+     * {@code actual} wins over {@code planned}, neither means the worker is not planned that day.
+     */
+    private static DaySchedule buildDaySchedule(Worker worker, BusinessHour dayHours,
+                                                ActualAvailability actual, PlannedAvailability planned,
+                                                List<TimeRange> breaks, Map<UUID, TimeRange> booked) {
+        UUID providerId = worker.getProvider().getId();
+        boolean bookable = worker.getStatus() == Status.AVAILABLE;
+        int leadMin = Optional.ofNullable(worker.getProvider().getMinAdvanceBookingMinutes()).orElse(30);
+
+        if (dayHours == null) {
+            return DaySchedule.closed(providerId, bookable, leadMin);
+        }
 
         LocalTime start;
         LocalTime end;
         Duration buffer;
-
-        if (actualAvailability.isPresent()) {
-            ActualAvailability availability = actualAvailability.get();
-            start  = availability.getStartTime();
-            end    = availability.getEndTime();
-            buffer = Optional.ofNullable(availability.getBufferBetweenAppointments()).orElse(Duration.ZERO);
-        } else {
-            PlannedAvailability planned = plannedAvailabilityRepository.findByWorkerIdAndDay(workerId, day);
-            if (planned == null) {
-                // on-leave / not planned → no slots
-                return List.of();
-            }
+        if (actual != null) {
+            start  = actual.getStartTime();
+            end    = actual.getEndTime();
+            buffer = actual.getBufferBetweenAppointments();
+        } else if (planned != null) {
             start  = planned.getStartTime();
             end    = planned.getEndTime();
-            buffer = Optional.ofNullable(planned.getBufferBetweenAppointments()).orElse(Duration.ZERO);
+            buffer = planned.getBufferBetweenAppointments();
+        } else {
+            // on-leave / not planned → no slots
+            return DaySchedule.of(providerId, bookable, leadMin, null, Duration.ZERO, List.of(), Map.of());
         }
 
         // Intersect with provider open hours
-        if (start.isBefore(providerOpen)) start = providerOpen;
-        if (end.isAfter(providerClose))  end   = providerClose;
-        if (!start.isBefore(end)) return List.of();
-
-        // Apply lead-time cutoff for TODAY
-        if (date.isEqual(today) && minBookTimeToday.isAfter(start)) {
-            start = minBookTimeToday;
-            if (!start.isBefore(end)) return List.of();
-        }
-
-        // Subtract breaks
-        List<Break> breaks = breakRepository.findByWorkerIdAndDate(workerId, date);
-        List<TimeRange> available = new ArrayList<>();
-        available.add(new TimeRange(start, end));
-        for (Break b : breaks) {
-            List<TimeRange> updated = new ArrayList<>();
-            for (TimeRange r : available) {
-                updated.addAll(r.subtract(b.getStartTime(), b.getEndTime()));
+        if (start.isBefore(dayHours.getStartTime())) start = dayHours.getStartTime();
+        if (end.isAfter(dayHours.getEndTime()))      end   = dayHours.getEndTime();
+
+        return DaySchedule.of(providerId, bookable, leadMin, new TimeRange(start, end), buffer, breaks, booked);
+    }
+
+    /**
+     * Free slots for every active worker of a provider (or of a service) over a date range.
+     * Loads everything with one query per table for the whole range and builds the days in memory.
+     * The days are not written to the per-day cache: they are a snapshot from before the loop and
+     * would evict the live entries other requests are using.
+     */
+    public List<WorkerFreeSlotsResponse> getFreeSlotsBatch(UUID providerId, UUID serviceId,
+                                                           LocalDate from, LocalDate to,
+                                                           Integer serviceDurationMinutes) {
+        if ((providerId == null) == (serviceId == null)) {
+            throw new IllegalArgumentException("Exactly one of providerId or serviceId is required");
+        }
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("Invalid date range");
+        }
+        if (from.plusDays(MAX_BATCH_DAYS - 1).isBefore(to)) {
+            throw new IllegalArgumentException("Date range is limited to " + MAX_BATCH_DAYS + " days");
+        }
+
+        Duration serviceDuration;
+        List<Worker> workers;
+        if (serviceId != null) {
+            ServiceEntity service = serviceRepository.findById(serviceId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Service not found"));
+            serviceDuration = (serviceDurationMinutes != null)
+                    ? Duration.ofMinutes(serviceDurationMinutes)
+                    : service.getDuration();
+            providerId = service.getProvider().getId();
+            workers = workerRepository.findActiveWithUserByServiceId(serviceId);
+        } else {
+            if (serviceDurationMinutes == null) {
+                throw new IllegalArgumentException("serviceDurationMinutes is required when querying by provider");
             }
-            available = updated;
+            serviceDuration = Duration.ofMinutes(serviceDurationMinutes);
+            workers = workerRepository.findActiveWithUserByProviderId(providerId);
         }
+        int durationMin = durationMinutes(serviceDuration);
+        if (workers.isEmpty()) return List.of();
 
-        // Existing booked/held appointments
-        List<Appointment> booked = appointmentRepository
-                .findByWorkerIdAndDateAndStatusIn(workerId, date, BLOCKING_STATUSES);
+        List<UUID> workerIds = workers.stream().map(Worker::getId).toList();
 
-        // Generate slots every 5 minutes, but ensure [slotStart, slotStart+serviceDuration] fits
-        List<LocalTime> result = new ArrayList<>();
-        for (TimeRange r : available) {
-            // also apply the today's cutoff inside each fragment
-            LocalTime rangeStart = (date.isEqual(today) && minBookTimeToday.isAfter(r.start()))
-                    ? minBookTimeToday
-                    : r.start();
+        Map<DayOfWeek, BusinessHour> hoursByDay = new EnumMap<>(DayOfWeek.class);
+        for (BusinessHour bh : businessHourRepository.findByProviderId(providerId)) {
+            hoursByDay.putIfAbsent(bh.getDay(), bh);
+        }
 
-            // start aligned to 5-minute grid
-            LocalTime current = max(roundUp(rangeStart, STEP), r.start());
+        Map<UUID, Map<LocalDate, ActualAvailability>> actualByWorker = new HashMap<>();
+        for (ActualAvailability a : actualAvailabilityRepository.findByWorker_IdInAndDateBetween(workerIds, from, to)) {
+            actualByWorker.computeIfAbsent(a.getWorker().getId(), k -> new HashMap<>()).put(a.getDate(), a);
+        }
 
-            while (!current.plus(serviceDuration).isAfter(r.end())) {
-                LocalTime slotEnd = current.plus(serviceDuration);
+        Map<UUID, Map<DayOfWeek, PlannedAvailability>> plannedByWorker = new HashMap<>();
+        for (PlannedAvailability p : plannedAvailabilityRepository.findByWorker_IdIn(workerIds)) {
+            plannedByWorker.computeIfAbsent(p.getWorker().getId(), k -> new EnumMap<>(DayOfWeek.class)).put(p.getDay(), p);
+        }
 
-                // Check collisions with existing appointments, considering buffer on both sides
-                LocalTime finalCurrent = current;
-                boolean clashes = booked.stream().anyMatch(app ->
-                        overlapsWithBuffer(finalCurrent, slotEnd, app.getStartTime(), app.getEndTime(), buffer));
+        Map<UUID, Map<LocalDate, List<TimeRange>>> breaksByWorker = new HashMap<>();
+        for (Break b : breakRepository.findByWorker_IdInAndDateBetween(workerIds, from, to)) {
+            breaksByWorker.computeIfAbsent(b.getWorker().getId(), k -> new HashMap<>())
+                    .computeIfAbsent(b.getDate(), k -> new ArrayList<>())
+                    .add(new TimeRange(b.getStartTime(), b.getEndTime()));
+        }
 
-                if (!clashes) {
-                    result.add(current);
-                }
+        Map<UUID, Map<LocalDate, Map<UUID, TimeRange>>> bookedByWorker = new HashMap<>();
+        List<BookedInterval> intervals = new ArrayList<>(
+                appointmentRepository.findBookedIntervals(workerIds, from, to, BLOCKING_STATUSES));
+        intervals.addAll(slotHoldRepository.findActiveIntervals(workerIds, from, to, LocalDateTime.now()));
+        for (BookedInterval a : intervals) {
+            bookedByWorker.computeIfAbsent(a.workerId(), k -> new HashMap<>())
+                    .computeIfAbsent(a.date(), k -> new HashMap<>())
+                    .put(a.appointmentId(), new TimeRange(a.startTime(), a.endTime()));
+        }
 
-                current = current.plus(STEP); // 5-minute steps
+        List<WorkerFreeSlotsResponse> result = new ArrayList<>(workers.size());
+        for (Worker worker : workers) {
+            UUID workerId = worker.getId();
+            Map<LocalDate, List<LocalTime>> slots = new TreeMap<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                DaySchedule day = buildDaySchedule(worker,
+                        hoursByDay.get(date.getDayOfWeek()),
+                        actualByWorker.getOrDefault(workerId, Map.of()).get(date),
+                        plannedByWorker.getOrDefault(workerId, Map.of()).get(date.getDayOfWeek()),
+                        breaksByWorker.getOrDefault(workerId, Map.of()).getOrDefault(date, List.of()),
+                        bookedByWorker.getOrDefault(workerId, Map.of()).getOrDefault(date, Map.of()));
+
+                int fromMinute = day.closed() ? -1 : bookableFromMinute(day, date);
+                slots.put(date, fromMinute < 0
+                        ? List.of()
+                        : day.freeSlots(durationMin, fromMinute, STEP_MINUTES));
             }
+            result.add(new WorkerFreeSlotsResponse(
+                    workerId, worker.getUser().getName(), worker.getUser().getSurname(), slots));
         }
-
         return result;
     }
 
-    /* ---------------- helpers ---------------- */
-
-    private static LocalTime roundUp(LocalTime t, Duration step) {
-        long stepSec = step.getSeconds();
-        long sec = t.toSecondOfDay();
-        long rem = sec % stepSec;
-        if (rem == 0) return t;
-        long up = sec + (stepSec - rem);
-        if (up >= 24 * 3600) up = 24 * 3600 - 1; // clamp to last second of day
-        return LocalTime.ofSecondOfDay(up);
-    }
-
-    private static LocalTime max(LocalTime a, LocalTime b) {
-        return a.isAfter(b) ? a : b;
-    }
-
-    /**
-     * True if the candidate interval [candStart, candEnd] intersects
-     * the existing interval [existStart - buffer, existEnd + buffer].
-     */
-    private static boolean overlapsWithBuffer(
-            LocalTime candStart, LocalTime candEnd,
-            LocalTime existStart, LocalTime existEnd,
-            Duration buffer
-    ) {
-        LocalTime paddedStart = existStart.minus(buffer);
-        if (paddedStart.isAfter(existStart)) paddedStart = LocalTime.MIDNIGHT; // underflow guard
-        LocalTime paddedEnd = existEnd.plus(buffer);
-        // Standard overlap check: a < d && c < b
-        return candStart.isBefore(paddedEnd) && paddedStart.isBefore(candEnd);
-    }
-
-    private boolean overlaps(LocalTime slotStart, Duration serviceDuration, Appointment appointment) {
-        LocalTime slotEnd = slotStart.plus(serviceDuration);
-        return slotStart.isBefore(appointment.getEndTime()) &&
-                slotEnd.isAfter(appointment.getStartTime());
-    }
-
     public UUID requireProviderId(UUID workerId) {
         return workerRepository.findById(workerId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Worker not found"))
@@ -567,6 +685,9 @@ public class WorkerService {
         // Persist
         userRepository.save(u);
         workerRepository.save(worker);
+        principalCache.evict(u.getId());
+        scheduleCache.invalidateWorker(workerId);
+        profileCache.evict(worker.getProvider().getId());
 
         // Return full details
         return workerMapper.mapToDetails(worker);
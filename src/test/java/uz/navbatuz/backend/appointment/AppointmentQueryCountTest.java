@@ -0,0 +1,209 @@
+package uz.navbatuz.backend.appointment;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import uz.navbatuz.backend.appointment.model.Appointment;
+import uz.navbatuz.backend.appointment.service.AppointmentService;
+import uz.navbatuz.backend.common.AppointmentStatus;
+import uz.navbatuz.backend.common.Category;
+import uz.navbatuz.backend.common.Role;
+import uz.navbatuz.backend.common.Status;
+import uz.navbatuz.backend.common.WorkerType;
+import uz.navbatuz.backend.customer.model.Customer;
+import uz.navbatuz.backend.guest.model.Guest;
+import uz.navbatuz.backend.provider.model.Provider;
+import uz.navbatuz.backend.service.model.ServiceEntity;
+import uz.navbatuz.backend.user.model.User;
+import uz.navbatuz.backend.worker.model.Worker;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Locks in that appointment list/detail screens are served by a single SQL statement,
+ * whatever the number of rows. Statements are counted per thread, so background jobs
+ * (outbox poller, auto-complete) do not skew the numbers. Runs against PostGIS in Docker
+ * and is skipped where Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "uz.navbatuz.backend.appointment.AppointmentQueryCountTest$CountingInspector")
+@Transactional
+class AppointmentQueryCountTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGIS = new PostgreSQLContainer<>(
+            DockerImageName.parse("postgis/postgis:16-3.4").asCompatibleSubstituteFor("postgres"));
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("app.mail.from", () -> "test@test.local");
+        registry.add("spring.mail.host", () -> "127.0.0.1");
+        registry.add("spring.mail.port", () -> "1");
+    }
+
+    public static class CountingInspector implements StatementInspector {
+        private static final ThreadLocal<Integer> COUNT = ThreadLocal.withInitial(() -> 0);
+
+        static void reset() { COUNT.set(0); }
+
+        static int count() { return COUNT.get(); }
+
+        @Override
+        public String inspect(String sql) {
+            COUNT.set(COUNT.get() + 1);
+            return sql;
+        }
+    }
+
+    @Autowired EntityManager em;
+    @Autowired AppointmentService appointmentService;
+
+    private final LocalDate day = LocalDate.now().plusDays(1);
+    private UUID workerId;
+    private UUID customerId;
+    private UUID appointmentId;
+
+    @BeforeEach
+    void seed() {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+
+        User owner = persistUser("owner-" + tag, Role.OWNER);
+        Provider provider = Provider.builder()
+                .name("Shop " + tag)
+                .category(Category.BARBERSHOP)
+                .email("shop-" + tag + "@test.local")
+                .phoneNumber("+99890" + tag)
+                .owner(owner)
+                .isActive(true)
+                .avgRating(0f)
+                .build();
+        em.persist(provider);
+
+        User workerUser = persistUser("worker-" + tag, Role.WORKER);
+        Worker worker = Worker.builder()
+                .user(workerUser)
+                .provider(provider)
+                .workerType(WorkerType.BARBER)
+                .status(Status.AVAILABLE)
+                .isActive(true)
+                .avgRating(0f)
+                .build();
+        em.persist(worker);
+
+        ServiceEntity service = ServiceEntity.builder()
+                .name("Haircut")
+                .category(Category.BARBERSHOP)
+                .price(BigDecimal.TEN)
+                .duration(Duration.ofMinutes(30))
+                .isActive(true)
+                .provider(provider)
+                .build();
+        em.persist(service);
+
+        Guest guest = Guest.builder()
+                .provider(provider)
+                .phoneNumber("+99891" + tag)
+                .name("Guest")
+                .createdAt(LocalDateTime.now())
+                .build();
+        em.persist(guest);
+
+        for (int i = 0; i < 5; i++) {
+            User customerUser = persistUser("customer-" + i + "-" + tag, Role.CUSTOMER);
+            Customer customer = Customer.builder().user(customerUser).favouriteShops(new ArrayList<>()).build();
+            em.persist(customer);
+            Appointment a = persistAppointment(worker, service, customer, null, LocalTime.of(9 + i, 0));
+            if (i == 0) {
+                customerId = customer.getId();
+                appointmentId = a.getId();
+            }
+        }
+        persistAppointment(worker, service, null, guest, LocalTime.of(15, 0));
+
+        workerId = worker.getId();
+        em.flush();
+        em.clear();
+        CountingInspector.reset();
+    }
+
+    @Test
+    void workerDayIsOneStatement() {
+        assertEquals(6, appointmentService.getWorkerAppointmentsDay(workerId, day).size());
+        assertEquals(1, CountingInspector.count());
+    }
+
+    @Test
+    void workerDayStaffIsOneStatement() {
+        assertEquals(6, appointmentService.getWorkerAppointmentsDayStaff(workerId, day).size());
+        assertEquals(1, CountingInspector.count());
+    }
+
+    @Test
+    void customerHistoryIsOneStatement() {
+        assertEquals(1, appointmentService.getCustomerAppointments1(customerId).size());
+        assertEquals(1, CountingInspector.count());
+    }
+
+    @Test
+    void detailsAreOneStatementEach() {
+        appointmentService.getAppointmentDetailsStaff(appointmentId);
+        assertEquals(1, CountingInspector.count());
+
+        CountingInspector.reset();
+        appointmentService.getAppointmentDetails(appointmentId);
+        assertEquals(1, CountingInspector.count());
+    }
+
+    private User persistUser(String handle, Role role) {
+        User u = User.builder()
+                .name(handle)
+                .email(handle + "@test.local")
+                .passwordHash("x")
+                .role(role)
+                .isActive(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+        em.persist(u);
+        return u;
+    }
+
+    private Appointment persistAppointment(Worker worker, ServiceEntity service, Customer customer, Guest guest,
+                                           LocalTime start) {
+        Appointment a = Appointment.builder()
+                .worker(worker)
+                .service(service)
+                .customer(customer)
+                .guest(guest)
+                .date(day)
+                .startTime(start)
+                .endTime(start.plusMinutes(30))
+                .status(AppointmentStatus.BOOKED)
+                .bookedDate(LocalDateTime.now())
+                .build();
+        em.persist(a);
+        return a;
+    }
+}
@@ -0,0 +1,77 @@
+package uz.navbatuz.backend.appointment.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+import uz.navbatuz.backend.appointment.dto.SlotHoldRequest;
+import uz.navbatuz.backend.appointment.model.SlotHold;
+import uz.navbatuz.backend.appointment.repository.AppointmentRepository;
+import uz.navbatuz.backend.appointment.repository.SlotHoldRepository;
+import uz.navbatuz.backend.availability.schedule.WorkerLocks;
+import uz.navbatuz.backend.availability.schedule.WorkerScheduleCache;
+import uz.navbatuz.backend.service.model.ServiceEntity;
+import uz.navbatuz.backend.service.repository.ServiceRepository;
+import uz.navbatuz.backend.worker.service.WorkerService;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SlotHoldServiceTest {
+
+    private final SlotHoldRepository holds = mock(SlotHoldRepository.class);
+    private final ServiceRepository services = mock(ServiceRepository.class);
+    private final WorkerService workerService = mock(WorkerService.class);
+    private final SlotHoldService service = new SlotHoldService(holds, mock(AppointmentRepository.class), services,
+            workerService, mock(WorkerLocks.class), mock(WorkerScheduleCache.class));
+
+    private final UUID user = UUID.randomUUID();
+    private final UUID worker = UUID.randomUUID();
+    private final UUID serviceId = UUID.randomUUID();
+    private final LocalDate date = LocalDate.now().plusDays(1);
+
+    @Test
+    void rejectsServiceTheWorkerDoesNotOffer() {
+        when(services.findByIdAndWorkers_IdAndDeletedFalseAndIsActiveTrue(serviceId, worker)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.hold(request(LocalTime.of(10, 0)), user))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("not offered");
+        verify(holds, never()).save(any());
+    }
+
+    @Test
+    void newHoldReplacesTheOldestOnceTheUserIsAtTheCap() {
+        ServiceEntity s = new ServiceEntity();
+        s.setDuration(Duration.ofMinutes(30));
+        when(services.findByIdAndWorkers_IdAndDeletedFalseAndIsActiveTrue(serviceId, worker)).thenReturn(Optional.of(s));
+        when(workerService.isSlotFree(any(), any(), any(), any())).thenReturn(true);
+        SlotHold oldest = hold(LocalTime.of(9, 0), 1);
+        SlotHold newer = hold(LocalTime.of(9, 30), 3);
+        when(holds.findByCreatedByUserAndExpiresAtAfterOrderByExpiresAtAsc(eq(user), any())).thenReturn(List.of(oldest, newer));
+        when(holds.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        service.hold(request(LocalTime.of(10, 0)), user);
+
+        verify(holds).delete(oldest);
+        verify(holds, never()).delete(newer);
+    }
+
+    private SlotHoldRequest request(LocalTime start) {
+        return new SlotHoldRequest(worker, serviceId, date, start);
+    }
+
+    private SlotHold hold(LocalTime start, int expiresInMinutes) {
+        return SlotHold.builder().id(UUID.randomUUID()).workerId(worker).serviceId(serviceId).date(date)
+                .startTime(start).endTime(start.plusMinutes(30))
+                .expiresAt(LocalDateTime.now().plusMinutes(expiresInMinutes)).createdByUser(user).build();
+    }
+}
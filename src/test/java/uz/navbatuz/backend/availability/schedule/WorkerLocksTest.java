@@ -0,0 +1,104 @@
+package uz.navbatuz.backend.availability.schedule;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkerLocksTest {
+
+    private final WorkerLocks locks = new WorkerLocks(null, false); // local stripes only
+    private final LocalDate date = LocalDate.of(2025, 3, 10);
+
+    @Test
+    void sameWorkerDayWaitsUntilTheHolderCompletes() throws Exception {
+        UUID worker = UUID.randomUUID();
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            pool.submit(() -> inTransaction(() -> {
+                locks.lockUntilCompletion(worker, date);
+                held.countDown();
+                await(release);
+            }));
+            held.await();
+
+            Future<?> second = pool.submit(() -> inTransaction(() -> locks.lockUntilCompletion(worker, date)));
+            assertThat(waitsAtLeast(second, 200)).isTrue();
+
+            release.countDown();
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void otherWorkersAndMultiDayLocksDoNotBlock() throws Exception {
+        UUID worker = UUID.randomUUID();
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            pool.submit(() -> inTransaction(() -> {
+                locks.lockUntilCompletion(worker, date, date.plusDays(1), date); // duplicates are fine
+                held.countDown();
+                await(release);
+            }));
+            held.await();
+
+            int blocked = 0;
+            for (int i = 0; i < 50; i++) {
+                UUID other = UUID.randomUUID();
+                Future<?> f = pool.submit(() -> inTransaction(() -> locks.lockUntilCompletion(other, date)));
+                try {
+                    f.get(100, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    blocked++; // stripe collision, released below
+                    release.countDown();
+                    f.get(5, TimeUnit.SECONDS);
+                }
+            }
+            assertThat(blocked).isLessThanOrEqualTo(1);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    private static boolean waitsAtLeast(Future<?> f, long millis) throws Exception {
+        try {
+            f.get(millis, TimeUnit.MILLISECONDS);
+            return false;
+        } catch (TimeoutException e) {
+            return true;
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Mimics a transaction: run, then fire afterCompletion like the transaction manager does. */
+    private static void inTransaction(Runnable body) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            body.run();
+        } finally {
+            for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+                s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
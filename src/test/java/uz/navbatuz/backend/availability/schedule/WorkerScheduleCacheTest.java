@@ -0,0 +1,78 @@
+package uz.navbatuz.backend.availability.schedule;
+
+import org.junit.jupiter.api.Test;
+import uz.navbatuz.backend.availability.dto.TimeRange;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkerScheduleCacheTest {
+
+    private static final LocalTime TEN = LocalTime.of(10, 0);
+
+    private final WorkerScheduleCache cache = new WorkerScheduleCache();
+    private final UUID provider = UUID.randomUUID();
+    private final UUID worker = UUID.randomUUID();
+    private final LocalDate date = LocalDate.now().plusDays(1);
+
+    @Test
+    void loadThatRacedABookingIsNotCached() {
+        UUID booked = UUID.randomUUID();
+
+        // the loader read the DB before the booking committed; the booking's patch finds no entry
+        DaySchedule stale = cache.get(worker, date, () -> {
+            cache.appointmentAdded(worker, date, booked, TEN, TEN.plusHours(1));
+            return open();
+        });
+        assertThat(stale.isFree(TEN, 60, 0, 15)).isTrue();
+
+        DaySchedule next = cache.get(worker, date, () -> open().withAppointment(booked, TEN, TEN.plusHours(1)));
+        assertThat(next.isFree(TEN, 60, 0, 15)).isFalse();
+    }
+
+    @Test
+    void putWithAnOutdatedVersionKeepsThePatchedEntry() {
+        cache.get(worker, date, this::open);
+        long version = cache.version(worker, date);
+        cache.appointmentAdded(worker, date, UUID.randomUUID(), TEN, TEN.plusHours(1));
+
+        cache.put(worker, date, open(), version);
+
+        DaySchedule cached = cache.get(worker, date, () -> {
+            throw new AssertionError("entry should still be cached");
+        });
+        assertThat(cached.isFree(TEN, 60, 0, 15)).isFalse();
+    }
+
+    @Test
+    void putWithACurrentVersionReplacesTheEntry() {
+        cache.get(worker, date, this::open);
+        cache.put(worker, date, DaySchedule.closed(provider, true, 0), cache.version(worker, date));
+
+        assertThat(cache.get(worker, date, this::open).closed()).isTrue();
+    }
+
+    @Test
+    void fullCacheKeepsItsEntriesInsteadOfWipingThem() {
+        cache.get(worker, date, this::open);
+        for (int i = 0; i < 20_000; i++) {
+            cache.get(UUID.randomUUID(), date, this::open);
+        }
+
+        DaySchedule cached = cache.get(worker, date, () -> {
+            throw new AssertionError("entry should still be cached");
+        });
+        assertThat(cached).isNotNull();
+    }
+
+    private DaySchedule open() {
+        return DaySchedule.of(provider, true, 0, new TimeRange(LocalTime.of(9, 0), LocalTime.of(18, 0)),
+                Duration.ZERO, List.of(), Map.of());
+    }
+}
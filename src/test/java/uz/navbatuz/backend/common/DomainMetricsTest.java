@@ -0,0 +1,46 @@
+package uz.navbatuz.backend.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DomainMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DomainMetrics metrics = new DomainMetrics(registry);
+
+    @Test
+    void tagsOutcomeAndCategoryAndTracksConflictRate() {
+        metrics.timed("appointments.book", DomainMetrics.BY_CATEGORY,
+                call -> call.countConflicts().category(Category.BARBERSHOP));
+        assertThatThrownBy(() -> metrics.timed("appointments.book", DomainMetrics.BY_CATEGORY, call -> {
+            call.countConflicts().category(Category.BARBERSHOP);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Slot already booked");
+        })).isInstanceOf(ResponseStatusException.class);
+
+        assertThat(registry.get("appointments.book")
+                .tags("outcome", "success", "category", "barbershop").timer().count()).isEqualTo(1);
+        assertThat(registry.get("appointments.book")
+                .tags("outcome", "conflict", "category", "barbershop").timer().count()).isEqualTo(1);
+        var conflicts = registry.get("appointments.book.conflicts").tags("category", "barbershop").summary();
+        assertThat(conflicts.count()).isEqualTo(2);
+        assertThat(conflicts.mean()).isEqualTo(0.5);
+    }
+
+    @Test
+    void explicitOutcomeWinsAndUndeclaredTagsAreIgnored() {
+        assertThatThrownBy(() -> metrics.timed("appointments.reschedule", DomainMetrics.BY_CATEGORY, call -> {
+            call.tag("worker", "w-1").outcome(DomainMetrics.CONFLICT);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Requested time slot is not available");
+        })).isInstanceOf(ResponseStatusException.class);
+
+        var timer = registry.get("appointments.reschedule").timer();
+        assertThat(timer.getId().getTag("outcome")).isEqualTo("conflict");
+        assertThat(timer.getId().getTag("category")).isEqualTo("unknown");
+        assertThat(timer.getId().getTag("worker")).isNull();
+    }
+}
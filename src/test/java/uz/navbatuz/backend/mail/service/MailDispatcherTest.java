@@ -0,0 +1,71 @@
+package uz.navbatuz.backend.mail.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import uz.navbatuz.backend.common.DomainMetrics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(smtp.getSmtp().getPort());
+        dispatcher = new MailDispatcher(sender, new DomainMetrics(registry), "no-reply@birzum.app");
+    }
+
+    @Test
+    void sendsChunkInOneBatchAndReportsNothingFailed() throws Exception {
+        var chunk = List.of(
+                new MailDispatcher.Outgoing(UUID.randomUUID(), "a@example.com", "Привет", "<p>one</p>"),
+                new MailDispatcher.Outgoing(UUID.randomUUID(), "b@example.com", "Hello", "<p>two</p>"));
+
+        Map<UUID, Exception> failed = dispatcher.send(chunk);
+
+        assertThat(failed).isEmpty();
+        MimeMessage[] received = smtp.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        assertThat(received[0].getSubject()).isEqualTo("Привет");
+        assertThat(registry.get("email.send").tags("batch", "multi", "outcome", "success").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void invalidAddressFailsOnlyThatMessage() {
+        UUID bad = UUID.randomUUID();
+        var chunk = List.of(
+                new MailDispatcher.Outgoing(bad, "not an address", "x", "<p>x</p>"),
+                new MailDispatcher.Outgoing(UUID.randomUUID(), "c@example.com", "y", "<p>y</p>"));
+
+        Map<UUID, Exception> failed = dispatcher.send(chunk);
+
+        assertThat(failed).containsOnlyKeys(bad);
+        assertThat(smtp.getReceivedMessages()).hasSize(1);
+    }
+
+    @Test
+    void backoffGrowsAndIsCapped() {
+        assertThat(MailOutboxProcessor.backoff(1)).isBetween(Duration.ofSeconds(30), Duration.ofSeconds(36));
+        assertThat(MailOutboxProcessor.backoff(3)).isBetween(Duration.ofMinutes(2), Duration.ofSeconds(144));
+        assertThat(MailOutboxProcessor.backoff(30)).isBetween(Duration.ofHours(1), Duration.ofMinutes(72));
+    }
+}
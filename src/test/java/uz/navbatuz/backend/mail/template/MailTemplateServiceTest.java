@@ -0,0 +1,57 @@
+package uz.navbatuz.backend.mail.template;
+
+import org.junit.jupiter.api.Test;
+import uz.navbatuz.backend.common.Language;
+import uz.navbatuz.backend.config.MessageConfig;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailTemplateServiceTest {
+
+    private final MailTemplateService templates = new MailTemplateService(new MessageConfig().messageSource());
+
+    @Test
+    void inlinesMessagesPerLanguageAndEscapesBodyValues() {
+        RenderedMail en = templates.render(MailTemplate.REVIEW_PROMPT, Language.EN,
+                "Ann", "Tom & Jerry <Barbers>", "https://birzum.app/appointments/1/review");
+
+        assertThat(en.subject()).isEqualTo("How was your visit to Tom & Jerry <Barbers>?");
+        assertThat(en.html())
+                .contains("Hi Ann! Thanks for visiting Tom &amp; Jerry &lt;Barbers&gt;.")
+                .contains("href=\"https://birzum.app/appointments/1/review\"")
+                .contains("Leave a review");
+
+        // '' in a pattern with arguments is one apostrophe
+        RenderedMail uz = templates.render(MailTemplate.REVIEW_PROMPT, Language.UZ, "Ali", "Salon", "x");
+        assertThat(uz.subject()).isEqualTo("Salon tashrifingiz qanday o'tdi?");
+    }
+
+    @Test
+    void nullLanguageFallsBackToRussian() {
+        RenderedMail mail = templates.render(MailTemplate.PASSWORD_RESET, null, "012345", "https://x/reset");
+
+        assertThat(mail.subject()).isEqualTo("Сброс пароля Birzum");
+        assertThat(mail.html()).contains(">012345<").contains("<a href=\"https://x/reset\">https://x/reset</a>");
+    }
+
+    @Test
+    void rejectsWrongNumberOfValues() {
+        assertThatThrownBy(() -> templates.render(MailTemplate.PASSWORD_RESET, Language.EN, "012345"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void compilerResolvesQuotedAndPositionalArguments() {
+        Map<String, String> bundle = Map.of("k", "'{literal}' {1} then {0}", "plain", "it's");
+        CompiledTemplate t = CompiledTemplate.compile("[{{msg:k|a,b}}|{{msg:plain}}|{{b}}]", List.of("a", "b"),
+                bundle::get, false);
+
+        StringBuilder out = new StringBuilder();
+        t.renderTo(out, new String[]{"A", "B"});
+        assertThat(out).hasToString("[{literal} B then A|it's|B]");
+    }
+}
@@ -0,0 +1,185 @@
+package uz.navbatuz.backend.media.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+import uz.navbatuz.backend.common.DomainMetrics;
+import uz.navbatuz.backend.config.FileStorageProperties;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ImageDerivativeServiceTest {
+
+    private static final String SHA = "ab".repeat(32);
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, String> contentTypes = new ConcurrentHashMap<>();
+    private final Map<String, String> cacheControls = new ConcurrentHashMap<>();
+    private volatile CountDownLatch puts = new CountDownLatch(0);
+    private volatile CountDownLatch resized = new CountDownLatch(0);
+    private final S3Client s3 = fakeS3();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ImageDerivativeService service;
+
+    ImageDerivativeServiceTest() {
+        FileStorageProperties props = new FileStorageProperties();
+        props.setS3Bucket("media");
+        service = new ImageDerivativeService(s3, new DomainMetrics(registry), props);
+    }
+
+    @Test
+    void variantKeysFollowTheOriginal() {
+        assertThat(ImageVariant.thumbnail("https://cdn.example/provider/p1/" + SHA + ".jpg"))
+                .isEqualTo("https://cdn.example/provider/p1/" + SHA + "_thumb.jpg");
+        assertThat(ImageVariant.MEDIUM.of("service/" + SHA + ".png")).isEqualTo("service/" + SHA + "_md.png");
+        assertThat(ImageVariant.thumbnail("https://cdn.example/uploads/logo.jpg")).isEqualTo("https://cdn.example/uploads/logo.jpg");
+        assertThat(ImageVariant.thumbnail(null)).isNull();
+    }
+
+    @Test
+    void jpegIsDownscaledToEachVariantKeepingAspect() throws Exception {
+        String key = "provider/p1/" + SHA + ".jpg";
+        objects.put(key, encode(image(3000, 2000, BufferedImage.TYPE_INT_RGB), "jpeg"));
+
+        service.generate(key, "image/jpeg");
+
+        BufferedImage thumb = ImageIO.read(new ByteArrayInputStream(objects.get("provider/p1/" + SHA + "_thumb.jpg")));
+        BufferedImage md = ImageIO.read(new ByteArrayInputStream(objects.get("provider/p1/" + SHA + "_md.jpg")));
+        assertThat(thumb.getWidth()).isEqualTo(128);
+        assertThat(thumb.getHeight()).isEqualTo(85);
+        assertThat(md.getWidth()).isEqualTo(640);
+        assertThat(md.getHeight()).isEqualTo(427);
+        assertThat(objects.get("provider/p1/" + SHA + "_md.jpg").length).isLessThan(objects.get(key).length);
+        assertThat(contentTypes.get("provider/p1/" + SHA + "_thumb.jpg")).isEqualTo("image/jpeg");
+        assertThat(registry.get("storage.variants").tags("result", "resized").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void prepareServesPlaceholdersUntilTheResizeLands() throws Exception {
+        String key = "provider/p1/" + SHA + ".jpg";
+        byte[] original = encode(image(800, 600, BufferedImage.TYPE_INT_RGB), "jpeg");
+        objects.put(key, original);
+        puts = new CountDownLatch(1);
+        resized = new CountDownLatch(ImageVariant.values().length);
+
+        service.prepare(key, "image/jpeg");
+
+        String thumb = ImageVariant.THUMB.of(key);
+        assertThat(objects.get(thumb)).isEqualTo(original);
+        assertThat(cacheControls.get(thumb)).isEqualTo("public, max-age=300");
+
+        puts.countDown();
+        assertThat(resized.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(ImageIO.read(new ByteArrayInputStream(objects.get(thumb))).getWidth()).isEqualTo(128);
+        assertThat(cacheControls.get(thumb)).contains("immutable");
+    }
+
+    @Test
+    void ensureReadyRebuildsMissingVariantsAndLeavesFinishedOnesAlone() throws Exception {
+        String key = "service/" + SHA + ".jpg";
+        objects.put(key, encode(image(400, 400, BufferedImage.TYPE_INT_RGB), "jpeg"));
+        resized = new CountDownLatch(ImageVariant.values().length);
+
+        service.ensureReady(key, "image/jpeg");
+        assertThat(objects).containsKey(ImageVariant.THUMB.of(key));
+        assertThat(resized.await(10, TimeUnit.SECONDS)).isTrue();
+
+        service.ensureReady(key, "image/jpeg");
+        verify(s3, times(ImageVariant.values().length)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void smallPngIsNotUpscaledAndKeepsAlpha() throws Exception {
+        String key = "user/u1/" + SHA + ".png";
+        objects.put(key, encode(image(100, 50, BufferedImage.TYPE_INT_ARGB), "png"));
+
+        service.generate(key, "image/png");
+
+        BufferedImage md = ImageIO.read(new ByteArrayInputStream(objects.get("user/u1/" + SHA + "_md.png")));
+        assertThat(md.getWidth()).isEqualTo(100);
+        assertThat(md.getHeight()).isEqualTo(50);
+        assertThat(md.getColorModel().hasAlpha()).isTrue();
+    }
+
+    @Test
+    void undecodableImageFallsBackToCopiesOfTheOriginal() {
+        String key = "service/" + SHA + ".jpg";
+        byte[] garbage = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 1, 2, 3};
+        objects.put(key, garbage);
+
+        service.generate(key, "image/jpeg");
+
+        assertThat(objects.get("service/" + SHA + "_thumb.jpg")).isEqualTo(garbage);
+        assertThat(objects.get("service/" + SHA + "_md.jpg")).isEqualTo(garbage);
+        assertThat(cacheControls.get("service/" + SHA + "_md.jpg")).contains("immutable");   // final, not retried
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private static BufferedImage image(int w, int h, int type) {
+        BufferedImage img = new BufferedImage(w, h, type);
+        Graphics2D g = img.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, Color.RED, w, h, new Color(0, 0, 255, 128)));
+        g.fillRect(0, 0, w, h);
+        g.dispose();
+        return img;
+    }
+
+    private static byte[] encode(BufferedImage img, String format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, format, out);
+        return out.toByteArray();
+    }
+
+    private S3Client fakeS3() {
+        S3Client mock = mock(S3Client.class);
+        when(mock.getObject(any(GetObjectRequest.class))).thenAnswer(inv -> {
+            GetObjectRequest r = inv.getArgument(0);
+            byte[] body = objects.get(r.key());
+            if (body == null) throw NoSuchKeyException.builder().build();
+            return new ResponseInputStream<>(GetObjectResponse.builder().build(),
+                    AbortableInputStream.create(new ByteArrayInputStream(body)));
+        });
+        when(mock.headObject(any(HeadObjectRequest.class))).thenAnswer(inv -> {
+            HeadObjectRequest r = inv.getArgument(0);
+            if (!objects.containsKey(r.key())) throw NoSuchKeyException.builder().build();
+            return HeadObjectResponse.builder().cacheControl(cacheControls.get(r.key())).build();
+        });
+        when(mock.putObject(any(PutObjectRequest.class), any(RequestBody.class))).thenAnswer(inv -> {
+            puts.await(10, TimeUnit.SECONDS);
+            PutObjectRequest r = inv.getArgument(0);
+            RequestBody body = inv.getArgument(1);
+            try (InputStream in = body.contentStreamProvider().newStream()) {
+                objects.put(r.key(), in.readAllBytes());
+            }
+            contentTypes.put(r.key(), r.contentType());
+            cacheControls.put(r.key(), r.cacheControl());
+            resized.countDown();
+            return PutObjectResponse.builder().build();
+        });
+        when(mock.copyObject(any(CopyObjectRequest.class))).thenAnswer(inv -> {
+            CopyObjectRequest r = inv.getArgument(0);
+            objects.put(r.destinationKey(), objects.get(r.sourceKey()));
+            cacheControls.put(r.destinationKey(), r.cacheControl());
+            return CopyObjectResponse.builder().build();
+        });
+        return mock;
+    }
+}
@@ -0,0 +1,154 @@
+package uz.navbatuz.backend.media.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+import uz.navbatuz.backend.common.DomainMetrics;
+import uz.navbatuz.backend.config.FileStorageProperties;
+import uz.navbatuz.backend.media.dto.UploadedFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/** Runs against an in-process S3 stand-in that keeps objects and multipart parts in maps. */
+class StorageServiceTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A};
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<Integer, byte[]> parts = new ConcurrentHashMap<>();
+    private final S3Client s3 = fakeS3();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ImageDerivativeService derivatives = mock(ImageDerivativeService.class);
+    private final StorageService storage;
+
+    StorageServiceTest() {
+        FileStorageProperties props = new FileStorageProperties();
+        props.setS3Bucket("media");
+        props.setPublicBaseUrl("https://cdn.example/");
+        props.setPartSizeMb(5);
+        props.setMaxBufferedParts(2);
+        storage = new StorageService(props, s3, new S3StreamingUploader(s3, props), new DomainMetrics(registry), derivatives);
+    }
+
+    @Test
+    void smallImageIsSniffedStreamedAndStoredUnderItsHash() throws Exception {
+        byte[] png = image(PNG, 10_000);
+        UploadedFile f = storage.store(new MockMultipartFile("file", "a.bin", "application/octet-stream", png),
+                "provider", "p1");
+
+        assertThat(f.contentType()).isEqualTo("image/png");
+        assertThat(f.sha256()).isEqualTo(sha256(png));
+        assertThat(f.path()).isEqualTo("/provider/p1/" + f.sha256() + ".png");
+        assertThat(f.url()).isEqualTo("https://cdn.example/provider/p1/" + f.sha256() + ".png");
+        assertThat(objects).containsOnlyKeys("provider/p1/" + f.sha256() + ".png");   // staging copy removed
+        assertThat(objects.values().iterator().next()).isEqualTo(png);
+        assertThat(f.variants()).containsEntry("thumb", "https://cdn.example/provider/p1/" + f.sha256() + "_thumb.png");
+        verify(derivatives).prepare("provider/p1/" + f.sha256() + ".png", "image/png");
+        verify(s3, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void largeImageGoesMultipartAndReassemblesExactly() throws Exception {
+        byte[] jpeg = image(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}, 12 * 1024 * 1024 + 123);
+        UploadedFile f = storage.store(new MockMultipartFile("file", "a.jpg", "image/jpeg", jpeg), "service", null);
+
+        assertThat(parts).hasSize(3);
+        assertThat(objects.get("service/" + f.sha256() + ".jpg")).isEqualTo(jpeg);
+        assertThat(f.sha256()).isEqualTo(sha256(jpeg));
+    }
+
+    @Test
+    void sameContentTwiceIsStoredOnce() {
+        byte[] png = image(PNG, 2_000);
+        UploadedFile first = storage.store(new MockMultipartFile("file", "a.png", "image/png", png), "user", "u1");
+        UploadedFile second = storage.store(new MockMultipartFile("file", "b.png", "image/png", png), "user", "u1");
+
+        assertThat(second.path()).isEqualTo(first.path());
+        assertThat(objects).hasSize(1);
+        verify(s3, times(1)).copyObject(any(CopyObjectRequest.class));
+        verify(derivatives, times(1)).prepare(anyString(), anyString());
+        verify(derivatives).ensureReady(second.path().substring(1), "image/png");   // dedup hit repairs lost variants
+        assertThat(registry.get("storage.store").tags("dedup", "hit").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsUnknownSignatureWithoutUploading() {
+        assertThatThrownBy(() -> storage.store(
+                new MockMultipartFile("file", "a.gif", "image/gif", "GIF89a....".getBytes()), "user", "u1"))
+                .isInstanceOf(ResponseStatusException.class);
+        verify(s3, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    /* ---------------- fake S3 ---------------- */
+
+    private S3Client fakeS3() {
+        S3Client mock = mock(S3Client.class);
+        when(mock.putObject(any(PutObjectRequest.class), any(RequestBody.class))).thenAnswer(inv -> {
+            PutObjectRequest r = inv.getArgument(0);
+            objects.put(r.key(), read(inv.getArgument(1)));
+            return PutObjectResponse.builder().build();
+        });
+        when(mock.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("up-1").build());
+        when(mock.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(inv -> {
+            UploadPartRequest r = inv.getArgument(0);
+            parts.put(r.partNumber(), read(inv.getArgument(1)));
+            return UploadPartResponse.builder().eTag("etag-" + r.partNumber()).build();
+        });
+        when(mock.completeMultipartUpload(any(CompleteMultipartUploadRequest.class))).thenAnswer(inv -> {
+            CompleteMultipartUploadRequest r = inv.getArgument(0);
+            ByteArrayOutputStream all = new ByteArrayOutputStream();
+            for (CompletedPart p : r.multipartUpload().parts()) all.write(parts.get(p.partNumber()));
+            objects.put(r.key(), all.toByteArray());
+            return CompleteMultipartUploadResponse.builder().build();
+        });
+        when(mock.headObject(any(HeadObjectRequest.class))).thenAnswer(inv -> {
+            HeadObjectRequest r = inv.getArgument(0);
+            if (!objects.containsKey(r.key())) throw NoSuchKeyException.builder().build();
+            return HeadObjectResponse.builder().build();
+        });
+        when(mock.copyObject(any(CopyObjectRequest.class))).thenAnswer(inv -> {
+            CopyObjectRequest r = inv.getArgument(0);
+            objects.put(r.destinationKey(), objects.get(r.sourceKey()));
+            return CopyObjectResponse.builder().build();
+        });
+        when(mock.deleteObject(any(DeleteObjectRequest.class))).thenAnswer(inv -> {
+            objects.remove(((DeleteObjectRequest) inv.getArgument(0)).key());
+            return DeleteObjectResponse.builder().build();
+        });
+        return mock;
+    }
+
+    private static byte[] read(RequestBody body) throws Exception {
+        try (InputStream in = body.contentStreamProvider().newStream()) {
+            return in.readNBytes(body.optionalContentLength().orElseThrow().intValue());
+        }
+    }
+
+    private static byte[] image(byte[] signature, int size) {
+        byte[] b = new byte[size];
+        new Random(size).nextBytes(b);
+        System.arraycopy(signature, 0, b, 0, signature.length);
+        return b;
+    }
+
+    private static String sha256(byte[] b) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(b));
+    }
+}
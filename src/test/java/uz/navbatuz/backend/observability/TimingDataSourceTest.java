@@ -0,0 +1,68 @@
+package uz.navbatuz.backend.observability;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingDataSourceTest {
+
+    @Test
+    void countsStatementsPerRequestAndSamplesSlowOnesWithParameterShapes() throws Exception {
+        SqlActivity activity = new SqlActivity(0, 2); // every statement is "slow", keep two
+        DataSource ds = new TimingDataSource(stubDataSource(), activity);
+
+        activity.beginRequest("GET /api/appointments/me");
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement("select * from appointments where worker_id in (?, ?, ?) and date = ?")) {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setObject(2, UUID.randomUUID());
+            ps.setObject(3, UUID.randomUUID());
+            ps.setObject(4, LocalDate.now());
+            ps.executeQuery();
+            ps.setString(4, "+998901234567");
+            ps.executeQuery();
+        }
+        SqlActivity.RequestStats stats = activity.endRequest();
+
+        assertThat(stats.statements()).isEqualTo(2);
+        assertThat(activity.slowQueries()).hasSize(2);
+        assertThat(activity.slowQueries().get(0).params()).isEqualTo("[uuid×3, varchar(13)]");
+        assertThat(activity.slowQueries().get(1).params()).isEqualTo("[uuid×3, date]");
+        assertThat(activity.slowQueries().get(1).request()).isEqualTo("GET /api/appointments/me");
+    }
+
+    @Test
+    void ringBufferKeepsNewestEntries() throws Exception {
+        SqlActivity activity = new SqlActivity(0, 2);
+        DataSource ds = new TimingDataSource(stubDataSource(), activity);
+        try (Connection c = ds.getConnection()) {
+            for (int i = 1; i <= 3; i++) {
+                c.prepareStatement("select " + i).executeQuery();
+            }
+        }
+        assertThat(activity.slowQueries()).extracting(SlowQuery::sql).containsExactly("select 3", "select 2");
+    }
+
+    private static DataSource stubDataSource() {
+        PreparedStatement statement = stub(PreparedStatement.class);
+        Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (p, m, a) -> m.getName().equals("prepareStatement") ? statement : null);
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                new Class<?>[]{DataSource.class},
+                (p, m, a) -> m.getName().equals("getConnection") ? connection : null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, m, a) ->
+                m.getReturnType() == boolean.class ? false : m.getReturnType() == int.class ? 0 : null);
+    }
+}
@@ -0,0 +1,44 @@
+package uz.navbatuz.backend.provider.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import uz.navbatuz.backend.provider.dto.ProviderProfileSnapshot;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProviderProfileCacheTest {
+
+    private final ProviderProfileCache cache = new ProviderProfileCache(new SimpleMeterRegistry());
+    private final UUID provider = UUID.randomUUID();
+
+    @Test
+    void loadThatOverlapsAnEvictIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        ProviderProfileSnapshot stale = snapshot();
+
+        // the edit commits while the snapshot is being read
+        assertThat(cache.get(provider, id -> {
+            loads.incrementAndGet();
+            cache.evict(provider);
+            return stale;
+        })).isSameAs(stale);
+
+        ProviderProfileSnapshot fresh = snapshot();
+        assertThat(cache.get(provider, id -> {
+            loads.incrementAndGet();
+            return fresh;
+        })).isSameAs(fresh);
+        assertThat(cache.get(provider, id -> {
+            throw new AssertionError("should be cached");
+        })).isSameAs(fresh);
+        assertThat(loads).hasValue(2);
+    }
+
+    private static ProviderProfileSnapshot snapshot() {
+        return new ProviderProfileSnapshot(null, null, List.of(), null, null);
+    }
+}
@@ -0,0 +1,42 @@
+package uz.navbatuz.backend.provider.service;
+
+import org.junit.jupiter.api.Test;
+import uz.navbatuz.backend.common.text.SearchText;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProviderSearchServiceTest {
+
+    @Test
+    void uzbekApostropheVariantsNormalizeToTheSameText() {
+        assertThat(SearchText.normalize("Oʻzbek Goʻzallik"))
+                .isEqualTo(SearchText.normalize("O'zbek Go‘zallik"))
+                .isEqualTo("ozbek gozallik");
+    }
+
+    @Test
+    void cyrillicYoFoldsToYe() {
+        assertThat(SearchText.normalize("Салон Ёлка")).isEqualTo("салон елка");
+    }
+
+    @Test
+    void termsSplitOnPunctuationAndDropDuplicates() {
+        assertThat(ProviderSearchService.terms("  Soch-turmak, soch!  "))
+                .containsExactly("soch", "turmak");
+        assertThat(ProviderSearchService.terms("--- !!")).isEmpty();
+    }
+
+    @Test
+    void tsQueryTreatsEveryTermAsRequiredPrefix() {
+        assertThat(ProviderSearchService.toTsQuery(List.of("soch", "tashkent")))
+                .isEqualTo("soch:* & tashkent:*");
+    }
+
+    @Test
+    void tsQueryCannotBeInjectedThroughOperators() {
+        List<String> terms = ProviderSearchService.terms("a & !b | c:* <-> (d)");
+        assertThat(String.join("", terms)).matches("[\\p{L}\\p{N}]+");
+    }
+}
@@ -0,0 +1,93 @@
+package uz.navbatuz.backend.providerclient.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import uz.navbatuz.backend.config.DatabaseIndexInitializer;
+import uz.navbatuz.backend.guest.model.Guest;
+import uz.navbatuz.backend.providerclient.dto.ClientVisit;
+import uz.navbatuz.backend.providerclient.repository.ProviderClientRepository;
+import uz.navbatuz.backend.providerclient.repository.ProviderClientVisitRepository;
+import uz.navbatuz.backend.providerclient.repository.ProviderClientVisitRepository.VisitRow;
+import uz.navbatuz.backend.providerclient.typeahead.ClientTypeaheadCache;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ProviderClientServiceTest {
+
+    @Test
+    void phoneFragmentsBecomeE164Prefixes() {
+        assertThat(ProviderClientService.phonePrefix("+998 (90) 12")).isEqualTo("+9989012");
+        assertThat(ProviderClientService.phonePrefix("998-90")).isEqualTo("+99890");
+        assertThat(ProviderClientService.phonePrefix("+9")).isEmpty();      // too short to be selective
+        assertThat(ProviderClientService.phonePrefix("Ali 90")).isEmpty();  // mixed text is a name search
+    }
+
+    @Test
+    void upperBoundCoversExactlyThePrefixRange() {
+        String hi = ProviderClientService.upperBound("+99890");
+        assertThat(hi).isEqualTo("+99891");
+        assertThat("+998901234567".compareTo(hi)).isNegative();
+        assertThat("+998910000000".compareTo(hi)).isNotNegative();
+        assertThat(ProviderClientService.upperBound("+9989")).isEqualTo("+998:");
+    }
+
+    @Test
+    void nameTokensDropWildcardsAndFoldApostrophes() {
+        assertThat(ProviderClientService.nameToken("  G‘ayrat_%  ")).isEqualTo("gayrat");
+        assertThat(ProviderClientService.nameToken("Olim  Ёқубов")).isEqualTo("olim еқубов");
+    }
+
+    @Test
+    void searchScansWhileTheTrigramIndexIsNotReady() {
+        ProviderClientRepository repo = mock(ProviderClientRepository.class);
+        DatabaseIndexInitializer indexes = mock(DatabaseIndexInitializer.class);
+        ProviderClientService service = new ProviderClientService(repo, mock(ProviderClientVisitRepository.class),
+                mock(ClientTypeaheadCache.class), indexes);
+        UUID provider = UUID.randomUUID();
+
+        service.search(provider, "+998 90");
+        verify(repo).searchByPhoneOrName(eq(provider), eq("+99890"), any(), any());
+
+        when(indexes.isReady(DatabaseIndexInitializer.CLIENT_NAME_INDEX)).thenReturn(true);
+        service.search(provider, "karimov");
+        verify(repo).searchIndexed(eq(provider), eq(""), eq(""), eq("karimov"), anyInt(), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void visitsOfTheSameClientAreCoalescedIntoOneRowWithTheSummedCount() {
+        ProviderClientVisitRepository visits = mock(ProviderClientVisitRepository.class);
+        when(visits.upsertVisits(any(), any())).thenReturn(List.of());
+        ProviderClientService service = new ProviderClientService(null, visits, mock(ClientTypeaheadCache.class),
+                mock(DatabaseIndexInitializer.class));
+
+        UUID provider = UUID.randomUUID();
+        Guest first = Guest.builder().id(UUID.randomUUID()).name("Aziz").phoneNumber("+998 90 111-22-33").build();
+        Guest renamed = Guest.builder().id(first.getId()).name("Aziz Karimov").phoneNumber("+998901112233").build();
+        Guest other = Guest.builder().id(UUID.randomUUID()).name("Walk-in").phoneNumber("+998900000000").build();
+        LocalDateTime t = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+        service.recordVisits(List.of(
+                new ClientVisit(provider, null, renamed, null, null, null, t.plusHours(2)),
+                new ClientVisit(provider, null, first, null, null, null, t),
+                new ClientVisit(provider, null, other, null, null, null, t),   // walk-ins are not counted
+                new ClientVisit(provider, null, first, null, null, null, t.plusHours(1))));
+
+        ArgumentCaptor<List<VisitRow>> rows = ArgumentCaptor.forClass(List.class);
+        verify(visits).upsertVisits(rows.capture(), any());
+        assertThat(rows.getValue()).singleElement().satisfies(r -> {
+            assertThat(r.phoneE164()).isEqualTo("+998901112233");
+            assertThat(r.visits()).isEqualTo(3);
+            assertThat(r.lastVisitAt()).isEqualTo(t.plusHours(2));
+            assertThat(r.name()).isEqualTo("Aziz Karimov");
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package uz.navbatuz.backend.providerclient.typeahead;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import uz.navbatuz.backend.providerclient.model.ProviderClient.PersonType;
+import uz.navbatuz.backend.providerclient.repository.ProviderClientRepository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ClientTypeaheadCacheTest {
+
+    private final ProviderClientRepository repo = mock(ProviderClientRepository.class);
+    private final ClientTypeaheadCache cache =
+            new ClientTypeaheadCache(repo, new SimpleMeterRegistry(), true, 500_000, 100_000, 30);
+    private final UUID provider = UUID.randomUUID();
+
+    @Test
+    void concurrentMissesShareOneLoadAndKeepUpsertsMadeDuringIt() throws Exception {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch finishLoad = new CountDownLatch(1);
+        when(repo.findTypeaheadRows(eq(provider), any())).thenAnswer(inv -> {
+            loadStarted.countDown();
+            finishLoad.await(5, TimeUnit.SECONDS);
+            return List.of();   // read before the new client committed
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<ClientTypeaheadIndex> first = pool.submit(() -> cache.get(provider));
+            assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<ClientTypeaheadIndex> second = pool.submit(() -> cache.get(provider));
+
+            cache.clientSaved(provider, new ClientTypeaheadIndex.Entry(
+                    UUID.randomUUID(), "Dilnoza", "+998901234567", PersonType.GUEST, UUID.randomUUID(), 1));
+            finishLoad.countDown();
+
+            ClientTypeaheadIndex index = first.get(5, TimeUnit.SECONDS);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(index);
+            assertThat(index.byPhonePrefix("+99890123", 200, 20)).hasSize(1);
+            assertThat(cache.get(provider)).isSameAs(index);
+            verify(repo, times(1)).findTypeaheadRows(eq(provider), any());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package uz.navbatuz.backend.providerclient.typeahead;
+
+import org.junit.jupiter.api.Test;
+import uz.navbatuz.backend.providerclient.model.ProviderClient.PersonType;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientTypeaheadIndexTest {
+
+    private final ClientTypeaheadIndex index = new ClientTypeaheadIndex();
+
+    private ClientTypeaheadIndex.Entry client(String name, String phone, long lastVisit) {
+        ClientTypeaheadIndex.Entry e = new ClientTypeaheadIndex.Entry(
+                UUID.randomUUID(), name, phone, PersonType.GUEST, UUID.randomUUID(), lastVisit);
+        index.upsert(e);
+        return e;
+    }
+
+    private static List<String> names(List<ClientTypeaheadIndex.Entry> entries) {
+        return entries.stream().map(ClientTypeaheadIndex.Entry::name).toList();
+    }
+
+    @Test
+    void phonePrefixReturnsMostRecentVisitsFirst() {
+        client("Old", "+998901110000", 1);
+        client("New", "+998901112222", 3);
+        client("Other operator", "+998911110000", 5);
+
+        assertThat(names(index.byPhonePrefix("+9989011", 200, 20))).containsExactly("New", "Old");
+        assertThat(index.byPhonePrefix("+99893", 200, 20)).isEmpty();
+    }
+
+    @Test
+    void phoneCandidatesAreCappedInDigitOrderLikeTheBtreePath() {
+        client("A", "+998900000001", 1);
+        client("B", "+998900000002", 9);
+        client("C", "+998900000003", 5);
+
+        // the cap keeps the first two numbers, then recency orders them
+        assertThat(names(index.byPhonePrefix("+99890", 2, 20))).containsExactly("B", "A");
+    }
+
+    @Test
+    void everyQueryTokenMustPrefixSomeNameWord() {
+        client("Gʻayrat Karimov", "+998900000001", 1);
+        client("Karim Aliyev", "+998900000002", 2);
+
+        assertThat(names(index.byNameTokens("kar", 20))).containsExactly("Karim Aliyev", "Gʻayrat Karimov");
+        assertThat(names(index.byNameTokens("gayrat kar", 20))).containsExactly("Gʻayrat Karimov");
+        assertThat(index.byNameTokens("ayrat", 20)).isEmpty(); // substring only: left to the database
+    }
+
+    @Test
+    void upsertReplacesTheClientWithTheSamePhone() {
+        client("Guest", "+998900000001", 1);
+        client("Dilnoza", "+998900000001", 2);
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.byNameTokens("guest", 20)).isEmpty();
+        assertThat(names(index.byNameTokens("dil", 20))).containsExactly("Dilnoza");
+    }
+
+    @Test
+    void trieGrowsPastItsInitialCapacity() {
+        for (int i = 0; i < 2_000; i++) {
+            client("C" + i, String.format("+99890%07d", i), i);
+        }
+        assertThat(index.byPhonePrefix("+998900001", 200, 5)).hasSize(5);
+        assertThat(names(index.recent(1))).containsExactly("C1999");
+    }
+}
@@ -0,0 +1,128 @@
+package uz.navbatuz.backend.reminder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import uz.navbatuz.backend.appointment.dto.UpcomingAppointment;
+import uz.navbatuz.backend.appointment.repository.AppointmentRepository;
+import uz.navbatuz.backend.common.DomainMetrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AppointmentReminderSchedulerTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Tashkent");
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    private final AppointmentRepository repo = mock(AppointmentRepository.class);
+    private final InMemoryReminderNotifier notifier = new InMemoryReminderNotifier();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AppointmentReminderScheduler scheduler = new AppointmentReminderScheduler(repo, notifier,
+            mock(PlatformTransactionManager.class), registry, new DomainMetrics(registry), true, 30 * 60_000L);
+    private final long now = System.currentTimeMillis() / 1000 * 1000;
+
+    @Test
+    void refillSchedulesBothRemindersAndFiresThemOnTime() {
+        var a = appointment(now + 25 * HOUR, now - 48 * HOUR);
+        when(repo.findUpcoming(any(), any(), any())).thenReturn(List.of(a));
+        scheduler.refill(now);
+
+        scheduler.fireDue(now + HOUR - 1000);
+        assertThat(notifier.drain()).isEmpty();
+        scheduler.fireDue(now + HOUR);
+        assertThat(notifier.drain()).containsExactly(new DueReminder(a.id(), ReminderKind.DAY_BEFORE, a.startsAt()));
+        scheduler.fireDue(now + 23 * HOUR);
+        assertThat(notifier.drain()).containsExactly(new DueReminder(a.id(), ReminderKind.TWO_HOURS_BEFORE, a.startsAt()));
+    }
+
+    @Test
+    void cancelAndRescheduleEventsMoveTheReminders() {
+        var cancelled = appointment(now + 25 * HOUR, now - 48 * HOUR);
+        var moved = appointment(now + 25 * HOUR, now - 48 * HOUR);
+        var movedOut = appointment(now + 25 * HOUR, now - 48 * HOUR);
+        when(repo.findUpcoming(any(), any(), any())).thenReturn(List.of(cancelled, moved, movedOut));
+        scheduler.refill(now);
+
+        var earlier = moved(moved, now + 24 * HOUR + HOUR / 2);
+        var beyondWindow = moved(movedOut, now + 30 * HOUR);   // picked up again by a later refill
+        scheduler.apply(List.of(earlier, beyondWindow), Set.of(moved.id(), movedOut.id()), Set.of(cancelled.id()), now);
+
+        scheduler.fireDue(now + HOUR / 2);
+        assertThat(notifier.drain()).containsExactly(
+                new DueReminder(moved.id(), ReminderKind.DAY_BEFORE, earlier.startsAt()));
+        scheduler.fireDue(now + HOUR);
+        assertThat(notifier.drain()).isEmpty();
+        assertThat(scheduler.size()).isEqualTo(1);   // the moved appointment's two-hour reminder
+    }
+
+    @Test
+    void missedReminderIsSentLateOnlyIfItWasEverDue() {
+        var missed = appointment(now + 3 * HOUR, now - 48 * HOUR);     // day-before passed while down
+        var bookedLate = appointment(now + 3 * HOUR, now - HOUR);      // booked after the day-before point
+        when(repo.findUpcoming(any(), any(), any())).thenReturn(List.of(missed, bookedLate));
+        scheduler.refill(now);
+
+        scheduler.fireDue(now);
+        assertThat(notifier.drain()).containsExactly(
+                new DueReminder(missed.id(), ReminderKind.DAY_BEFORE, missed.startsAt()));
+        scheduler.fireDue(now + HOUR);
+        assertThat(notifier.drain()).extracting(DueReminder::appointmentId)
+                .containsExactlyInAnyOrder(missed.id(), bookedLate.id());
+    }
+
+    @Test
+    void failedBatchIsRetriedAMinuteLater() {
+        var a = appointment(now + 3 * HOUR, now - 48 * HOUR);
+        when(repo.findUpcoming(any(), any(), any())).thenReturn(List.of(a));
+        scheduler.refill(now);
+
+        notifier.failNext = true;
+        scheduler.fireDue(now);
+        assertThat(notifier.drain()).isEmpty();
+        scheduler.fireDue(now + 60_000);
+        assertThat(notifier.drain()).extracting(DueReminder::kind).containsExactly(ReminderKind.DAY_BEFORE);
+    }
+
+    @Test
+    void eventsAppliedWhileARefillQueryRunsAreNotLost() {
+        var booked = appointment(now + 25 * HOUR, now);
+        var rescheduled = appointment(now + 25 * HOUR, now - 48 * HOUR);
+        var movedTo = moved(rescheduled, now + 24 * HOUR + HOUR / 2);
+        // the refill reads before both changes commit; their events are applied before it finishes
+        when(repo.findUpcoming(any(), any(), any())).thenAnswer(inv -> {
+            scheduler.apply(List.of(booked, movedTo), Set.of(booked.id(), rescheduled.id()), Set.of(), now);
+            return List.of(rescheduled);
+        });
+        scheduler.refill(now);
+
+        scheduler.fireDue(now + HOUR);
+        assertThat(notifier.drain()).containsExactlyInAnyOrder(
+                new DueReminder(booked.id(), ReminderKind.DAY_BEFORE, booked.startsAt()),
+                new DueReminder(rescheduled.id(), ReminderKind.DAY_BEFORE, movedTo.startsAt()));
+    }
+
+    private UpcomingAppointment appointment(long startMs, long bookedMs) {
+        LocalDateTime start = local(startMs);
+        return new UpcomingAppointment(UUID.randomUUID(), start.toLocalDate(), start.toLocalTime(), local(bookedMs));
+    }
+
+    private static UpcomingAppointment moved(UpcomingAppointment a, long startMs) {
+        LocalDateTime start = local(startMs);
+        return new UpcomingAppointment(a.id(), start.toLocalDate(), start.toLocalTime(), a.bookedDate());
+    }
+
+    private static LocalDateTime local(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZONE);
+    }
+}
@@ -0,0 +1,26 @@
+package uz.navbatuz.backend.reminder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Collects reminders instead of delivering them; {@link #failNext} makes the next batch throw. */
+class InMemoryReminderNotifier implements ReminderNotifier {
+
+    final List<DueReminder> sent = new ArrayList<>();
+    boolean failNext;
+
+    @Override
+    public void send(List<DueReminder> reminders) {
+        if (failNext) {
+            failNext = false;
+            throw new IllegalStateException("relay down");
+        }
+        sent.addAll(reminders);
+    }
+
+    List<DueReminder> drain() {
+        List<DueReminder> out = List.copyOf(sent);
+        sent.clear();
+        return out;
+    }
+}
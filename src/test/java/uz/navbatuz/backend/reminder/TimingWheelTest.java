@@ -0,0 +1,52 @@
+package uz.navbatuz.backend.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimingWheelTest {
+
+    private static final long T0 = 1_000_000_000L;   // ms, tick = 1 ms for readability
+
+    @Test
+    void firesEachTimerOnItsTickAcrossLevels() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, T0);
+        wheel.schedule("level0", T0 + 5);
+        wheel.schedule("level1", T0 + 300);
+        wheel.schedule("level2", T0 + 70_000);
+        wheel.schedule("level3", T0 + 3_000_000);
+
+        assertThat(wheel.advanceTo(T0 + 4)).isEmpty();
+        assertThat(wheel.advanceTo(T0 + 5)).containsExactly("level0");
+        assertThat(wheel.advanceTo(T0 + 299)).isEmpty();
+        assertThat(wheel.advanceTo(T0 + 300)).containsExactly("level1");
+        assertThat(wheel.advanceTo(T0 + 69_999)).isEmpty();
+        assertThat(wheel.advanceTo(T0 + 70_000)).containsExactly("level2");
+        assertThat(wheel.advanceTo(T0 + 3_000_000)).containsExactly("level3");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void rescheduleReplacesAndCancelRemoves() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, T0);
+        wheel.schedule("a", T0 + 100);
+        wheel.schedule("a", T0 + 5_000);
+        wheel.schedule("b", T0 + 100);
+        assertThat(wheel.cancel("b")).isTrue();
+
+        assertThat(wheel.advanceTo(T0 + 4_999)).isEmpty();
+        assertThat(wheel.advanceTo(T0 + 6_000)).containsExactly("a");
+        assertThat(wheel.cancel("a")).isFalse();
+    }
+
+    @Test
+    void pastDeadlinesFireOnNextAdvanceAndHorizonIsEnforced() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, T0);
+        wheel.schedule("late", T0 - 10);
+        assertThat(wheel.advanceTo(T0)).containsExactly("late");
+
+        assertThatThrownBy(() -> wheel.schedule("far", T0 + wheel.horizonMs() + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
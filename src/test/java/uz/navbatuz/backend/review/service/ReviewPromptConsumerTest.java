@@ -0,0 +1,61 @@
+package uz.navbatuz.backend.review.service;
+
+import org.junit.jupiter.api.Test;
+import uz.navbatuz.backend.appointment.event.AppointmentEvent;
+import uz.navbatuz.backend.appointment.event.AppointmentEventType;
+import uz.navbatuz.backend.common.EmailService;
+import uz.navbatuz.backend.customer.model.Customer;
+import uz.navbatuz.backend.customer.repository.CustomerRepository;
+import uz.navbatuz.backend.mail.template.MailTemplateService;
+import uz.navbatuz.backend.mail.template.RenderedMail;
+import uz.navbatuz.backend.provider.model.Provider;
+import uz.navbatuz.backend.provider.repository.ProviderRepository;
+import uz.navbatuz.backend.review.repository.ReviewRepository;
+import uz.navbatuz.backend.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReviewPromptConsumerTest {
+
+    private final CustomerRepository customers = mock(CustomerRepository.class);
+    private final ProviderRepository providers = mock(ProviderRepository.class);
+    private final ReviewRepository reviews = mock(ReviewRepository.class);
+    private final MailTemplateService templates = mock(MailTemplateService.class);
+    private final EmailService email = mock(EmailService.class);
+    private final ReviewPromptConsumer consumer =
+            new ReviewPromptConsumer(customers, providers, reviews, templates, email);
+
+    @Test
+    void reviewedAppointmentsAreFilteredWithOneQueryPerBatch() {
+        Customer customer = Customer.builder().id(UUID.randomUUID())
+                .user(User.builder().name("Ali").email("ali@example.com").build()).build();
+        Provider provider = new Provider();
+        provider.setId(UUID.randomUUID());
+        provider.setName("Barber");
+        AppointmentEvent reviewed = completed(customer, provider);
+        AppointmentEvent pending = completed(customer, provider);
+
+        when(reviews.findReviewedAppointmentIds(any())).thenReturn(Set.of(reviewed.appointmentId()));
+        when(customers.findAllWithUserByIdIn(any())).thenReturn(List.of(customer));
+        when(providers.findAllById(any())).thenReturn(List.of(provider));
+        when(templates.render(any(), any(), any(String[].class))).thenReturn(new RenderedMail("s", "h"));
+
+        consumer.onEvents(List.of(reviewed, pending));
+
+        verify(reviews).findReviewedAppointmentIds(Set.of(reviewed.appointmentId(), pending.appointmentId()));
+        verify(reviews, never()).existsByAppointmentId(any());
+        verify(email).sendHtml(eq("review-prompt:" + pending.appointmentId()), eq("ali@example.com"), any(), any());
+        verify(email, never()).sendHtml(eq("review-prompt:" + reviewed.appointmentId()), any(), any(), any());
+    }
+
+    private static AppointmentEvent completed(Customer customer, Provider provider) {
+        return new AppointmentEvent(UUID.randomUUID(), AppointmentEventType.COMPLETED, UUID.randomUUID(),
+                provider.getId(), UUID.randomUUID(), customer.getId(), null, null, null, null, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,55 @@
+package uz.navbatuz.backend.security;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import uz.navbatuz.backend.auth.service.JwtService;
+import uz.navbatuz.backend.common.Role;
+import uz.navbatuz.backend.user.repository.UserRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private final JwtService jwtService = mock(JwtService.class);
+    private final UserRepository users = mock(UserRepository.class);
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, users, new PrincipalCache());
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void principalIsASharedImmutableRecordLoadedOnce() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(jwtService.parseClaims("t")).thenReturn(Jwts.claims().setSubject(id.toString()));
+        when(users.findPrincipalById(id)).thenReturn(Optional.of(new AuthenticatedUser(id, "a@b.uz", Role.OWNER, true)));
+
+        Authentication first = authenticate();
+        Authentication second = authenticate();
+
+        assertThat(first.getPrincipal()).isInstanceOf(AuthenticatedUser.class).isSameAs(second.getPrincipal());
+        assertThat(first.getName()).isEqualTo("a@b.uz");
+        assertThat(first.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_OWNER");
+        verify(users, times(1)).findPrincipalById(id);
+        verify(users, never()).findById(any());
+    }
+
+    private Authentication authenticate() throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/appointments");
+        request.addHeader("Authorization", "Bearer t");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,31 @@
+package uz.navbatuz.backend.security;
+
+import org.junit.jupiter.api.Test;
+import uz.navbatuz.backend.common.Role;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrincipalCacheTest {
+
+    private final PrincipalCache cache = new PrincipalCache();
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    void principalLoadedWhileTheUserWasDeactivatedIsNotCached() {
+        AuthenticatedUser before = new AuthenticatedUser(userId, "a@example.com", Role.ADMIN, true);
+        AuthenticatedUser after = new AuthenticatedUser(userId, "a@example.com", Role.ADMIN, false);
+
+        // the deactivation commits (and evicts) while the old row is being read
+        assertThat(cache.get(userId, id -> {
+            cache.evict(userId);
+            return before;
+        })).isSameAs(before);
+
+        assertThat(cache.get(userId, id -> after).active()).isFalse();
+        assertThat(cache.get(userId, id -> {
+            throw new AssertionError("should be cached");
+        })).isSameAs(after);
+    }
+}